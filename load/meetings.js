@@ -0,0 +1,98 @@
+// k6 load test of the meeting endpoints, run once per execution mode of the application:
+//
+//   MEETING_EXECUTION_MODE=BLOCKING gradlew bootRun
+//   k6 run -e MODE=blocking load/meetings.js
+//
+//   MEETING_EXECUTION_MODE=ASYNC gradlew bootRun
+//   k6 run -e MODE=async load/meetings.js
+//
+// Runs 1k and then 10k concurrent clients. Throughput is reported as http_reqs per second and tail
+// latency as the p(95), p(99) and max of http_req_duration, both overall and per scenario. 503
+// responses, sent when requests queue up for the database in ASYNC mode, count as rejected rather
+// than failed.
+//
+// Not run yet: throughput and tail latency of the two modes are still to be recorded.
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const DURATION = __ENV.DURATION || '2m';
+
+const rejected = new Counter('rejected');
+
+export const options = {
+  discardResponseBodies: true,
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  scenarios: {
+    clients_1k: {
+      executor: 'constant-vus',
+      vus: 1000,
+      duration: DURATION,
+      tags: { clients: '1k', mode: __ENV.MODE || 'unknown' },
+    },
+    clients_10k: {
+      executor: 'constant-vus',
+      vus: 10000,
+      duration: DURATION,
+      startTime: DURATION,
+      tags: { clients: '10k', mode: __ENV.MODE || 'unknown' },
+    },
+  },
+  // Always met, they only make k6 summarize every scenario on its own
+  thresholds: {
+    'http_req_duration{clients:1k}': ['p(99)>=0'],
+    'http_req_duration{clients:10k}': ['p(99)>=0'],
+    'http_reqs{clients:1k}': ['count>=0'],
+    'http_reqs{clients:10k}': ['count>=0'],
+  },
+};
+
+export function setup() {
+  const specs = [];
+  for (let day = 0; day < 500; day++) {
+    const date = new Date(Date.UTC(2018, 0, 1) + day * 86400000).toISOString().slice(0, 19);
+    specs.push({
+      meetingType: 'GROOMING',
+      priorityType: 'HIGH',
+      date: date,
+      timeZone: 'UTC',
+      durationMinutes: 60,
+    });
+  }
+  http.post(`${BASE_URL}/meeting/bulk/create`, JSON.stringify(specs), {
+    headers: { 'Content-Type': 'application/json' },
+  });
+}
+
+// Mix of polling, paging and point reads, with the occasional write
+export default function () {
+  const roll = Math.random();
+  let response;
+  if (roll < 0.4) {
+    response = http.get(`${BASE_URL}/meeting/read?meetingId=${meetingId()}`);
+  } else if (roll < 0.7) {
+    response = http.get(`${BASE_URL}/meeting/all/page?size=50`);
+  } else if (roll < 0.95) {
+    response = http.get(
+      `${BASE_URL}/meeting/filter?priorityTypes=HIGH&startDate=2018-03-01T00:00:00&size=20`);
+  } else {
+    const day = 1 + Math.floor(Math.random() * 28);
+    response = http.put(
+      `${BASE_URL}/meeting/update?meetingId=${meetingId()}` +
+        `&meetingType=GROOMING&priorityType=LOW&date=2019-02-${String(day).padStart(2, '0')}` +
+        `T${String(Math.floor(Math.random() * 24)).padStart(2, '0')}:00:00&timeZone=UTC`);
+  }
+
+  if (response.status === 503) {
+    rejected.add(1);
+    return;
+  }
+  check(response, {
+    'status is 2xx or 409': (r) => (r.status >= 200 && r.status < 300) || r.status === 409,
+  });
+}
+
+function meetingId() {
+  return 1 + Math.floor(Math.random() * 500);
+}
@@ -0,0 +1,102 @@
+package com.fkusztel.meeting.planner.benchmark;
+
+import com.fkusztel.meeting.planner.MeetingPlannerApplication;
+import com.fkusztel.meeting.planner.entity.MeetingType;
+import com.fkusztel.meeting.planner.entity.PriorityType;
+import com.fkusztel.meeting.planner.service.MeetingBulkResult;
+import com.fkusztel.meeting.planner.service.MeetingService;
+import com.fkusztel.meeting.planner.service.MeetingSpec;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Application running against an embedded H2 database, seeded with meetings of one hour starting
+ * every {@link #SPACING}. Every third meeting has low priority.
+ *
+ * @author Filip.Kusztelak
+ */
+final class BenchmarkApplication implements AutoCloseable {
+
+  static final LocalDateTime START = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+  static final Duration SPACING = Duration.ofMinutes(70);
+
+  private static final int SEED_CHUNK = 10_000;
+
+  private final ConfigurableApplicationContext context;
+
+  private final List<Long> meetingIds;
+
+  BenchmarkApplication(int meetings, boolean indexEnabled) {
+    context =
+        new SpringApplicationBuilder(MeetingPlannerApplication.class)
+            .web(WebApplicationType.NONE)
+            .bannerMode(Banner.Mode.OFF)
+            .logStartupInfo(false)
+            // Arguments, as plain properties would not override application.properties
+            .run(
+                "--spring.datasource.url=jdbc:h2:mem:meetings" + System.nanoTime(),
+                "--meeting.index.enabled=" + indexEnabled,
+                "--logging.level.root=WARN");
+    meetingIds = seed(meetings);
+  }
+
+  private List<Long> seed(int meetings) {
+    MeetingService meetingService = getMeetingService();
+    List<Long> ids = new ArrayList<>(meetings);
+
+    for (int from = 0; from < meetings; from += SEED_CHUNK) {
+      List<MeetingSpec> specs = new ArrayList<>();
+      for (int i = from; i < Math.min(meetings, from + SEED_CHUNK); i++) {
+        specs.add(spec(i));
+      }
+      for (MeetingBulkResult result : meetingService.meetingCreateAll(specs)) {
+        if (result.getStatus() != MeetingBulkResult.Status.CREATED) {
+          throw new IllegalStateException("Seeding failed: " + result);
+        }
+        ids.add(result.getMeetingId());
+      }
+    }
+    return ids;
+  }
+
+  private static MeetingSpec spec(int i) {
+    return MeetingSpec.builder()
+        .meetingType(MeetingType.values()[i % MeetingType.values().length])
+        .priorityType(i % 3 == 0 ? PriorityType.LOW : PriorityType.HIGH)
+        .date(startOf(i).toString())
+        .timeZone(ZoneOffset.UTC)
+        .durationMinutes(60L)
+        .build();
+  }
+
+  /** Start of the i-th seeded meeting in UTC. */
+  static LocalDateTime startOf(long i) {
+    return START.plus(SPACING.multipliedBy(i));
+  }
+
+  MeetingService getMeetingService() {
+    return context.getBean(MeetingService.class);
+  }
+
+  <T> T getBean(Class<T> type) {
+    return context.getBean(type);
+  }
+
+  /** Id of the i-th seeded meeting. */
+  Long getMeetingId(int i) {
+    return meetingIds.get(i);
+  }
+
+  @Override
+  public void close() {
+    context.close();
+  }
+}
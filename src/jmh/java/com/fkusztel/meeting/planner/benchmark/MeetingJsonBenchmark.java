@@ -0,0 +1,99 @@
+package com.fkusztel.meeting.planner.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fkusztel.meeting.planner.config.CborConfig;
+import com.fkusztel.meeting.planner.entity.Meeting;
+import com.fkusztel.meeting.planner.entity.MeetingType;
+import com.fkusztel.meeting.planner.entity.MeetingView;
+import com.fkusztel.meeting.planner.entity.PriorityType;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * JSON and CBOR serialization of meetings, configured like the application's object mappers. The
+ * payload sizes of both formats are compared by CborConfigTest.
+ *
+ * @author Filip.Kusztelak
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MeetingJsonBenchmark {
+
+  private ObjectMapper objectMapper;
+
+  private ObjectMapper cborObjectMapper;
+
+  private Meeting meeting;
+
+  private List<Meeting> page;
+
+  private List<MeetingView> viewPage;
+
+  @Setup
+  public void setUp() {
+    objectMapper =
+        Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    cborObjectMapper = CborConfig.cborObjectMapper();
+
+    page = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      page.add(
+          Meeting.builder()
+              .id((long) i)
+              .meetingType(MeetingType.values()[i % MeetingType.values().length])
+              .priorityType(PriorityType.values()[i % PriorityType.values().length])
+              .meetingDate(BenchmarkApplication.startOf(i).atZone(ZoneOffset.UTC))
+              .meetingEndDate(BenchmarkApplication.startOf(i).plusHours(1).atZone(ZoneOffset.UTC))
+              .build());
+    }
+    meeting = page.get(0);
+    viewPage = page.stream().map(MeetingView::of).collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public byte[] writeMeeting() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(meeting);
+  }
+
+  @Benchmark
+  public byte[] writePage() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(page);
+  }
+
+  @Benchmark
+  public byte[] writeViewPage() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(viewPage);
+  }
+
+  @Benchmark
+  public byte[] writeMeetingCbor() throws JsonProcessingException {
+    return cborObjectMapper.writeValueAsBytes(meeting);
+  }
+
+  @Benchmark
+  public byte[] writeViewPageCbor() throws JsonProcessingException {
+    return cborObjectMapper.writeValueAsBytes(viewPage);
+  }
+}
@@ -0,0 +1,142 @@
+package com.fkusztel.meeting.planner.benchmark;
+
+import com.fkusztel.meeting.planner.entity.Meeting;
+import com.fkusztel.meeting.planner.entity.MeetingRepository;
+import com.fkusztel.meeting.planner.entity.MeetingView;
+import com.fkusztel.meeting.planner.entity.PriorityType;
+import com.fkusztel.meeting.planner.exception.MeetingNotFoundException;
+import com.fkusztel.meeting.planner.service.FreeSlot;
+import com.fkusztel.meeting.planner.service.MeetingPage;
+import com.fkusztel.meeting.planner.service.MeetingService;
+import com.fkusztel.meeting.planner.service.MeetingSort;
+import com.google.common.collect.Lists;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort.Direction;
+
+/**
+ * Read paths of {@link MeetingService}, with and without the in-memory index.
+ *
+ * @author Filip.Kusztelak
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MeetingReadBenchmark {
+
+  /** Meetings in a calendar view of one week. */
+  private static final int WINDOW = (int) (Duration.ofDays(7).toMinutes() / 70);
+
+  private static final MeetingSort BY_DATE_DESC = MeetingSort.of("meetingDate", Direction.DESC);
+
+  private static final MeetingSort BY_PRIORITY_DESC_DATE =
+      MeetingSort.parse("priorityType:desc,meetingDate:asc");
+
+  @Param({"10000", "100000", "1000000"})
+  private int meetings;
+
+  @Param({"true", "false"})
+  private boolean index;
+
+  private BenchmarkApplication application;
+
+  private MeetingService meetingService;
+
+  private MeetingRepository meetingRepository;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    application = new BenchmarkApplication(meetings, index);
+    meetingService = application.getMeetingService();
+    meetingRepository = application.getBean(MeetingRepository.class);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    application.close();
+  }
+
+  private int randomMeeting() {
+    return ThreadLocalRandom.current().nextInt(meetings - WINDOW);
+  }
+
+  @Benchmark
+  public Meeting findMeetingById() throws MeetingNotFoundException {
+    return meetingService.findMeetingById(application.getMeetingId(randomMeeting()));
+  }
+
+  /** Ids from a hot set that fits into the cache. */
+  @Benchmark
+  public Meeting findMeetingByIdCached() throws MeetingNotFoundException {
+    return meetingService.findMeetingById(
+        application.getMeetingId(ThreadLocalRandom.current().nextInt(1000)));
+  }
+
+  @Benchmark
+  public List<MeetingView> findMeetingByDateBetween() {
+    LocalDateTime start = BenchmarkApplication.startOf(randomMeeting());
+    return meetingService.findMeetingByDateBetween(start, start.plusDays(7));
+  }
+
+  /** Range filtering as done before the range query, by loading and filtering all meetings. */
+  @Benchmark
+  public List<Meeting> findMeetingByDateBetweenFullScan() {
+    LocalDateTime start = BenchmarkApplication.startOf(randomMeeting());
+    LocalDateTime end = start.plusDays(7);
+    List<Meeting> datesBetween = Lists.newArrayList();
+
+    for (Meeting meeting : meetingRepository.findAll()) {
+      if (meeting.getMeetingDate().toLocalDateTime().isAfter(start)
+          && meeting.getMeetingDate().toLocalDateTime().isBefore(end)) {
+        datesBetween.add(meeting);
+      }
+    }
+    return datesBetween;
+  }
+
+  @Benchmark
+  public MeetingPage getSortedPage() {
+    return meetingService.getSorted(BY_DATE_DESC, null, 100);
+  }
+
+  /** Second key ordered the other way, served by the descending priority index. */
+  @Benchmark
+  public MeetingPage getSortedPageByPriority() {
+    return meetingService.getSorted(BY_PRIORITY_DESC_DATE, null, 100);
+  }
+
+  /** Every gap of the calendar is too short, so the whole window is swept. */
+  @Benchmark
+  public List<FreeSlot> findFreeSlotsDense() {
+    LocalDateTime start = BenchmarkApplication.startOf(randomMeeting());
+    return meetingService.findFreeSlots(
+        start, start.plusDays(7), Duration.ofMinutes(30), null, 10);
+  }
+
+  /** Low priority meetings do not block, so slots are found within a few meetings. */
+  @Benchmark
+  public List<FreeSlot> findFreeSlotsAboveLow() {
+    LocalDateTime start = BenchmarkApplication.startOf(randomMeeting());
+    return meetingService.findFreeSlots(
+        start, start.plusDays(7), Duration.ofMinutes(30), PriorityType.MEDIUM, 10);
+  }
+}
@@ -0,0 +1,58 @@
+package com.fkusztel.meeting.planner.benchmark;
+
+import com.fkusztel.meeting.planner.config.ZoneIdConverter;
+import com.fkusztel.meeting.planner.service.MeetingTime;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Date and time zone handling of the create path. Run with the gc profiler to compare allocations
+ * per operation.
+ *
+ * @author Filip.Kusztelak
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MeetingTimeBenchmark {
+
+  private static final Duration ONE_HOUR = Duration.ofHours(1);
+
+  @Param({"2018-02-03T12:30:30"})
+  private String date;
+
+  @Param({"Europe/Berlin"})
+  private String timeZone;
+
+  /** Conversion and parsing as done before {@link MeetingTime}. */
+  @Benchmark
+  public void parseZoned(Blackhole blackhole) {
+    ZonedDateTime meetingDate =
+        ZonedDateTime.ofLocal(LocalDateTime.parse(date), ZoneId.of(timeZone), ZoneOffset.UTC);
+    blackhole.consume(meetingDate);
+    blackhole.consume(meetingDate.plus(ONE_HOUR));
+  }
+
+  @Benchmark
+  public MeetingTime parseMeetingTime() {
+    return MeetingTime.of(date, ZoneIdConverter.toZoneId(timeZone), ONE_HOUR);
+  }
+}
@@ -0,0 +1,141 @@
+package com.fkusztel.meeting.planner.benchmark;
+
+import com.fkusztel.meeting.planner.entity.Meeting;
+import com.fkusztel.meeting.planner.entity.MeetingRepository;
+import com.fkusztel.meeting.planner.entity.MeetingType;
+import com.fkusztel.meeting.planner.entity.PriorityType;
+import com.fkusztel.meeting.planner.exception.MeetingNotFoundException;
+import com.fkusztel.meeting.planner.service.MeetingService;
+import com.fkusztel.meeting.planner.service.MeetingTime;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Creates and updates per second through {@link MeetingService}.
+ *
+ * @author Filip.Kusztelak
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MeetingWriteBenchmark {
+
+  private static final Duration ONE_HOUR = Duration.ofHours(1);
+
+  @Param({"10000", "100000"})
+  private int meetings;
+
+  @Param({"true", "false"})
+  private boolean index;
+
+  private BenchmarkApplication application;
+
+  private MeetingService meetingService;
+
+  private MeetingRepository meetingRepository;
+
+  /** Created meetings follow the seeded ones, so they never conflict. */
+  private final AtomicLong created = new AtomicLong();
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    application = new BenchmarkApplication(meetings, index);
+    meetingService = application.getMeetingService();
+    meetingRepository = application.getBean(MeetingRepository.class);
+    created.set(meetings);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    application.close();
+  }
+
+  @Benchmark
+  public Meeting meetingCreate() {
+    String date = BenchmarkApplication.startOf(created.getAndIncrement()).toString();
+    return meetingService.meetingCreate(
+        MeetingType.GROOMING, PriorityType.HIGH, MeetingTime.of(date, ZoneOffset.UTC, ONE_HOUR));
+  }
+
+  /** Create as done before the single save, by saving the new meeting twice. */
+  @Benchmark
+  public Meeting meetingCreateDoubleSave() {
+    String date = BenchmarkApplication.startOf(created.getAndIncrement()).toString();
+    MeetingTime time = MeetingTime.of(date, ZoneOffset.UTC, ONE_HOUR);
+    Meeting meeting =
+        Meeting.builder()
+            .meetingType(MeetingType.GROOMING)
+            .priorityType(PriorityType.HIGH)
+            .meetingDate(time.getStartDate())
+            .meetingEndDate(time.getEndDate())
+            .build();
+    meetingRepository.save(meeting);
+    return meetingRepository.save(meeting);
+  }
+
+  /** Changes the type of a seeded meeting, keeping its time. */
+  @Benchmark
+  public Meeting updateMeeting() {
+    int i = ThreadLocalRandom.current().nextInt(meetings);
+    String date = BenchmarkApplication.startOf(i).toString();
+    return meetingService.updateMeeting(
+        application.getMeetingId(i),
+        randomType(),
+        PriorityType.HIGH,
+        MeetingTime.of(date, ZoneOffset.UTC, ONE_HOUR),
+        null);
+  }
+
+  /**
+   * Update as done before the single UPDATE statement, by reading the meeting and saving it, with
+   * creation on a missing meeting.
+   */
+  @Benchmark
+  public Meeting updateMeetingFindAndSave() {
+    int i = ThreadLocalRandom.current().nextInt(meetings);
+    String date = BenchmarkApplication.startOf(i).toString();
+    MeetingTime time = MeetingTime.of(date, ZoneOffset.UTC, ONE_HOUR);
+    try {
+      Meeting updated =
+          meetingRepository
+              .findById(application.getMeetingId(i))
+              .orElseThrow(MeetingNotFoundException::new);
+      updated.setMeetingType(randomType());
+      updated.setPriorityType(PriorityType.HIGH);
+      updated.setMeetingDate(time.getStartDate());
+      updated.setMeetingEndDate(time.getEndDate());
+      return meetingRepository.save(updated);
+    } catch (MeetingNotFoundException e) {
+      return meetingRepository.save(
+          Meeting.builder()
+              .meetingType(randomType())
+              .priorityType(PriorityType.HIGH)
+              .meetingDate(time.getStartDate())
+              .meetingEndDate(time.getEndDate())
+              .build());
+    }
+  }
+
+  private static MeetingType randomType() {
+    return MeetingType.values()[ThreadLocalRandom.current().nextInt(MeetingType.values().length)];
+  }
+}
@@ -0,0 +1,83 @@
+package com.fkusztel.meeting.planner.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Opens the minimum number of idle connections of the pool before the web server starts, so the
+ * first requests after a deploy do not wait for connections to be set up. Every connection is
+ * validated, and startup fails when the pool can not be filled with valid connections.
+ *
+ * @author Filip.Kusztelak
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "meeting.datasource.warm-up", havingValue = "true")
+public class ConnectionPoolWarmup {
+
+  @Autowired DataSource dataSource;
+
+  @Value("${meeting.datasource.validation-timeout-seconds:5}")
+  int validationTimeoutSeconds;
+
+  /**
+   * Warm up the pool, or with replicas the primary pool and then each replica pool. Replicas
+   * failing to warm up are left to the fallback to the primary.
+   */
+  @EventListener(ContextRefreshedEvent.class)
+  public void warmUp() throws SQLException {
+    if (!dataSource.isWrapperFor(ReplicaRoutingDataSource.class)) {
+      warmUp(dataSource);
+      return;
+    }
+
+    ReplicaRoutingDataSource routing = dataSource.unwrap(ReplicaRoutingDataSource.class);
+    warmUp(routing.getPrimary());
+    for (DataSource replica : routing.getReplicas()) {
+      try {
+        warmUp(replica);
+      } catch (SQLException e) {
+        log.warn("Replica pool could not be warmed up", e);
+      }
+    }
+  }
+
+  /** Borrow the pool's minimum of connections at once and validate each of them. */
+  private void warmUp(DataSource pool) throws SQLException {
+    int size =
+        pool.isWrapperFor(HikariDataSource.class)
+            ? Math.max(pool.unwrap(HikariDataSource.class).getMinimumIdle(), 1)
+            : 1;
+    long start = System.nanoTime();
+
+    List<Connection> connections = new ArrayList<>(size);
+    try {
+      for (int i = 0; i < size; i++) {
+        Connection connection = pool.getConnection();
+        connections.add(connection);
+        if (!connection.isValid(validationTimeoutSeconds)) {
+          throw new SQLException("Connection " + i + " of the pool failed validation");
+        }
+      }
+    } finally {
+      for (Connection connection : connections) {
+        connection.close();
+      }
+    }
+    log.info(
+        "Connection pool warmed up with {} connections in {} ms",
+        size,
+        (System.nanoTime() - start) / 1_000_000);
+  }
+}
@@ -0,0 +1,33 @@
+package com.fkusztel.meeting.planner.config;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Routing of the reads of the current thread. Read-only transactions go to a replica unless the
+ * thread requires the primary, which it does while serving a client that has just written and
+ * must read its own writes.
+ *
+ * @author Filip.Kusztelak
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DataSourceRouting {
+
+  private static final ThreadLocal<Boolean> PRIMARY_REQUIRED =
+      ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+  public static boolean isPrimaryRequired() {
+    return PRIMARY_REQUIRED.get();
+  }
+
+  /** Require the primary, or not, for reads of the current thread. Returns the previous value. */
+  public static boolean setPrimaryRequired(boolean required) {
+    boolean previous = PRIMARY_REQUIRED.get();
+    if (required) {
+      PRIMARY_REQUIRED.set(Boolean.TRUE);
+    } else {
+      PRIMARY_REQUIRED.remove();
+    }
+    return previous;
+  }
+}
@@ -0,0 +1,112 @@
+package com.fkusztel.meeting.planner.config;
+
+import com.fkusztel.meeting.planner.service.MeetingVersion;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Read replicas of the meeting database, enabled by a comma separated list of their URLs in
+ * meeting.datasource.replica-urls. Replaces the single data source with a primary pool configured
+ * by spring.datasource and a pool per replica, sharing the credentials and Hikari settings of the
+ * primary. Read-only transactions are sent to the replicas by {@link ReplicaRoutingDataSource}.
+ *
+ * <p>meeting.datasource.replication-lag-seconds is the longest a write may take to reach the
+ * replicas. For that long clients read their writes from the primary, and listings are not tagged
+ * with the version of the meeting table.
+ *
+ * @author Filip.Kusztelak
+ */
+@Configuration
+@ConditionalOnProperty(name = "meeting.datasource.replica-urls")
+public class ReplicaDataSourceConfig {
+
+  @Autowired Environment environment;
+
+  @Autowired MeterRegistry meterRegistry;
+
+  @Autowired MeetingVersion meetingVersion;
+
+  @Value("${meeting.datasource.replica-urls}")
+  String[] replicaUrls;
+
+  @Value("${meeting.datasource.replication-lag-seconds:5}")
+  long replicationLagSeconds;
+
+  /** How long a replica failing to give a connection is skipped. */
+  @Value("${meeting.datasource.replica-retry-seconds:30}")
+  long replicaRetrySeconds;
+
+  /** Shorter than for the primary, as reads fall back to the primary when it expires. */
+  @Value("${meeting.datasource.replica-connection-timeout-ms:1000}")
+  long replicaConnectionTimeoutMs;
+
+  private ReplicaRoutingDataSource routing;
+
+  @PostConstruct
+  void init() {
+    meetingVersion.setReplicationLag(Duration.ofSeconds(replicationLagSeconds));
+  }
+
+  /**
+   * Data source of the application, taking a connection once the transaction is set up. The
+   * routing data source is not a bean of its own, as the data source initializer would take it for
+   * a second data source of the application.
+   */
+  @Bean
+  @Primary
+  public DataSource dataSource(DataSourceProperties properties) {
+    HikariDataSource primary = pool(properties, properties.determineUrl());
+
+    List<DataSource> replicas = new ArrayList<>();
+    for (String url : replicaUrls) {
+      HikariDataSource replica = pool(properties, url.trim());
+      replica.setPoolName(primary.getPoolName() + "-replica-" + replicas.size());
+      replica.setConnectionTimeout(replicaConnectionTimeoutMs);
+      // A replica being down must not prevent startup
+      replica.setInitializationFailTimeout(-1);
+      replicas.add(replica);
+    }
+    routing =
+        new ReplicaRoutingDataSource(primary, replicas, Duration.ofSeconds(replicaRetrySeconds));
+    return new LazyConnectionDataSourceProxy(routing);
+  }
+
+  @Bean
+  public ReplicaStickinessFilter replicaStickinessFilter() {
+    return new ReplicaStickinessFilter(Duration.ofSeconds(replicationLagSeconds));
+  }
+
+  @PreDestroy
+  void close() throws IOException {
+    if (routing != null) {
+      routing.close();
+    }
+  }
+
+  private HikariDataSource pool(DataSourceProperties properties, String url) {
+    HikariDataSource pool =
+        properties.initializeDataSourceBuilder().type(HikariDataSource.class).url(url).build();
+    Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+    pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+    return pool;
+  }
+}
@@ -0,0 +1,115 @@
+package com.fkusztel.meeting.planner.config;
+
+import com.google.common.collect.ImmutableList;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends connections of read-only transactions to replicas in turn and all others to the primary.
+ * Has to be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * so the connection is taken once the transaction is marked read-only rather than when it begins.
+ *
+ * <p>A replica failing to give a connection is skipped for a while, and its reads fall back to the
+ * next replica or to the primary. Fallbacks are counted as meeting.replica.fallbacks.
+ *
+ * @author Filip.Kusztelak
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+  private static final Counter FALLBACKS = Metrics.counter("meeting.replica.fallbacks");
+
+  private final DataSource primary;
+
+  private final List<Replica> replicas;
+
+  private final long retryNanos;
+
+  private final AtomicInteger next = new AtomicInteger();
+
+  public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration retry) {
+    this.primary = primary;
+    this.replicas = replicas.stream().map(Replica::new).collect(ImmutableList.toImmutableList());
+    this.retryNanos = retry.toNanos();
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+        && !DataSourceRouting.isPrimaryRequired()) {
+      for (int i = 0; i < replicas.size(); i++) {
+        Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+        if (replica.isAvailable()) {
+          try {
+            return replica.dataSource.getConnection();
+          } catch (SQLException e) {
+            replica.failed();
+            FALLBACKS.increment();
+            log.warn("Replica skipped for {} s", retryNanos / 1_000_000_000, e);
+          }
+        }
+      }
+    }
+    return primary.getConnection();
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return primary.getConnection(username, password);
+  }
+
+  public DataSource getPrimary() {
+    return primary;
+  }
+
+  public List<DataSource> getReplicas() {
+    return replicas.stream()
+        .map(replica -> replica.dataSource)
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  @Override
+  public void close() throws IOException {
+    close(primary);
+    for (Replica replica : replicas) {
+      close(replica.dataSource);
+    }
+  }
+
+  private static void close(DataSource dataSource) throws IOException {
+    if (dataSource instanceof Closeable) {
+      ((Closeable) dataSource).close();
+    }
+  }
+
+  private final class Replica {
+
+    private final DataSource dataSource;
+
+    /** Time until which the replica is skipped, as of {@link System#nanoTime()}. */
+    private volatile long skippedUntil = System.nanoTime();
+
+    Replica(DataSource dataSource) {
+      this.dataSource = dataSource;
+    }
+
+    boolean isAvailable() {
+      return System.nanoTime() - skippedUntil >= 0;
+    }
+
+    void failed() {
+      skippedUntil = System.nanoTime() + retryNanos;
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package com.fkusztel.meeting.planner.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * Lets clients read their own writes while replicas catch up. A request that may write, any but
+ * GET, HEAD and OPTIONS, gives the client a cookie holding the end of the replication lag. Until
+ * then reads of that client are sent to the primary.
+ *
+ * @author Filip.Kusztelak
+ */
+public class ReplicaStickinessFilter extends OncePerRequestFilter {
+
+  static final String COOKIE_NAME = "meeting-primary-until";
+
+  private final Duration replicationLag;
+
+  public ReplicaStickinessFilter(Duration replicationLag) {
+    this.replicationLag = replicationLag;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    long now = System.currentTimeMillis();
+    boolean write = !isSafe(request.getMethod());
+    if (write) {
+      Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(now + replicationLag.toMillis()));
+      cookie.setMaxAge((int) replicationLag.getSeconds() + 1);
+      cookie.setPath("/");
+      cookie.setHttpOnly(true);
+      response.addCookie(cookie);
+    }
+
+    boolean previous = DataSourceRouting.setPrimaryRequired(write || primaryUntil(request) > now);
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      DataSourceRouting.setPrimaryRequired(previous);
+    }
+  }
+
+  private static boolean isSafe(String method) {
+    return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+  }
+
+  private static long primaryUntil(HttpServletRequest request) {
+    Cookie cookie = WebUtils.getCookie(request, COOKIE_NAME);
+    if (cookie == null) {
+      return 0;
+    }
+    try {
+      return Long.parseLong(cookie.getValue());
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+}
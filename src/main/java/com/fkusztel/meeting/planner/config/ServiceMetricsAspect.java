@@ -0,0 +1,42 @@
+package com.fkusztel.meeting.planner.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every {@link com.fkusztel.meeting.planner.service.MeetingService} operation as
+ * meeting.service, tagged with the method and the exception thrown, if any.
+ *
+ * @author Filip.Kusztelak
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+  static final String METRIC_NAME = "meeting.service";
+
+  @Autowired MeterRegistry meterRegistry;
+
+  @Around("execution(* com.fkusztel.meeting.planner.service.MeetingService.*(..))")
+  public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    String exception = "none";
+    try {
+      return joinPoint.proceed();
+    } catch (Throwable e) {
+      exception = e.getClass().getSimpleName();
+      throw e;
+    } finally {
+      sample.stop(
+          Timer.builder(METRIC_NAME)
+              .tag("method", joinPoint.getSignature().getName())
+              .tag("exception", exception)
+              .register(meterRegistry));
+    }
+  }
+}
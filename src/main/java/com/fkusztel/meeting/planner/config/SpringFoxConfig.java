@@ -1,5 +1,6 @@
 package com.fkusztel.meeting.planner.config;
 
+import java.util.concurrent.CompletableFuture;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import springfox.documentation.builders.PathSelectors;
@@ -20,6 +21,7 @@ public class SpringFoxConfig {
         .select()
         .apis(RequestHandlerSelectors.any())
         .paths(PathSelectors.any())
-        .build();
+        .build()
+        .genericModelSubstitutes(CompletableFuture.class);
   }
 }
\ No newline at end of file
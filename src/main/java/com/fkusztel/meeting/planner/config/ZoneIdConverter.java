@@ -0,0 +1,40 @@
+package com.fkusztel.meeting.planner.config;
+
+import com.google.common.collect.ImmutableMap;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Converts time zone request parameters. Region ids known to the JVM are resolved, together with
+ * their rules, once at startup, so a request only looks its zone up. Other ids such as offsets
+ * fall back to {@link ZoneId#of(String)} and are not kept, which keeps the lookup bounded.
+ *
+ * @author Filip.Kusztelak
+ */
+@Component
+public class ZoneIdConverter implements Converter<String, ZoneId> {
+
+  private static final Map<String, ZoneId> ZONES = zones();
+
+  private static Map<String, ZoneId> zones() {
+    ImmutableMap.Builder<String, ZoneId> zones = ImmutableMap.builder();
+    for (String id : ZoneId.getAvailableZoneIds()) {
+      zones.put(id, ZoneId.of(id));
+    }
+    zones.put("Z", ZoneOffset.UTC);
+    return zones.build();
+  }
+
+  @Override
+  public ZoneId convert(String source) {
+    return toZoneId(source);
+  }
+
+  public static ZoneId toZoneId(String id) {
+    ZoneId zone = ZONES.get(id);
+    return zone != null ? zone : ZoneId.of(id);
+  }
+}
@@ -0,0 +1,337 @@
+package com.fkusztel.meeting.planner.controller;
+
+import com.fkusztel.meeting.planner.exception.ServiceBusyException;
+import com.fkusztel.meeting.planner.service.MeetingChange;
+import com.fkusztel.meeting.planner.service.MeetingChangeFeed;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Streams {@link MeetingChangeFeed} to subscribers as server-sent events. Each change is sent as a
+ * meeting event whose id is the epoch of the feed and the sequence of the change, so a client
+ * reconnecting with the Last-Event-ID header resumes after the last change it received.
+ *
+ * <p>Subscribers share the ring of the feed rather than holding queues of their own. A change only
+ * wakes a fan-out task, which schedules a drain of every subscriber on a small pool of sender
+ * threads, at most one drain per subscriber at a time. A subscriber which falls behind the ring,
+ * or resumes from another epoch, gets a reset event: it missed changes and has to reload the
+ * meetings, and the stream continues with the latest change.
+ *
+ * <p>A send to a client that stops reading blocks until the container times the write out. A send
+ * running longer than meeting.feed.send-timeout-millis expires its subscriber: no more events are
+ * scheduled for it, and a sender thread is started in place of the blocked one, up to as many as
+ * meeting.feed.sender-threads, so other subscribers keep receiving changes. Once the send returns,
+ * the stream of the expired subscriber is completed and its thread stopped. The client reconnects
+ * with its last event id and resumes, or gets a reset when it missed changes.
+ *
+ * <p>Idle subscribers get a comment every heartbeat, so closed connections are found. Subscribers
+ * are exported as meeting.feed.subscribers and resets counted as meeting.feed.resets.
+ *
+ * @author Filip.Kusztelak
+ */
+@Slf4j
+@Component
+public class ChangeFeedBroadcaster implements MeterBinder {
+
+  private static final Counter RESETS = Metrics.counter("meeting.feed.resets");
+
+  private static final String SUBSCRIBED = "subscribed";
+
+  private static final String RESET = "reset";
+
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+  /** Queues at most one task per subscriber and a fan-out task. */
+  private final ThreadPoolExecutor senders;
+
+  private final ScheduledExecutorService heartbeats =
+      Executors.newSingleThreadScheduledExecutor(
+          new ThreadFactoryBuilder().setNameFormat("meeting-feed-heartbeat").build());
+
+  private final AtomicBoolean fanOutScheduled = new AtomicBoolean();
+
+  private final int senderThreads;
+
+  /** Threads started in place of threads blocked by expired subscribers, guarded by senders. */
+  private int replacedSenders;
+
+  @Autowired MeetingChangeFeed meetingChangeFeed;
+
+  @Value("${meeting.feed.max-subscribers:10000}")
+  int maxSubscribers;
+
+  @Value("${meeting.feed.timeout-minutes:30}")
+  long timeoutMinutes;
+
+  @Value("${meeting.feed.heartbeat-seconds:30}")
+  long heartbeatSeconds;
+
+  @Value("${meeting.feed.send-timeout-millis:10000}")
+  long sendTimeoutMillis;
+
+  public ChangeFeedBroadcaster(@Value("${meeting.feed.sender-threads:4}") int senderThreads) {
+    this.senderThreads = senderThreads;
+    senders =
+        new ThreadPoolExecutor(
+            senderThreads,
+            senderThreads,
+            0,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            new ThreadFactoryBuilder().setNameFormat("meeting-feed-%d").build());
+  }
+
+  @PostConstruct
+  void init() {
+    meetingChangeFeed.addListener(this::changed);
+    heartbeats.scheduleWithFixedDelay(
+        this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    heartbeats.scheduleWithFixedDelay(
+        this::expireStalled, sendTimeoutMillis, sendTimeoutMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Subscribe to changes following the one with given event id, or to changes following the
+   * latest one when no id is given. The first event carries the id the stream starts at.
+   *
+   * @param lastEventId Id of the last event received by the client, null for a new client.
+   * @exception ServiceBusyException Maximal number of subscribers is reached
+   */
+  SseEmitter subscribe(String lastEventId) {
+    if (subscribers.size() >= maxSubscribers) {
+      throw new ServiceBusyException();
+    }
+    SseEmitter emitter = new SseEmitter(TimeUnit.MINUTES.toMillis(timeoutMinutes));
+    Subscriber subscriber = new Subscriber(emitter);
+
+    Long sequence = sequenceOf(lastEventId);
+    if (sequence != null) {
+      subscriber.position = sequence;
+    } else {
+      subscriber.position = meetingChangeFeed.getLast();
+      subscriber.pending = lastEventId == null ? SUBSCRIBED : RESET;
+    }
+
+    emitter.onCompletion(() -> subscribers.remove(subscriber));
+    emitter.onTimeout(() -> subscribers.remove(subscriber));
+    emitter.onError(e -> subscribers.remove(subscriber));
+    subscribers.add(subscriber);
+    schedule(subscriber);
+    return emitter;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("meeting.feed.subscribers", subscribers, Set::size).register(registry);
+    new ExecutorServiceMetrics(senders, "meeting.feed", Tags.empty()).bindTo(registry);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    heartbeats.shutdownNow();
+    senders.shutdownNow();
+    subscribers.forEach(subscriber -> subscriber.emitter.complete());
+  }
+
+  /** Sequence of given event id of this epoch, null for no id or an id of another epoch. */
+  private Long sequenceOf(String eventId) {
+    String prefix = meetingChangeFeed.getEpoch() + '.';
+    if (eventId == null || !eventId.startsWith(prefix)) {
+      return null;
+    }
+    try {
+      long sequence = Long.parseLong(eventId.substring(prefix.length()));
+      return sequence >= 0 && sequence <= meetingChangeFeed.getLast() ? sequence : null;
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /** Called on the writing thread, only wakes the fan-out. */
+  private void changed() {
+    if (fanOutScheduled.compareAndSet(false, true)) {
+      senders.execute(this::fanOut);
+    }
+  }
+
+  private void fanOut() {
+    fanOutScheduled.set(false);
+    long latest = meetingChangeFeed.getLast();
+    for (Subscriber subscriber : subscribers) {
+      if (subscriber.position < latest) {
+        schedule(subscriber);
+      }
+    }
+  }
+
+  private void heartbeat() {
+    for (Subscriber subscriber : subscribers) {
+      subscriber.heartbeatDue = true;
+      schedule(subscriber);
+    }
+  }
+
+  /** Expire subscribers whose send runs past the timeout and replace their sender threads. */
+  private void expireStalled() {
+    long deadline = System.currentTimeMillis() - sendTimeoutMillis;
+    for (Subscriber subscriber : subscribers) {
+      // Checked again under the lock, which the drain takes after its send returned
+      synchronized (senders) {
+        long sendingSince = subscriber.sendingSince;
+        if (sendingSince == 0 || sendingSince >= deadline) {
+          continue;
+        }
+        log.debug("Change feed subscriber expired after {} ms", sendTimeoutMillis);
+        subscriber.expired = true;
+        subscribers.remove(subscriber);
+        if (replacedSenders < senderThreads) {
+          replacedSenders++;
+          subscriber.replaced = true;
+          senders.setMaximumPoolSize(senderThreads + replacedSenders);
+          senders.setCorePoolSize(senderThreads + replacedSenders);
+        }
+      }
+    }
+  }
+
+  private void schedule(Subscriber subscriber) {
+    if (subscriber.scheduled.compareAndSet(false, true)) {
+      senders.execute(() -> drain(subscriber));
+    }
+  }
+
+  /**
+   * Send the subscriber everything it has not received yet. Runs for one subscriber at a time,
+   * and checks for changes published while it was sending before giving up the subscriber.
+   */
+  private void drain(Subscriber subscriber) {
+    try {
+      do {
+        send(subscriber);
+        subscriber.scheduled.set(false);
+      } while (!subscriber.expired
+          && subscriber.position < meetingChangeFeed.getLast()
+          && subscriber.scheduled.compareAndSet(false, true));
+      if (subscriber.expired) {
+        subscriber.emitter.complete();
+      }
+    } catch (IOException | IllegalStateException e) {
+      // Client went away or the emitter timed out, the container completes the request
+      log.debug("Change feed subscriber dropped: {}", e.toString());
+      subscribers.remove(subscriber);
+    } finally {
+      synchronized (senders) {
+        if (subscriber.replaced) {
+          // The replacing thread stops once it is idle
+          subscriber.replaced = false;
+          replacedSenders--;
+          senders.setCorePoolSize(senderThreads + replacedSenders);
+          senders.setMaximumPoolSize(senderThreads + replacedSenders);
+        }
+      }
+    }
+  }
+
+  private void send(Subscriber subscriber) throws IOException {
+    subscriber.sendingSince = System.currentTimeMillis();
+    try {
+      sendPending(subscriber);
+    } finally {
+      subscriber.sendingSince = 0;
+    }
+  }
+
+  private void sendPending(Subscriber subscriber) throws IOException {
+    SseEmitter emitter = subscriber.emitter;
+    String epoch = meetingChangeFeed.getEpoch();
+    boolean sent = false;
+
+    List<MeetingChange> changes = meetingChangeFeed.since(subscriber.position);
+    if (changes == null) {
+      // Fell behind the ring, changes following the latest one may already be overwritten too
+      subscriber.position = meetingChangeFeed.getLast();
+      subscriber.pending = RESET;
+      changes = Collections.emptyList();
+    }
+    if (subscriber.pending != null) {
+      if (RESET.equals(subscriber.pending)) {
+        RESETS.increment();
+      }
+      // Browsers dispatch no event without data, the id is repeated as its data
+      String id = epoch + '.' + subscriber.position;
+      emitter.send(SseEmitter.event().name(subscriber.pending).id(id).data(id));
+      subscriber.pending = null;
+      sent = true;
+    }
+    for (MeetingChange change : changes) {
+      if (subscriber.expired) {
+        return;
+      }
+      emitter.send(
+          SseEmitter.event()
+              .name("meeting")
+              .id(epoch + '.' + change.getSequence())
+              .data(change, MediaType.APPLICATION_JSON));
+      subscriber.position = change.getSequence();
+      sent = true;
+    }
+    if (subscriber.heartbeatDue && !sent) {
+      emitter.send(SseEmitter.event().comment(""));
+    }
+    subscriber.heartbeatDue = false;
+  }
+
+  /** Connection of a client, only touched by its single running drain. */
+  private static final class Subscriber {
+
+    private final SseEmitter emitter;
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /** Sequence of the last change sent. */
+    private volatile long position;
+
+    /** Name of an event to send before any change, null when there is none. */
+    private volatile String pending;
+
+    private volatile boolean heartbeatDue;
+
+    /** Start of the running send in epoch millis, 0 when none is running. */
+    private volatile long sendingSince;
+
+    /** Send ran past the timeout, the stream is completed once the send returns. */
+    private volatile boolean expired;
+
+    /** A thread was started in place of the one running the expired send, guarded by senders. */
+    private boolean replaced;
+
+    private Subscriber(SseEmitter emitter) {
+      this.emitter = emitter;
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package com.fkusztel.meeting.planner.controller;
+
+import com.google.common.base.Throwables;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.DeferredResultMethodReturnValueHandler;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestResponseBodyMethodProcessor;
+
+/**
+ * Writes the value of a future returned by a controller that is already complete, such as every
+ * future of {@link RequestExecutor.Mode#BLOCKING} mode, on the thread handling the request, as if
+ * the controller had returned the value itself. Only futures still running start asynchronous
+ * processing, so a request completed on its worker thread is never dispatched a second time. A
+ * future completed by an exception throws it, which is mapped to a response like exceptions thrown
+ * by the controller.
+ *
+ * @author Filip.Kusztelak
+ */
+@Component
+@ConditionalOnWebApplication
+class CompletedFutureReturnValueHandler
+    implements HandlerMethodReturnValueHandler, InitializingBean {
+
+  @Autowired RequestMappingHandlerAdapter handlerAdapter;
+
+  /** Starts asynchronous processing of futures still running. */
+  private HandlerMethodReturnValueHandler async;
+
+  /** Writes values of completed futures, all of which are response bodies. */
+  private HandlerMethodReturnValueHandler body;
+
+  /** Take the place of the handler of futures, so completed futures never reach it. */
+  @Override
+  public void afterPropertiesSet() {
+    List<HandlerMethodReturnValueHandler> handlers =
+        new ArrayList<>(handlerAdapter.getReturnValueHandlers());
+    for (int i = 0; i < handlers.size(); i++) {
+      if (handlers.get(i) instanceof DeferredResultMethodReturnValueHandler) {
+        async = handlers.get(i);
+        handlers.set(i, this);
+      } else if (handlers.get(i) instanceof RequestResponseBodyMethodProcessor) {
+        body = handlers.get(i);
+      }
+    }
+    if (async == null || body == null) {
+      throw new IllegalStateException("Handlers of futures and response bodies are not set up");
+    }
+    handlerAdapter.setReturnValueHandlers(handlers);
+  }
+
+  @Override
+  public boolean supportsReturnType(MethodParameter returnType) {
+    return async.supportsReturnType(returnType);
+  }
+
+  @Override
+  public void handleReturnValue(
+      Object returnValue,
+      MethodParameter returnType,
+      ModelAndViewContainer mavContainer,
+      NativeWebRequest webRequest)
+      throws Exception {
+    if (!(returnValue instanceof CompletableFuture)
+        || !((CompletableFuture<?>) returnValue).isDone()) {
+      async.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+      return;
+    }
+
+    Object value;
+    try {
+      value = ((CompletableFuture<?>) returnValue).join();
+    } catch (CompletionException e) {
+      Throwables.throwIfInstanceOf(e.getCause(), Exception.class);
+      Throwables.throwIfUnchecked(e.getCause());
+      throw e;
+    }
+    body.handleReturnValue(value, returnType.nested(), mavContainer, webRequest);
+  }
+}
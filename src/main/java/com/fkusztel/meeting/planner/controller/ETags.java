@@ -0,0 +1,60 @@
+package com.fkusztel.meeting.planner.controller;
+
+import java.util.List;
+import java.util.Locale;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Strong entity tags of responses. A tag names one version of the data in one representation, so
+ * besides the version it holds the format chosen by the Accept header and whether the client
+ * accepts gzip, which is applied to large responses.
+ *
+ * @author Filip.Kusztelak
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class ETags {
+
+  private static final MediaType CBOR = MediaType.valueOf("application/cbor");
+
+  private static final String VARY = HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING;
+
+  /**
+   * Tag the response with given version. Returns true, and sets status 304 Not Modified, when the
+   * client already has this representation and the response needs no body.
+   */
+  static boolean checkNotModified(ServletWebRequest request, String version) {
+    if (request.getResponse() != null) {
+      request.getResponse().addHeader(HttpHeaders.VARY, VARY);
+    }
+    return request.checkNotModified(version + '-' + format(request) + encoding(request));
+  }
+
+  /** Format the message converters choose, JSON unless CBOR is preferred. */
+  private static String format(ServletWebRequest request) {
+    try {
+      List<MediaType> accepted = MediaType.parseMediaTypes(request.getHeader(HttpHeaders.ACCEPT));
+      MediaType.sortBySpecificityAndQuality(accepted);
+      for (MediaType type : accepted) {
+        if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+          return "json";
+        }
+        if (type.isCompatibleWith(CBOR)) {
+          return "cbor";
+        }
+      }
+    } catch (InvalidMediaTypeException e) {
+      // Rejected by content negotiation anyway
+    }
+    return "json";
+  }
+
+  private static String encoding(ServletWebRequest request) {
+    String accepted = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+    return accepted != null && accepted.toLowerCase(Locale.ROOT).contains("gzip") ? "-gzip" : "";
+  }
+}
@@ -1,23 +1,65 @@
 package com.fkusztel.meeting.planner.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fkusztel.meeting.planner.entity.Frequency;
 import com.fkusztel.meeting.planner.entity.Meeting;
+import com.fkusztel.meeting.planner.entity.MeetingSeries;
 import com.fkusztel.meeting.planner.entity.MeetingType;
+import com.fkusztel.meeting.planner.entity.MeetingView;
 import com.fkusztel.meeting.planner.entity.PriorityType;
+import com.fkusztel.meeting.planner.exception.MeetingConflictException;
 import com.fkusztel.meeting.planner.exception.MeetingNotFoundException;
+import com.fkusztel.meeting.planner.exception.MeetingVersionException;
+import com.fkusztel.meeting.planner.exception.OccurrenceNotFoundException;
+import com.fkusztel.meeting.planner.exception.SeriesNotFoundException;
+import com.fkusztel.meeting.planner.exception.ServiceBusyException;
+import com.fkusztel.meeting.planner.service.FreeSlot;
+import com.fkusztel.meeting.planner.service.MeetingBulkResult;
+import com.fkusztel.meeting.planner.service.MeetingCache;
+import com.fkusztel.meeting.planner.service.MeetingFilter;
+import com.fkusztel.meeting.planner.service.MeetingImporter;
+import com.fkusztel.meeting.planner.service.MeetingPage;
 import com.fkusztel.meeting.planner.service.MeetingService;
+import com.fkusztel.meeting.planner.service.MeetingSort;
+import com.fkusztel.meeting.planner.service.MeetingSpec;
+import com.fkusztel.meeting.planner.service.MeetingTime;
+import com.fkusztel.meeting.planner.service.MeetingVersion;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /** @author Filip.Kusztelak */
 @Slf4j
@@ -25,8 +67,27 @@ import org.springframework.web.bind.annotation.ResponseBody;
 @RequestMapping(path = "meeting")
 public class MeetingController {
 
+  private static final String NDJSON = "application/x-ndjson";
+
+  /** Types and priorities only change with a deployment, so their names are their version. */
+  private static final String TYPES_VERSION = version(MeetingType.values());
+
+  private static final String PRIORITIES_VERSION = version(PriorityType.values());
+
   @Autowired MeetingService meetingService;
 
+  @Autowired MeetingCache meetingCache;
+
+  @Autowired MeetingVersion meetingVersion;
+
+  @Autowired RequestExecutor requestExecutor;
+
+  @Autowired ChangeFeedBroadcaster changeFeedBroadcaster;
+
+  @Autowired MeetingImporter meetingImporter;
+
+  @Autowired ObjectMapper objectMapper;
+
   /**
    * Create a new Meeting with the specified values.
    *
@@ -34,15 +95,57 @@ public class MeetingController {
    * @param priorityType Priority type of meeting.
    * @param date Starting date of meeting (2018-02-03T12:30:30).
    * @param timeZone Preferred timezone (Europe/Paris, America/Sao_Paulo, Asia/Tokyo etc).
+   * @param durationMinutes Duration of meeting in minutes.
+   * @exception MeetingConflictException Meeting overlaps another one
    */
   @PostMapping(path = "/create")
-  public @ResponseBody Meeting createMeeting(
+  public @ResponseBody CompletableFuture<Meeting> createMeeting(
       @RequestParam MeetingType meetingType,
       @RequestParam PriorityType priorityType,
       @RequestParam String date,
-      @RequestParam ZoneId timeZone) {
+      @RequestParam ZoneId timeZone,
+      @RequestParam(defaultValue = "60") long durationMinutes) {
+
+    MeetingTime meetingTime = MeetingTime.of(date, timeZone, Duration.ofMinutes(durationMinutes));
+    return requestExecutor.submit(
+        () -> meetingService.meetingCreate(meetingType, priorityType, meetingTime));
+  }
+
+  /**
+   * Create meetings in bulk. Each meeting gets its own result, failed meetings do not prevent the
+   * others from being created.
+   *
+   * @param specs Values of meetings to create.
+   */
+  @PostMapping(path = "/bulk/create")
+  public @ResponseBody CompletableFuture<List<MeetingBulkResult>> createMeetings(
+      @RequestBody List<MeetingSpec> specs) {
+
+    return requestExecutor.submit(() -> meetingService.meetingCreateAll(specs));
+  }
+
+  /**
+   * Update meetings in bulk, creating the absent ones.
+   *
+   * @param specs Values of meetings to update, meetingId is required.
+   */
+  @PutMapping(path = "/bulk/update")
+  public @ResponseBody CompletableFuture<List<MeetingBulkResult>> updateMeetings(
+      @RequestBody List<MeetingSpec> specs) {
+
+    return requestExecutor.submit(() -> meetingService.updateMeetingAll(specs));
+  }
+
+  /**
+   * Delete meetings in bulk.
+   *
+   * @param meetingIds Ids of meetings to delete.
+   */
+  @PostMapping(path = "/bulk/delete")
+  public @ResponseBody CompletableFuture<List<MeetingBulkResult>> deleteMeetings(
+      @RequestBody List<Long> meetingIds) {
 
-    return meetingService.meetingCreate(meetingType, priorityType, date, timeZone);
+    return requestExecutor.submit(() -> meetingService.deleteMeetingAll(meetingIds));
   }
 
   /**
@@ -52,38 +155,131 @@ public class MeetingController {
    * @exception MeetingNotFoundException Given meeting was not found in database
    */
   @GetMapping(path = "/read")
-  public @ResponseBody Meeting readMeetingById(@RequestParam Long meetingId)
-      throws MeetingNotFoundException {
-    log.info("readMeetingById {}", meetingId);
-    return meetingService.findMeetingById(meetingId);
+  public @ResponseBody CompletableFuture<Meeting> readMeetingById(@RequestParam Long meetingId) {
+    log.debug("readMeetingById {}", meetingId);
+    return requestExecutor.submit(() -> meetingService.findMeetingById(meetingId));
   }
 
-  /** Find all meetings in database */
+  /**
+   * Find all meetings in database. Tagged with the version of the meeting table, so a client
+   * sending the tag back gets 304 Not Modified until a meeting is written. Left untagged while
+   * replicas may still miss the latest writes.
+   */
   @GetMapping(path = "/all")
-  public @ResponseBody Iterable<Meeting> getAllMeetings() {
-    return meetingService.findAll();
+  public @ResponseBody CompletableFuture<List<MeetingView>> getAllMeetings(
+      ServletWebRequest request) {
+    String version = meetingVersion.getSettled();
+    if (version != null && ETags.checkNotModified(request, version)) {
+      return null;
+    }
+    return requestExecutor.submit(meetingService::findAll);
+  }
+
+  /**
+   * Stream created, updated and deleted meetings as server-sent events, so clients learn about
+   * changes without polling /all. Subscribe before loading the meetings, and reload them on a
+   * reset event, sent when changes were missed.
+   *
+   * @param lastEventId Id of the last event received, sent by clients reconnecting to resume.
+   * @exception ServiceBusyException Maximal number of subscribers is reached
+   */
+  @GetMapping(path = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamChanges(
+      @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+    return changeFeedBroadcaster.subscribe(lastEventId);
+  }
+
+  /**
+   * Export all meetings as newline-delimited JSON. Meetings are written to the response as they
+   * are read from database.
+   */
+  @GetMapping(path = "/export", produces = NDJSON)
+  public void exportMeetings(HttpServletResponse response) throws IOException {
+    response.setContentType(NDJSON);
+    ObjectWriter writer =
+        objectMapper.writerFor(Meeting.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    try (JsonGenerator generator =
+        objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+      generator.setRootValueSeparator(null);
+      meetingService.exportAll(meeting -> writeLine(writer, generator, meeting, false));
+    }
+  }
+
+  /**
+   * Import the events of an iCalendar file as meetings. The calendar is read from the request body
+   * while its events are imported, and the response streams newline-delimited JSON: every event
+   * which was not imported, then the counts of events so far after every chunk, the last counts
+   * marked as completed.
+   *
+   * @param timeZone Time zone of event times given neither in UTC nor with a TZID.
+   */
+  @PostMapping(path = "/import", consumes = "text/calendar", produces = NDJSON)
+  public void importMeetings(
+      @RequestParam(defaultValue = "UTC") ZoneId timeZone,
+      HttpServletRequest request,
+      HttpServletResponse response)
+      throws IOException {
+    response.setContentType(NDJSON);
+    ObjectWriter writer =
+        objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    try (Reader calendar = new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8);
+        JsonGenerator generator =
+            objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+      generator.setRootValueSeparator(null);
+      meetingImporter.importCalendar(
+          calendar,
+          timeZone,
+          error -> writeLine(writer, generator, error, false),
+          progress -> writeLine(writer, generator, progress, true));
+    }
+  }
+
+  /**
+   * Find one page of meetings ordered by date.
+   *
+   * @param cursor Token returned with the previous page, omitted for the first page.
+   * @param size Number of meetings per page.
+   */
+  @GetMapping(path = "/all/page")
+  public @ResponseBody CompletableFuture<MeetingPage> getMeetingPage(
+      @RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size) {
+
+    return requestExecutor.submit(() -> meetingService.findAll(cursor, size));
   }
 
   /**
-   * Update a Meeting if exists or creates a new one with the specified values.
+   * Update a Meeting if exists or creates a new one with the specified values. Given the version
+   * the meeting was read with, it is only updated if nobody updated it since.
    *
    * @param meetingId Id of the meeting.
    * @param meetingType Type of the meeting.
    * @param priorityType Priority type of meeting.
    * @param date Starting date of meeting (2018-05-07).
+   * @param durationMinutes Duration of meeting in minutes.
+   * @param version Version of the meeting as read, optional.
+   * @exception MeetingConflictException Meeting overlaps another one
+   * @exception MeetingVersionException Meeting was updated or deleted since it was read
    */
   @PutMapping(path = "/update")
-  public @ResponseBody Meeting updateMeeting(
+  public @ResponseBody CompletableFuture<Meeting> updateMeeting(
       @RequestParam Long meetingId,
       @RequestParam MeetingType meetingType,
       @RequestParam PriorityType priorityType,
       @RequestParam String date,
-      @RequestParam ZoneId timeZone) {
+      @RequestParam ZoneId timeZone,
+      @RequestParam(defaultValue = "60") long durationMinutes,
+      @RequestParam(required = false) Long version) {
 
-    log.info("updateMeeting: {}", meetingId);
+    log.debug("updateMeeting: {}", meetingId);
 
     // Find meeting by Id and update details
-    return meetingService.updateMeeting(meetingId, meetingType, priorityType, date, timeZone);
+    MeetingTime meetingTime = MeetingTime.of(date, timeZone, Duration.ofMinutes(durationMinutes));
+    return requestExecutor.submit(
+        () ->
+            meetingService.updateMeeting(
+                meetingId, meetingType, priorityType, meetingTime, version));
   }
 
   /**
@@ -93,50 +289,241 @@ public class MeetingController {
    * @exception MeetingNotFoundException Given meeting was not found in database
    */
   @DeleteMapping(path = "/delete")
-  public @ResponseBody String deleteMeeting(@RequestParam Long meetingId)
-      throws MeetingNotFoundException {
-    log.info("deleteMeeting with Id: {}", meetingId);
+  public @ResponseBody CompletableFuture<String> deleteMeeting(@RequestParam Long meetingId) {
+    log.debug("deleteMeeting with Id: {}", meetingId);
 
     // Find meeting by Id and delete it
-    meetingService.deleteMeeting(meetingId);
-    return "Meeting with id: " + meetingId + " deleted successfully";
+    return requestExecutor.submit(
+        () -> {
+          meetingService.deleteMeeting(meetingId);
+          return "Meeting with id: " + meetingId + " deleted successfully";
+        });
   }
 
   /**
-   * Find a date between two given dates with the specified values.
+   * Find meetings starting between two given dates. Both bounds are exclusive and interpreted as
+   * UTC.
    *
-   * @param startDate Date from which the search should be smaller (2018-01-01).
-   * @param endDate Date from which the search should be greater (2018-02-02).
+   * @param startDate Date from which the search should be smaller (2018-01-01T00:00:00).
+   * @param endDate Date from which the search should be greater (2018-02-02T00:00:00).
    */
   @GetMapping(path = "/between")
-  public @ResponseBody Iterable<Meeting> findMeetingByDateBetween(
+  public @ResponseBody CompletableFuture<List<MeetingView>> findMeetingByDateBetween(
       String startDate, String endDate) {
 
-    log.info("findMeetingByDateBetween: {}{}", startDate, endDate);
+    log.debug("findMeetingByDateBetween: {}{}", startDate, endDate);
+
+    LocalDateTime start = LocalDateTime.parse(startDate);
+    LocalDateTime end = LocalDateTime.parse(endDate);
+    return requestExecutor.submit(() -> meetingService.findMeetingByDateBetween(start, end));
+  }
+
+  /**
+   * Lists one page of meetings of given types and priorities starting in given window. Every
+   * condition is optional, and all of them are evaluated by the database.
+   *
+   * @param meetingTypes Types of listed meetings, any type when omitted.
+   * @param priorityTypes Priorities of listed meetings, any priority when omitted.
+   * @param startDate Inclusive start of the window in UTC (2018-01-01T00:00:00).
+   * @param endDate Exclusive end of the window in UTC (2018-02-02T00:00:00).
+   * @param sort Comma separated sort keys, by date when omitted.
+   * @param cursor Token returned with the previous page, omitted for the first page.
+   * @param size Number of meetings per page.
+   */
+  @GetMapping(path = "/filter")
+  public @ResponseBody CompletableFuture<MeetingPage> filter(
+      @RequestParam(required = false) Set<MeetingType> meetingTypes,
+      @RequestParam(required = false) Set<PriorityType> priorityTypes,
+      @RequestParam(required = false) String startDate,
+      @RequestParam(required = false) String endDate,
+      @RequestParam(required = false) String sort,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size) {
+
+    MeetingFilter filter =
+        MeetingFilter.builder()
+            .meetingTypes(meetingTypes)
+            .priorityTypes(priorityTypes)
+            .startDate(startDate != null ? LocalDateTime.parse(startDate) : null)
+            .endDate(endDate != null ? LocalDateTime.parse(endDate) : null)
+            .build();
+    MeetingSort meetingSort = sort != null ? MeetingSort.parse(sort) : MeetingSort.BY_DATE;
+    return requestExecutor.submit(
+        () -> meetingService.findMeetings(filter, meetingSort, cursor, size));
+  }
+
+  /**
+   * Create a series of meetings repeated daily or weekly. Occurrences are not stored, they are
+   * listed by queries of the time span they fall in, such as /between.
+   *
+   * @param meetingType Type of the meetings.
+   * @param priorityType Priority type of meetings.
+   * @param date Starting date of the first meeting (2018-02-05T09:00:00).
+   * @param timeZone Time zone meetings keep their wall clock time in, across daylight saving.
+   * @param durationMinutes Duration of each meeting in minutes.
+   * @param frequency Whether meetings repeat daily or weekly.
+   * @param interval Number of days or weeks between meetings.
+   * @param daysOfWeek Days of weekly meetings, the day of the first meeting when omitted.
+   * @param lastDate Date of the last meeting (2028-02-04), the series does not end when omitted.
+   * @exception MeetingConflictException A meeting of the series overlaps another meeting
+   */
+  @PostMapping(path = "/series/create")
+  public @ResponseBody CompletableFuture<MeetingSeries> createSeries(
+      @RequestParam MeetingType meetingType,
+      @RequestParam PriorityType priorityType,
+      @RequestParam String date,
+      @RequestParam ZoneId timeZone,
+      @RequestParam(defaultValue = "60") long durationMinutes,
+      @RequestParam Frequency frequency,
+      @RequestParam(defaultValue = "1") int interval,
+      @RequestParam(required = false) Set<DayOfWeek> daysOfWeek,
+      @RequestParam(required = false) String lastDate) {
+
+    MeetingSeries series =
+        MeetingSeries.builder()
+            .meetingType(meetingType)
+            .priorityType(priorityType)
+            .firstDate(LocalDateTime.parse(date))
+            .timeZone(timeZone)
+            .durationMinutes(durationMinutes)
+            .frequency(frequency)
+            .repeatInterval(interval)
+            .daysOfWeek(daysOfWeek)
+            .lastDate(lastDate != null ? LocalDate.parse(lastDate) : null)
+            .build();
+    return requestExecutor.submit(() -> meetingService.seriesCreate(series));
+  }
+
+  /**
+   * Find series with the specified Id.
+   *
+   * @param seriesId Id of given series.
+   * @exception SeriesNotFoundException Given series was not found in database
+   */
+  @GetMapping(path = "/series/read")
+  public @ResponseBody CompletableFuture<MeetingSeries> readSeriesById(
+      @RequestParam Long seriesId) {
+    return requestExecutor.submit(() -> meetingService.findSeriesById(seriesId));
+  }
+
+  /**
+   * Cancel a single meeting of a series.
+   *
+   * @param seriesId Id of the series.
+   * @param date Date of the cancelled meeting in the time zone of the series (2018-02-07).
+   * @exception SeriesNotFoundException Given series was not found in database
+   * @exception OccurrenceNotFoundException Series has no meeting on given date
+   */
+  @PostMapping(path = "/series/cancel")
+  public @ResponseBody CompletableFuture<MeetingSeries> cancelOccurrence(
+      @RequestParam Long seriesId, @RequestParam String date) {
+
+    LocalDate occurrenceDate = LocalDate.parse(date);
+    return requestExecutor.submit(() -> meetingService.cancelOccurrence(seriesId, occurrenceDate));
+  }
 
-    return meetingService.findMeetingByDateBetween(
-        LocalDateTime.parse(startDate), LocalDateTime.parse(endDate));
+  /**
+   * Delete series with all its meetings.
+   *
+   * @param seriesId Id of the series.
+   * @exception SeriesNotFoundException Given series was not found in database
+   */
+  @DeleteMapping(path = "/series/delete")
+  public @ResponseBody CompletableFuture<String> deleteSeries(@RequestParam Long seriesId) {
+    return requestExecutor.submit(
+        () -> {
+          meetingService.deleteSeries(seriesId);
+          return "Meeting series with id: " + seriesId + " deleted successfully";
+        });
+  }
+
+  /** Hit, miss and eviction statistics of the meeting cache. */
+  @GetMapping(path = "/cache/stats")
+  public @ResponseBody Map<String, Object> getCacheStats() {
+
+    return meetingCache.stats();
+  }
+
+  /**
+   * Find the earliest free slots in given window, long enough for a meeting of given duration.
+   *
+   * @param startDate Start of the searched window in UTC (2018-01-01T00:00:00).
+   * @param endDate End of the searched window in UTC (2018-02-02T00:00:00).
+   * @param durationMinutes Duration of the planned meeting in minutes.
+   * @param minPriority Only meetings of this or higher priority block a slot.
+   * @param limit Maximal number of returned slots.
+   */
+  @GetMapping(path = "/free-slots")
+  public @ResponseBody CompletableFuture<List<FreeSlot>> findFreeSlots(
+      @RequestParam String startDate,
+      @RequestParam String endDate,
+      @RequestParam long durationMinutes,
+      @RequestParam(required = false) PriorityType minPriority,
+      @RequestParam(defaultValue = "10") int limit) {
+
+    LocalDateTime start = LocalDateTime.parse(startDate);
+    LocalDateTime end = LocalDateTime.parse(endDate);
+    Duration duration = Duration.ofMinutes(durationMinutes);
+    return requestExecutor.submit(
+        () -> meetingService.findFreeSlots(start, end, duration, minPriority, limit));
   }
 
   /** Lists all meeting types available. */
   @GetMapping(path = "/types")
-  public @ResponseBody Iterable<MeetingType> getMeetingTypes() {
-
+  public @ResponseBody Iterable<MeetingType> getMeetingTypes(ServletWebRequest request) {
+    if (ETags.checkNotModified(request, TYPES_VERSION)) {
+      return null;
+    }
     return meetingService.getType();
   }
 
   /** Lists all meeting priorities available. */
   @GetMapping(path = "/priorities")
-  public @ResponseBody Iterable<PriorityType> getPriorityTypes() {
-
+  public @ResponseBody Iterable<PriorityType> getPriorityTypes(ServletWebRequest request) {
+    if (ETags.checkNotModified(request, PRIORITIES_VERSION)) {
+      return null;
+    }
     return meetingService.getPriority();
   }
 
-  /** Lists all meetings sorted by given attribute. */
-  @GetMapping(path = "/sort-by")
-  public @ResponseBody Iterable<Meeting> sortBy(
-      @RequestParam String attribute, @RequestParam Direction direction) {
+  /**
+   * Lists one page of meetings sorted by given attribute, or by several keys such as {@code
+   * sort=priorityType:desc,meetingDate:asc}. Only orders served by an index are accepted.
+   *
+   * @param attribute Single attribute to sort by, used when sort is omitted.
+   * @param direction Direction of sorting by attribute.
+   * @param sort Comma separated sort keys, each optionally followed by :asc or :desc.
+   * @param cursor Token returned with the previous page, omitted for the first page.
+   * @param size Number of meetings per page.
+   */
+  @GetMapping(path = {"/sort-by", "/sort-by/page"})
+  public @ResponseBody CompletableFuture<MeetingPage> sortBy(
+      @RequestParam(required = false) String attribute,
+      @RequestParam(defaultValue = "ASC") Direction direction,
+      @RequestParam(required = false) String sort,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer size) {
+
+    MeetingSort meetingSort =
+        sort != null ? MeetingSort.parse(sort) : MeetingSort.of(attribute, direction);
+    return requestExecutor.submit(() -> meetingService.getSorted(meetingSort, cursor, size));
+  }
+
+  /** Write given value as a line of newline-delimited JSON, sent to the client when flushed. */
+  private static void writeLine(
+      ObjectWriter writer, JsonGenerator generator, Object value, boolean flush) {
+    try {
+      writer.writeValue(generator, value);
+      generator.writeRaw('\n');
+      if (flush) {
+        generator.flush();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
 
-    return meetingService.getSorted(attribute, direction);
+  private static String version(Enum<?>[] values) {
+    return Integer.toHexString(Arrays.toString(values).hashCode());
   }
 }
@@ -0,0 +1,108 @@
+package com.fkusztel.meeting.planner.controller;
+
+import com.fkusztel.meeting.planner.config.DataSourceRouting;
+import com.fkusztel.meeting.planner.exception.ServiceBusyException;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the service calls of requests. In {@link Mode#BLOCKING} mode they run on the Tomcat worker
+ * thread handling the request. In {@link Mode#ASYNC} mode they run on a pool of as many threads as
+ * may use the database at once, and the worker thread is released while a request waits. Requests
+ * queue for the pool up to a limit, beyond which they fail fast with {@link ServiceBusyException}
+ * rather than pile up on the connection pool. Threads, queue and completed calls of the pool are
+ * exported as executor metrics named meeting.execution.
+ *
+ * @author Filip.Kusztelak
+ */
+@Component
+public class RequestExecutor implements MeterBinder {
+
+  public enum Mode {
+    BLOCKING,
+    ASYNC
+  }
+
+  /** Pool of the asynchronous mode, null in blocking mode. */
+  private final ThreadPoolExecutor executor;
+
+  public RequestExecutor(
+      @Value("${meeting.execution.mode:BLOCKING}") Mode mode,
+      @Value("${meeting.execution.db-concurrency:10}") int dbConcurrency,
+      @Value("${meeting.execution.queue-size:1000}") int queueSize) {
+    executor =
+        mode == Mode.ASYNC
+            ? new ThreadPoolExecutor(
+                dbConcurrency,
+                dbConcurrency,
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                new ThreadFactoryBuilder().setNameFormat("meeting-db-%d").build())
+            : null;
+  }
+
+  /**
+   * Run given service call. Exceptions thrown by the call, including {@link ServiceBusyException}
+   * for a call the pool can not take, complete the returned future, and are mapped to a response
+   * like exceptions thrown by the controller.
+   */
+  <T> CompletableFuture<T> submit(Callable<T> call) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+    Runnable task =
+        () -> {
+          try {
+            future.complete(call.call());
+          } catch (Exception e) {
+            future.completeExceptionally(e);
+          }
+        };
+
+    if (executor == null) {
+      task.run();
+      return future;
+    }
+    // Reads of a client that has just written go to the primary on any thread
+    boolean primaryRequired = DataSourceRouting.isPrimaryRequired();
+    try {
+      executor.execute(
+          () -> {
+            boolean previous = DataSourceRouting.setPrimaryRequired(primaryRequired);
+            try {
+              task.run();
+            } finally {
+              DataSourceRouting.setPrimaryRequired(previous);
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      future.completeExceptionally(new ServiceBusyException());
+    }
+    return future;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    if (executor != null) {
+      new ExecutorServiceMetrics(executor, "meeting.execution", Tags.empty()).bindTo(registry);
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    if (executor != null) {
+      executor.shutdown();
+    }
+  }
+}
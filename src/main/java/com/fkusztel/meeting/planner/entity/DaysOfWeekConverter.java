@@ -0,0 +1,42 @@
+package com.fkusztel.meeting.planner.entity;
+
+import java.time.DayOfWeek;
+import java.util.EnumSet;
+import java.util.Set;
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * Stores a set of days of week as a bit mask in a single column, bit 0 for Monday.
+ *
+ * @author Filip.Kusztelak
+ */
+@Converter
+public class DaysOfWeekConverter implements AttributeConverter<Set<DayOfWeek>, Integer> {
+
+  @Override
+  public Integer convertToDatabaseColumn(Set<DayOfWeek> days) {
+    if (days == null) {
+      return null;
+    }
+    int mask = 0;
+    for (DayOfWeek day : days) {
+      mask |= 1 << day.ordinal();
+    }
+    return mask;
+  }
+
+  @Override
+  public Set<DayOfWeek> convertToEntityAttribute(Integer mask) {
+    if (mask == null) {
+      return null;
+    }
+    Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+    for (DayOfWeek day : DayOfWeek.values()) {
+      if ((mask & 1 << day.ordinal()) != 0) {
+        days.add(day);
+      }
+    }
+    return days;
+  }
+}
@@ -0,0 +1,7 @@
+package com.fkusztel.meeting.planner.entity;
+
+/** @author Filip.Kusztelak */
+public enum Frequency {
+  DAILY,
+  WEEKLY
+}
@@ -0,0 +1,25 @@
+package com.fkusztel.meeting.planner.entity;
+
+import java.time.LocalDate;
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * Stores a local date as ISO text (2018-03-25). A date column would be shifted by a day when the
+ * JVM and the JDBC connection are in different time zones, and the text sorts the same way.
+ *
+ * @author Filip.Kusztelak
+ */
+@Converter
+public class LocalDateAttributeConverter implements AttributeConverter<LocalDate, String> {
+
+  @Override
+  public String convertToDatabaseColumn(LocalDate date) {
+    return date != null ? date.toString() : null;
+  }
+
+  @Override
+  public LocalDate convertToEntityAttribute(String text) {
+    return text != null ? LocalDate.parse(text) : null;
+  }
+}
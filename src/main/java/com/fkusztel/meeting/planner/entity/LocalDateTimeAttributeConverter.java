@@ -0,0 +1,26 @@
+package com.fkusztel.meeting.planner.entity;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * Stores a local date and time as ISO text (2018-03-25T09:00:00). A timestamp column would be read
+ * through the time zone of the JVM, and a wall clock time in its daylight saving gap would move.
+ *
+ * @author Filip.Kusztelak
+ */
+@Converter
+public class LocalDateTimeAttributeConverter implements AttributeConverter<LocalDateTime, String> {
+
+  @Override
+  public String convertToDatabaseColumn(LocalDateTime dateTime) {
+    return dateTime != null ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime) : null;
+  }
+
+  @Override
+  public LocalDateTime convertToEntityAttribute(String text) {
+    return text != null ? LocalDateTime.parse(text) : null;
+  }
+}
@@ -9,7 +9,9 @@ import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -17,11 +19,25 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 /** @author Filip.Kusztelak */
 @Entity(name = "Meeting")
-@Table(name = "meeting")
-@Builder
+@Table(
+    name = "meeting",
+    indexes = {
+      @Index(name = "idx_meeting_end_date", columnList = "meeting_end_date"),
+      @Index(name = "idx_meeting_type_date", columnList = "meeting_type, meeting_date"),
+      @Index(name = "idx_meeting_priority_date", columnList = "priority_type, meeting_date"),
+      @Index(
+          name = "idx_meeting_type_priority_date",
+          columnList = "meeting_type, priority_type, meeting_date"),
+      @Index(
+          name = "idx_meeting_priority_desc_date",
+          columnList = "priority_type desc, meeting_date")
+    })
+@Builder(toBuilder = true)
 @Setter
 @Getter
 @ToString
@@ -32,17 +48,39 @@ public class Meeting implements Serializable {
 
   @Id
   @Column(name = "meeting_id")
-  @GeneratedValue(strategy = GenerationType.AUTO)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "meeting_sequence")
+  @GenericGenerator(
+      name = "meeting_sequence",
+      strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
+      parameters = {
+        @Parameter(name = "sequence_name", value = "meeting_sequence"),
+        @Parameter(name = "increment_size", value = "50"),
+        @Parameter(name = "optimizer", value = "pooled-lo")
+      })
   private Long id;
 
   @Column(name = "meeting_type")
   @Enumerated(EnumType.STRING)
   private MeetingType meetingType;
 
+  /** Stored as ordinal, so the database orders priorities the same way the enum does. */
   @Column(name = "priority_type")
-  @Enumerated(EnumType.STRING)
+  @Enumerated(EnumType.ORDINAL)
   private PriorityType priorityType;
 
+  /** Unique, so the database indexes it for range queries without a further index. */
   @Column(name = "meeting_date", unique = true)
   private ZonedDateTime meetingDate;
+
+  /** Exclusive end of the meeting. */
+  @Column(name = "meeting_end_date")
+  private ZonedDateTime meetingEndDate;
+
+  /**
+   * Incremented by every update, so an update based on values read earlier can be made
+   * conditional on the meeting not having changed since. Null until the meeting is saved.
+   */
+  @Version
+  @Column(name = "version", nullable = false)
+  private Long version;
 }
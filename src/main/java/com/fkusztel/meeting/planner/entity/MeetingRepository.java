@@ -1,9 +1,83 @@
 package com.fkusztel.meeting.planner.entity;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 /** @author Filip.Kusztelak */
-public interface MeetingRepository extends JpaRepository<Meeting, Long> {
+public interface MeetingRepository
+    extends JpaRepository<Meeting, Long>, MeetingRepositoryCustom {
 
   void deleteById(Long id);
+
+  /** Find views of all meetings, none of them loaded as a managed entity. */
+  @Transactional(readOnly = true)
+  @Query(MeetingView.SELECT)
+  List<MeetingView> findAllViews();
+
+  /**
+   * Find views of meetings starting strictly between given instants, ordered by date. Served by
+   * the meeting_date index.
+   *
+   * @param startDate Exclusive lower bound.
+   * @param endDate Exclusive upper bound.
+   */
+  @Transactional(readOnly = true)
+  @Query(
+      MeetingView.SELECT
+          + " where m.meetingDate > :startDate and m.meetingDate < :endDate"
+          + " order by m.meetingDate")
+  List<MeetingView> findByMeetingDateBetween(
+      @Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate);
+
+  /**
+   * Stream meetings starting in given time span, ordered by date. Must be called inside a
+   * transaction and the stream must be closed.
+   *
+   * @param startDate Inclusive start of the time span.
+   * @param endDate Exclusive end of the time span.
+   */
+  @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+  @Query(
+      "select m from Meeting m"
+          + " where m.meetingDate >= :startDate and m.meetingDate < :endDate"
+          + " order by m.meetingDate")
+  Stream<Meeting> streamStartingBetween(
+      @Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate);
+
+  /**
+   * Find meetings ending after given date, earliest first, other than the meeting with given Id.
+   * Meetings do not overlap, so if any of them overlaps a time span starting at given date, the
+   * first one does. The end date index is read from given date and stops at the first row, where
+   * conditions on both dates would scan all earlier meetings.
+   *
+   * @param startDate Inclusive start of the time span.
+   * @param meetingId Id of the meeting to leave out.
+   * @param pageable Limits number of returned meetings.
+   */
+  @Query(
+      "select m from Meeting m"
+          + " where m.meetingEndDate > :startDate and m.id <> :meetingId"
+          + " order by m.meetingEndDate")
+  List<Meeting> findEndingAfter(
+      @Param("startDate") ZonedDateTime startDate,
+      @Param("meetingId") Long meetingId,
+      Pageable pageable);
+
+  /**
+   * Stream all meetings, fetching rows from the database in chunks. Must be called inside a
+   * transaction and the stream must be closed.
+   */
+  @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+  @Query("select m from Meeting m")
+  Stream<Meeting> streamAll();
 }
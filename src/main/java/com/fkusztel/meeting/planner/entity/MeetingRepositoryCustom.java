@@ -0,0 +1,35 @@
+package com.fkusztel.meeting.planner.entity;
+
+import java.util.List;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/** @author Filip.Kusztelak */
+public interface MeetingRepositoryCustom {
+
+  /**
+   * Find at most limit meetings matching given specification, without issuing a count query.
+   *
+   * @param specification Predicate meetings must match.
+   * @param sort Order in which meetings are returned.
+   * @param limit Maximal number of returned meetings.
+   */
+  List<MeetingView> findSlice(Specification<Meeting> specification, Sort sort, int limit);
+
+  /**
+   * Overwrite values of an existing meeting in a single statement and increment its version. The
+   * version is compared in the same statement, so a meeting changed since it was read is never
+   * overwritten.
+   *
+   * @param meeting Meeting with Id and new values, and the expected version or null for any.
+   * @return Number of updated rows, 0 when meeting does not exist or has another version.
+   */
+  int update(Meeting meeting);
+
+  /**
+   * Remove meeting from the persistence context, so it can be garbage collected.
+   *
+   * @param meeting Managed meeting entity.
+   */
+  void detach(Meeting meeting);
+}
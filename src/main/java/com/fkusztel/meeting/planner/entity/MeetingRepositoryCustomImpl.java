@@ -0,0 +1,78 @@
+package com.fkusztel.meeting.planner.entity;
+
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+/** @author Filip.Kusztelak */
+public class MeetingRepositoryCustomImpl implements MeetingRepositoryCustom {
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<MeetingView> findSlice(
+      Specification<Meeting> specification, Sort sort, int limit) {
+    CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+    CriteriaQuery<MeetingView> query = builder.createQuery(MeetingView.class);
+    Root<Meeting> root = query.from(Meeting.class);
+
+    query.select(
+        builder.construct(
+            MeetingView.class,
+            root.get("id"),
+            root.get("meetingType"),
+            root.get("priorityType"),
+            root.get("meetingDate"),
+            root.get("meetingEndDate"),
+            root.get("version")));
+    if (specification != null) {
+      query.where(specification.toPredicate(root, query, builder));
+    }
+    query.orderBy(QueryUtils.toOrders(sort, root, builder));
+
+    return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+  }
+
+  /**
+   * Parameters are bound directly rather than by SpEL expressions of a query method, which build
+   * an evaluation context, scanning the bean factory, for every parameter of every execution.
+   */
+  @Override
+  @Transactional
+  public int update(Meeting meeting) {
+    String update =
+        "update Meeting m set m.meetingType = :meetingType, m.priorityType = :priorityType,"
+            + " m.meetingDate = :meetingDate, m.meetingEndDate = :meetingEndDate,"
+            + " m.version = m.version + 1"
+            + " where m.id = :id";
+    if (meeting.getVersion() != null) {
+      update += " and m.version = :version";
+    }
+    Query query =
+        entityManager
+            .createQuery(update)
+            .setParameter("meetingType", meeting.getMeetingType())
+            .setParameter("priorityType", meeting.getPriorityType())
+            .setParameter("meetingDate", meeting.getMeetingDate())
+            .setParameter("meetingEndDate", meeting.getMeetingEndDate())
+            .setParameter("id", meeting.getId());
+    if (meeting.getVersion() != null) {
+      query.setParameter("version", meeting.getVersion());
+    }
+    return query.executeUpdate();
+  }
+
+  @Override
+  public void detach(Meeting meeting) {
+    entityManager.detach(meeting);
+  }
+}
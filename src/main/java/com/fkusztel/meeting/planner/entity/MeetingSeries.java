@@ -0,0 +1,129 @@
+package com.fkusztel.meeting.planner.entity;
+
+import java.io.Serializable;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import javax.persistence.CollectionTable;
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.ElementCollection;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
+/**
+ * Meeting repeated daily or weekly. A series is stored as a single row, its occurrences are never
+ * stored but expanded from the rule when a query asks for them.
+ *
+ * <p>Occurrences start at the wall clock time of the first one in the time zone of the series, so
+ * a series keeps its local time across daylight saving transitions. Local dates and times are
+ * stored as ISO text, so they are never shifted by the time zone of the JVM or the connection.
+ *
+ * @author Filip.Kusztelak
+ */
+@Entity(name = "MeetingSeries")
+@Table(
+    name = "meeting_series",
+    indexes = {
+      @Index(name = "idx_meeting_series_start", columnList = "series_start"),
+      @Index(name = "idx_meeting_series_end", columnList = "series_end")
+    })
+@Builder(toBuilder = true)
+@Setter
+@Getter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class MeetingSeries implements Serializable {
+
+  @Id
+  @Column(name = "series_id")
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "meeting_series_sequence")
+  @GenericGenerator(
+      name = "meeting_series_sequence",
+      strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
+      parameters = {
+        @Parameter(name = "sequence_name", value = "meeting_series_sequence"),
+        @Parameter(name = "increment_size", value = "50"),
+        @Parameter(name = "optimizer", value = "pooled-lo")
+      })
+  private Long id;
+
+  @Column(name = "meeting_type")
+  @Enumerated(EnumType.STRING)
+  private MeetingType meetingType;
+
+  @Column(name = "priority_type")
+  @Enumerated(EnumType.ORDINAL)
+  private PriorityType priorityType;
+
+  /** Local date and time of the first occurrence. */
+  @Column(name = "first_date", length = 29)
+  @Convert(converter = LocalDateTimeAttributeConverter.class)
+  private LocalDateTime firstDate;
+
+  @Column(name = "time_zone")
+  @Convert(converter = ZoneIdAttributeConverter.class)
+  private ZoneId timeZone;
+
+  @Column(name = "duration_minutes")
+  private long durationMinutes;
+
+  @Column(name = "frequency")
+  @Enumerated(EnumType.STRING)
+  private Frequency frequency;
+
+  /** Number of days or weeks between occurrences. */
+  @Column(name = "repeat_interval")
+  private int repeatInterval;
+
+  /** Days of weekly occurrences, the day of the first occurrence when empty. */
+  @Column(name = "days_of_week")
+  @Convert(converter = DaysOfWeekConverter.class)
+  private Set<DayOfWeek> daysOfWeek;
+
+  /** Inclusive local date of the last occurrence, the series does not end when null. */
+  @Column(name = "last_date", length = 10)
+  @Convert(converter = LocalDateAttributeConverter.class)
+  private LocalDate lastDate;
+
+  /** Local dates of cancelled occurrences. */
+  @Builder.Default
+  @ElementCollection(fetch = FetchType.EAGER)
+  @CollectionTable(
+      name = "meeting_series_exception",
+      joinColumns = @JoinColumn(name = "series_id"))
+  @Column(name = "occurrence_date", length = 10)
+  @Convert(converter = LocalDateAttributeConverter.class)
+  private Set<LocalDate> exceptions = new HashSet<>();
+
+  /** Start of the first occurrence in UTC, bounds the queried series. */
+  @Column(name = "series_start")
+  private ZonedDateTime seriesStart;
+
+  /** Latest possible end of the last occurrence in UTC, null when the series does not end. */
+  @Column(name = "series_end")
+  private ZonedDateTime seriesEnd;
+}
@@ -0,0 +1,25 @@
+package com.fkusztel.meeting.planner.entity;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/** @author Filip.Kusztelak */
+public interface MeetingSeriesRepository extends JpaRepository<MeetingSeries, Long> {
+
+  /**
+   * Find series which may have occurrences overlapping given time span, together with their
+   * exceptions. Series ending before the span or starting after it are never read.
+   *
+   * @param startDate Inclusive start of the time span.
+   * @param endDate Exclusive end of the time span.
+   */
+  @Query(
+      "select distinct s from MeetingSeries s left join fetch s.exceptions"
+          + " where s.seriesStart < :endDate"
+          + " and (s.seriesEnd is null or s.seriesEnd > :startDate)")
+  List<MeetingSeries> findOverlapping(
+      @Param("startDate") ZonedDateTime startDate, @Param("endDate") ZonedDateTime endDate);
+}
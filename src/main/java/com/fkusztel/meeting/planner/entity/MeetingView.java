@@ -0,0 +1,69 @@
+package com.fkusztel.meeting.planner.entity;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import java.time.ZonedDateTime;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Read-only values of a meeting returned by listings. Queried with a constructor expression, so
+ * listed rows never become managed entities: the persistence context keeps no copy of them and
+ * nothing is dirty checked at flush. Serialized with the same fields as {@link Meeting}.
+ *
+ * <p>Occurrences of a {@link MeetingSeries} are views without an Id, holding the Id of their
+ * series instead.
+ *
+ * @author Filip.Kusztelak
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+@EqualsAndHashCode
+@JsonInclude(Include.NON_NULL)
+public final class MeetingView {
+
+  /** Constructor expression selecting a view of meeting m. */
+  static final String SELECT =
+      "select new com.fkusztel.meeting.planner.entity.MeetingView("
+          + "m.id, m.meetingType, m.priorityType, m.meetingDate, m.meetingEndDate, m.version)"
+          + " from Meeting m";
+
+  private final Long id;
+
+  private final MeetingType meetingType;
+
+  private final PriorityType priorityType;
+
+  private final ZonedDateTime meetingDate;
+
+  /** Exclusive end of the meeting. */
+  private final ZonedDateTime meetingEndDate;
+
+  private final Long version;
+
+  /** Id of the series of an occurrence, null for a stored meeting. */
+  private final Long seriesId;
+
+  public MeetingView(
+      Long id,
+      MeetingType meetingType,
+      PriorityType priorityType,
+      ZonedDateTime meetingDate,
+      ZonedDateTime meetingEndDate,
+      Long version) {
+    this(id, meetingType, priorityType, meetingDate, meetingEndDate, version, null);
+  }
+
+  public static MeetingView of(Meeting meeting) {
+    return new MeetingView(
+        meeting.getId(),
+        meeting.getMeetingType(),
+        meeting.getPriorityType(),
+        meeting.getMeetingDate(),
+        meeting.getMeetingEndDate(),
+        meeting.getVersion());
+  }
+}
@@ -0,0 +1,25 @@
+package com.fkusztel.meeting.planner.entity;
+
+import java.time.ZoneId;
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * Stores a time zone as its id, so a region keeps its own daylight saving rules rather than the
+ * offset it had when it was stored.
+ *
+ * @author Filip.Kusztelak
+ */
+@Converter
+public class ZoneIdAttributeConverter implements AttributeConverter<ZoneId, String> {
+
+  @Override
+  public String convertToDatabaseColumn(ZoneId zone) {
+    return zone != null ? zone.getId() : null;
+  }
+
+  @Override
+  public ZoneId convertToEntityAttribute(String id) {
+    return id != null ? ZoneId.of(id) : null;
+  }
+}
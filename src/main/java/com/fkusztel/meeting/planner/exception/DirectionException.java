@@ -1,6 +1,10 @@
 package com.fkusztel.meeting.planner.exception;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
 /** @author Filip.Kusztelak */
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
 public class DirectionException extends RuntimeException {
 
   public DirectionException() {
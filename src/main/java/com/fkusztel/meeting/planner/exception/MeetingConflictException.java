@@ -0,0 +1,22 @@
+package com.fkusztel.meeting.planner.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/** @author Filip.Kusztelak */
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class MeetingConflictException extends RuntimeException {
+
+  public MeetingConflictException(Long conflictingMeetingId) {
+    super("Meeting overlaps meeting with id: " + conflictingMeetingId);
+  }
+
+  private MeetingConflictException(String message) {
+    super(message);
+  }
+
+  public static MeetingConflictException series(Long conflictingSeriesId) {
+    return new MeetingConflictException(
+        "Meeting overlaps a meeting of series with id: " + conflictingSeriesId);
+  }
+}
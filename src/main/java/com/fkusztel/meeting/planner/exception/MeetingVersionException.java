@@ -0,0 +1,13 @@
+package com.fkusztel.meeting.planner.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/** @author Filip.Kusztelak */
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class MeetingVersionException extends RuntimeException {
+
+  public MeetingVersionException(Long meetingId, Long version) {
+    super("Meeting with id: " + meetingId + " is no longer at version: " + version);
+  }
+}
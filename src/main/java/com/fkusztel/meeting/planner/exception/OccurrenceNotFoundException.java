@@ -0,0 +1,10 @@
+package com.fkusztel.meeting.planner.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/** @author Filip.Kusztelak */
+@ResponseStatus(
+    value = HttpStatus.NOT_FOUND,
+    reason = "This Meeting series has no meeting on the given date.")
+public class OccurrenceNotFoundException extends Exception {}
@@ -0,0 +1,13 @@
+package com.fkusztel.meeting.planner.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/** @author Filip.Kusztelak */
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class SortException extends RuntimeException {
+
+  public SortException() {
+    super("Wrong sort was passed");
+  }
+}
@@ -0,0 +1,57 @@
+package com.fkusztel.meeting.planner.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Properties of a VEVENT read by {@link CalendarReader} which are needed to import it as a
+ * meeting. Values are kept as written in the calendar, they are interpreted by {@link
+ * MeetingImporter}.
+ *
+ * @author Filip.Kusztelak
+ */
+@Setter
+@Getter
+@ToString
+final class CalendarEvent {
+
+  /** Position of the event in the calendar, starting at 0. */
+  private final int index;
+
+  /** Line of the calendar the event begins on, starting at 1. */
+  private final int line;
+
+  private String uid;
+
+  private String summary;
+
+  /** Values of all CATEGORIES properties, separated by commas. */
+  private String categories;
+
+  private String priority;
+
+  /** Start in the basic format of iCalendar (20180326T120000, 20180326T100000Z or 20180326). */
+  private String start;
+
+  /** TZID parameter of the start, null for UTC or floating time. */
+  private String startZone;
+
+  private String end;
+
+  private String endZone;
+
+  /** Duration in the format of iCalendar (PT1H30M, P1D, P1W). */
+  private String duration;
+
+  /** The event has a recurrence rule or recurrence dates. */
+  private boolean recurring;
+
+  /** Reason the event could not be read, null when it was read completely. */
+  private String error;
+
+  CalendarEvent(int index, int line) {
+    this.index = index;
+    this.line = line;
+  }
+}
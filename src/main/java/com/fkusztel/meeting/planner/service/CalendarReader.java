@@ -0,0 +1,220 @@
+package com.fkusztel.meeting.planner.service;
+
+import com.google.common.collect.AbstractIterator;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+
+/**
+ * Events of an iCalendar (RFC 5545) stream, read one at a time as the stream is consumed. Only the
+ * current line and the properties of the current event needed to import it are held, lines are
+ * cut at a maximal length, so memory does not depend on the size of the calendar.
+ *
+ * <p>Properties of components nested in an event, such as alarms, are skipped. Time zone
+ * definitions are skipped too, TZID parameters are taken as time zone ids.
+ *
+ * @author Filip.Kusztelak
+ */
+final class CalendarReader extends AbstractIterator<CalendarEvent> {
+
+  private final Reader reader;
+
+  private final int maxLineLength;
+
+  private final char[] buffer = new char[8192];
+
+  private int position;
+
+  private int limit;
+
+  /** Current logical line, continuation lines unfolded. */
+  private final StringBuilder line = new StringBuilder();
+
+  /** Physical line the next character belongs to. */
+  private int lineNumber = 1;
+
+  private int events;
+
+  /**
+   * @param reader Calendar, read up to its end but not closed.
+   * @param maxLineLength Characters of a line kept, the rest of a longer line is dropped.
+   */
+  CalendarReader(Reader reader, int maxLineLength) {
+    this.reader = reader;
+    this.maxLineLength = maxLineLength;
+  }
+
+  @Override
+  protected CalendarEvent computeNext() {
+    try {
+      CalendarEvent event = null;
+      int nested = 0;
+      for (int start = readLine(); start > 0; start = readLine()) {
+        int colon = valueStart();
+        if (colon < 0) {
+          continue;
+        }
+        int nameEnd = nameEnd(colon);
+        String name = line.substring(0, nameEnd).trim().toUpperCase(Locale.ROOT);
+        String value = line.substring(colon + 1);
+
+        if (name.equals("BEGIN")) {
+          if (event == null && value.equalsIgnoreCase("VEVENT")) {
+            event = new CalendarEvent(events++, start);
+          } else if (event != null) {
+            nested++;
+          }
+        } else if (name.equals("END")) {
+          // An unclosed nested component ends with its event
+          if (event != null && (nested == 0 || value.equalsIgnoreCase("VEVENT"))) {
+            return event;
+          } else if (event != null) {
+            nested--;
+          }
+        } else if (event != null && nested == 0) {
+          property(event, name, line.substring(nameEnd, colon), value);
+        }
+      }
+      if (event != null) {
+        event.setError("Calendar ended before the end of the event");
+        return event;
+      }
+      return endOfData();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void property(CalendarEvent event, String name, String params, String value) {
+    switch (name) {
+      case "UID":
+        event.setUid(value);
+        break;
+      case "SUMMARY":
+        event.setSummary(value);
+        break;
+      case "CATEGORIES":
+        event.setCategories(
+            event.getCategories() == null ? value : event.getCategories() + ',' + value);
+        break;
+      case "PRIORITY":
+        event.setPriority(value.trim());
+        break;
+      case "DTSTART":
+        event.setStart(value.trim());
+        event.setStartZone(param(params, "TZID"));
+        break;
+      case "DTEND":
+        event.setEnd(value.trim());
+        event.setEndZone(param(params, "TZID"));
+        break;
+      case "DURATION":
+        event.setDuration(value.trim());
+        break;
+      case "RRULE":
+      case "RDATE":
+        event.setRecurring(true);
+        break;
+      default:
+        break;
+    }
+  }
+
+  /** Value of given parameter of a property, unquoted, null when it is not given. */
+  private static String param(String params, String name) {
+    int i = 0;
+    while (i < params.length()) {
+      // Parameters start with a semicolon, which quoted values may contain
+      int end = i + 1;
+      boolean quoted = false;
+      while (end < params.length() && (quoted || params.charAt(end) != ';')) {
+        quoted ^= params.charAt(end) == '"';
+        end++;
+      }
+      int equals = params.indexOf('=', i);
+      if (equals > 0
+          && equals < end
+          && params.substring(i + 1, equals).trim().equalsIgnoreCase(name)) {
+        String value = params.substring(equals + 1, end).trim();
+        return value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")
+            ? value.substring(1, value.length() - 1)
+            : value;
+      }
+      i = end;
+    }
+    return null;
+  }
+
+  /** Position of the colon separating the value of the current line, -1 when there is none. */
+  private int valueStart() {
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (c == '"') {
+        quoted = !quoted;
+      } else if (c == ':' && !quoted) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** End of the name of the current line, followed by its parameters or its value. */
+  private int nameEnd(int colon) {
+    for (int i = 0; i < colon; i++) {
+      if (line.charAt(i) == ';') {
+        return i;
+      }
+    }
+    return colon;
+  }
+
+  /**
+   * Read the next non-empty logical line, unfolding lines which continue it.
+   *
+   * @return Physical line the logical line starts on, 0 at the end of the calendar.
+   */
+  private int readLine() throws IOException {
+    line.setLength(0);
+    int c = nextChar();
+    while (c == '\r' || c == '\n' || c == '\uFEFF') {
+      if (c == '\n') {
+        lineNumber++;
+      }
+      c = nextChar();
+    }
+    if (c < 0) {
+      return 0;
+    }
+    int start = lineNumber;
+    while (c >= 0) {
+      if (c == '\n') {
+        lineNumber++;
+        int next = peekChar();
+        if (next != ' ' && next != '\t') {
+          break;
+        }
+        nextChar();
+      } else if (c != '\r' && line.length() < maxLineLength) {
+        line.append((char) c);
+      }
+      c = nextChar();
+    }
+    return start;
+  }
+
+  private int nextChar() throws IOException {
+    return position < limit || fill() ? buffer[position++] : -1;
+  }
+
+  private int peekChar() throws IOException {
+    return position < limit || fill() ? buffer[position] : -1;
+  }
+
+  private boolean fill() throws IOException {
+    position = 0;
+    limit = Math.max(reader.read(buffer), 0);
+    return limit > 0;
+  }
+}
@@ -0,0 +1,24 @@
+package com.fkusztel.meeting.planner.service;
+
+import java.time.ZonedDateTime;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Time span without blocking meetings, in UTC.
+ *
+ * @author Filip.Kusztelak
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+@EqualsAndHashCode
+public class FreeSlot {
+
+  private ZonedDateTime start;
+
+  /** Exclusive end of the slot. */
+  private ZonedDateTime end;
+}
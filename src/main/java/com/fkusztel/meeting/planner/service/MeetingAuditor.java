@@ -0,0 +1,69 @@
+package com.fkusztel.meeting.planner.service;
+
+import com.fkusztel.meeting.planner.entity.Meeting;
+import java.time.ZonedDateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes an audit event for every meeting mutation to the meeting.audit logger, one JSON object
+ * per line. Events are written once the surrounding transaction commits, so rolled back changes
+ * are not audited. The logger writes through a bounded asynchronous queue, see
+ * logback-spring.xml.
+ *
+ * @author Filip.Kusztelak
+ */
+@Component
+public class MeetingAuditor {
+
+  static final String LOGGER_NAME = "meeting.audit";
+
+  private static final Logger AUDIT = LoggerFactory.getLogger(LOGGER_NAME);
+
+  private static final String MEETING_EVENT =
+      "\"action\":\"{}\",\"meetingId\":{},\"meetingType\":\"{}\",\"priorityType\":\"{}\","
+          + "\"start\":\"{}\",\"end\":\"{}\"";
+
+  private static final String DELETE_EVENT = "\"action\":\"{}\",\"meetingId\":{}";
+
+  enum Action {
+    CREATED,
+    UPDATED,
+    DELETED
+  }
+
+  void created(Meeting meeting) {
+    record(Action.CREATED, meeting);
+  }
+
+  void updated(Meeting meeting) {
+    record(Action.UPDATED, meeting);
+  }
+
+  void deleted(Long meetingId) {
+    if (AUDIT.isInfoEnabled()) {
+      Transactions.afterCommit(() -> AUDIT.info(DELETE_EVENT, Action.DELETED, meetingId));
+    }
+  }
+
+  private static void record(Action action, Meeting meeting) {
+    if (!AUDIT.isInfoEnabled()) {
+      return;
+    }
+    // Values are taken now, as a managed meeting may still change before commit
+    Object[] values = {
+      action,
+      meeting.getId(),
+      meeting.getMeetingType(),
+      meeting.getPriorityType(),
+      instantOf(meeting.getMeetingDate()),
+      instantOf(meeting.getMeetingEndDate())
+    };
+    Transactions.afterCommit(() -> AUDIT.info(MEETING_EVENT, values));
+  }
+
+  private static Object instantOf(ZonedDateTime date) {
+    return date != null ? date.toInstant() : null;
+  }
+}
@@ -0,0 +1,36 @@
+package com.fkusztel.meeting.planner.service;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Outcome of a single item of a bulk operation.
+ *
+ * @author Filip.Kusztelak
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+@EqualsAndHashCode
+public class MeetingBulkResult {
+
+  /** Position of the item in the request. */
+  private int index;
+
+  private Long meetingId;
+
+  private Status status;
+
+  /** Reason of the failure, null when the item succeeded. */
+  private String error;
+
+  public enum Status {
+    CREATED,
+    UPDATED,
+    DELETED,
+    NOT_FOUND,
+    FAILED
+  }
+}
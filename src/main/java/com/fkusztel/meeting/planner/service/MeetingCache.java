@@ -0,0 +1,148 @@
+package com.fkusztel.meeting.planner.service;
+
+import com.fkusztel.meeting.planner.entity.Meeting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded in-process cache of meetings by Id. Absent meetings are remembered for a short time, so
+ * repeated lookups of a missing Id do not reach the database either. Hits and misses of both are
+ * exported as cache metrics named meetings and meetings.absent.
+ *
+ * @author Filip.Kusztelak
+ */
+@Component
+public class MeetingCache implements MeterBinder {
+
+  private final Cache<Long, Meeting> meetings;
+
+  private final Cache<Long, Boolean> absent;
+
+  /**
+   * Number of invalidations per stripe of Ids. Guava ignores an invalidation while the meeting is
+   * loading, so a load overlapping an invalidation of its stripe does not keep what it read.
+   */
+  private final AtomicLongArray invalidations = new AtomicLongArray(64);
+
+  public MeetingCache(
+      @Value("${meeting.cache.max-size:10000}") long maxSize,
+      @Value("${meeting.cache.ttl-seconds:300}") long ttlSeconds,
+      @Value("${meeting.cache.negative-ttl-seconds:5}") long negativeTtlSeconds) {
+    meetings =
+        CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+    absent =
+        CacheBuilder.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(negativeTtlSeconds, TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+  }
+
+  /**
+   * Get meeting from cache, loading it on a miss. Concurrent misses of the same Id share one load.
+   * A meeting invalidated while it was loading is returned but not kept, as the load may have read
+   * it before the invalidating commit.
+   *
+   * @param meetingId Id of the meeting.
+   * @param loader Reads meeting from database.
+   */
+  Optional<Meeting> get(Long meetingId, Supplier<Optional<Meeting>> loader) {
+    if (absent.getIfPresent(meetingId) != null) {
+      return Optional.empty();
+    }
+
+    int stripe = stripe(meetingId);
+    long loadedAfter = invalidations.get(stripe);
+    try {
+      Meeting meeting =
+          meetings.get(meetingId, () -> loader.get().orElseThrow(AbsentException::new));
+      if (invalidations.get(stripe) != loadedAfter) {
+        meetings.invalidate(meetingId);
+      }
+      return Optional.of(meeting);
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof AbsentException) {
+        if (invalidations.get(stripe) == loadedAfter) {
+          absent.put(meetingId, Boolean.TRUE);
+        }
+        return Optional.empty();
+      }
+      throw new UncheckedExecutionException(e.getCause());
+    }
+  }
+
+  /**
+   * Forget given meeting. When called inside a transaction the meeting is forgotten again after
+   * completion, so a concurrent read can not cache the value from before the commit.
+   *
+   * @param meetingId Id of the meeting.
+   */
+  void invalidate(Long meetingId) {
+    forget(meetingId);
+    Transactions.afterCompletion(() -> forget(meetingId));
+  }
+
+  void invalidateAll() {
+    meetings.invalidateAll();
+    absent.invalidateAll();
+  }
+
+  /** Hit, miss and eviction statistics of the cache. */
+  public Map<String, Object> stats() {
+    CacheStats stats = meetings.stats();
+    CacheStats absentStats = absent.stats();
+
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("size", meetings.size());
+    result.put("hitCount", stats.hitCount());
+    result.put("missCount", stats.missCount());
+    result.put("hitRate", stats.hitRate());
+    result.put("evictionCount", stats.evictionCount());
+    result.put("absentSize", absent.size());
+    result.put("absentHitCount", absentStats.hitCount());
+    return result;
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    GuavaCacheMetrics.monitor(registry, meetings, "meetings");
+    GuavaCacheMetrics.monitor(registry, absent, "meetings.absent");
+  }
+
+  /** Count the invalidation before forgetting, so a load finishing in between sees it. */
+  private void forget(Long meetingId) {
+    invalidations.incrementAndGet(stripe(meetingId));
+    meetings.invalidate(meetingId);
+    absent.invalidate(meetingId);
+  }
+
+  private int stripe(Long meetingId) {
+    return meetingId.hashCode() & (invalidations.length() - 1);
+  }
+
+  /** Signals the loader found no meeting, so the miss is cached as absent. */
+  private static class AbsentException extends RuntimeException {
+
+    AbsentException() {
+      super(null, null, false, false);
+    }
+  }
+}
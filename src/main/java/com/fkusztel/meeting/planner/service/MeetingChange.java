@@ -0,0 +1,38 @@
+package com.fkusztel.meeting.planner.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fkusztel.meeting.planner.entity.MeetingView;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Committed change of a single meeting, published by {@link MeetingChangeFeed}.
+ *
+ * @author Filip.Kusztelak
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+@EqualsAndHashCode
+@JsonInclude(Include.NON_NULL)
+public final class MeetingChange {
+
+  /** Position of the change in the feed, one more than the change committed before it. */
+  private final long sequence;
+
+  private final Action action;
+
+  private final Long meetingId;
+
+  /** Values of the meeting after the change, null when it was deleted. */
+  private final MeetingView meeting;
+
+  public enum Action {
+    CREATED,
+    UPDATED,
+    DELETED
+  }
+}
@@ -0,0 +1,105 @@
+package com.fkusztel.meeting.planner.service;
+
+import com.fkusztel.meeting.planner.entity.Meeting;
+import com.fkusztel.meeting.planner.entity.MeetingView;
+import com.fkusztel.meeting.planner.service.MeetingChange.Action;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feed of meeting changes committed through this instance, numbered in commit order. The latest
+ * changes are kept in a ring of fixed size, so readers can resume from the last change they have
+ * seen as long as they are not too far behind. Writers only append to the ring and wake the
+ * listeners, they never wait for readers.
+ *
+ * <p>Numbers restart with the instance, the epoch tells numbers of different runs apart.
+ *
+ * @author Filip.Kusztelak
+ */
+@Component
+public class MeetingChangeFeed {
+
+  private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+  private final MeetingChange[] ring;
+
+  private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+  /** Sequence of the latest change, written after its slot of the ring. */
+  private volatile long last;
+
+  public MeetingChangeFeed(@Value("${meeting.feed.history:10000}") int history) {
+    ring = new MeetingChange[history];
+  }
+
+  public String getEpoch() {
+    return epoch;
+  }
+
+  /** Sequence of the latest change, 0 before the first one. */
+  public long getLast() {
+    return last;
+  }
+
+  /**
+   * Changes following the change with given sequence, up to the latest one.
+   *
+   * @param sequence Sequence of the last change seen by the reader.
+   * @return Changes in sequence order, null when some of them are no longer kept.
+   */
+  public List<MeetingChange> since(long sequence) {
+    long latest = last;
+    if (latest - sequence > ring.length) {
+      return null;
+    }
+    List<MeetingChange> changes = new ArrayList<>((int) Math.max(latest - sequence, 0));
+    for (long next = sequence + 1; next <= latest; next++) {
+      MeetingChange change = ring[slot(next)];
+      // Overwritten by a later change since the latest sequence was read
+      if (change == null || change.getSequence() != next) {
+        return null;
+      }
+      changes.add(change);
+    }
+    return changes;
+  }
+
+  /** Run given listener on the writing thread after every change, it must not block. */
+  public void addListener(Runnable listener) {
+    listeners.add(listener);
+  }
+
+  void created(Meeting meeting) {
+    publish(Action.CREATED, meeting.getId(), MeetingView.of(meeting));
+  }
+
+  void updated(Meeting meeting) {
+    publish(Action.UPDATED, meeting.getId(), MeetingView.of(meeting));
+  }
+
+  void deleted(Long meetingId) {
+    publish(Action.DELETED, meetingId, null);
+  }
+
+  /** Append the change once the current transaction commits. Values are taken now. */
+  private void publish(Action action, Long meetingId, MeetingView meeting) {
+    Transactions.afterCommit(
+        () -> {
+          append(action, meetingId, meeting);
+          listeners.forEach(Runnable::run);
+        });
+  }
+
+  private synchronized void append(Action action, Long meetingId, MeetingView meeting) {
+    long sequence = last + 1;
+    ring[slot(sequence)] = new MeetingChange(sequence, action, meetingId, meeting);
+    last = sequence;
+  }
+
+  private int slot(long sequence) {
+    return (int) (sequence % ring.length);
+  }
+}
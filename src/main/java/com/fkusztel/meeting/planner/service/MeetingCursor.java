@@ -0,0 +1,156 @@
+package com.fkusztel.meeting.planner.service;
+
+import com.fkusztel.meeting.planner.entity.Meeting;
+import com.fkusztel.meeting.planner.entity.MeetingType;
+import com.fkusztel.meeting.planner.entity.MeetingView;
+import com.fkusztel.meeting.planner.entity.PriorityType;
+import com.fkusztel.meeting.planner.exception.CursorException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.regex.Pattern;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort.Order;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Keyset position of a page: values of the sort keys of the last returned meeting. Clients
+ * receive it as an opaque URL-safe token.
+ *
+ * @author Filip.Kusztelak
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+class MeetingCursor {
+
+  private static final String SEPARATOR = "|";
+
+  private final MeetingSort sort;
+
+  private final List<Comparable<?>> values;
+
+  /** Cursor pointing right after given meeting. */
+  static MeetingCursor of(MeetingView meeting, MeetingSort sort) {
+    List<Comparable<?>> values = new ArrayList<>();
+    for (Order order : sort.getOrders()) {
+      values.add(valueOf(meeting, order.getProperty()));
+    }
+    return new MeetingCursor(sort, values);
+  }
+
+  /**
+   * Decode token previously returned for the same sort.
+   *
+   * @exception CursorException Token is malformed or was issued for another sort
+   */
+  static MeetingCursor decode(String token, MeetingSort sort) {
+    String[] parts;
+    try {
+      parts =
+          new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+              .split(Pattern.quote(SEPARATOR), -1);
+    } catch (IllegalArgumentException e) {
+      throw new CursorException();
+    }
+
+    List<Order> orders = sort.getOrders();
+    if (parts.length != orders.size() + 1 || !parts[0].equals(sort.format())) {
+      throw new CursorException();
+    }
+
+    try {
+      List<Comparable<?>> values = new ArrayList<>();
+      for (int i = 0; i < orders.size(); i++) {
+        values.add(parse(orders.get(i).getProperty(), parts[i + 1]));
+      }
+      return new MeetingCursor(sort, values);
+    } catch (RuntimeException e) {
+      throw new CursorException();
+    }
+  }
+
+  String encode() {
+    StringBuilder raw = new StringBuilder(sort.format());
+    for (Comparable<?> value : values) {
+      raw.append(SEPARATOR).append(format(value));
+    }
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Meetings strictly after this cursor in sort order: equal on the first keys and past the cursor
+   * on the next one. The last key is unique, so no meeting is equal on all of them.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  Specification<Meeting> toSpecification() {
+    return (root, query, builder) -> {
+      List<Order> orders = sort.getOrders();
+      List<Predicate> after = new ArrayList<>();
+      List<Predicate> equal = new ArrayList<>();
+
+      for (int i = 0; i < orders.size(); i++) {
+        Path<Comparable> key = root.get(orders.get(i).getProperty());
+        Comparable keyValue = values.get(i);
+        Predicate past =
+            orders.get(i).isAscending()
+                ? builder.greaterThan(key, keyValue)
+                : builder.lessThan(key, keyValue);
+
+        equal.add(past);
+        after.add(builder.and(equal.toArray(new Predicate[0])));
+        equal.set(i, builder.equal(key, keyValue));
+      }
+      return builder.or(after.toArray(new Predicate[0]));
+    };
+  }
+
+  private static Comparable<?> valueOf(MeetingView meeting, String attribute) {
+    switch (attribute) {
+      case "id":
+        return meeting.getId();
+      case "meetingType":
+        return meeting.getMeetingType();
+      case "priorityType":
+        return meeting.getPriorityType();
+      case "meetingDate":
+        return meeting.getMeetingDate();
+      default:
+        throw new IllegalArgumentException("Attribute can not be used for paging: " + attribute);
+    }
+  }
+
+  private static Comparable<?> parse(String attribute, String value) {
+    switch (attribute) {
+      case "id":
+        return Long.valueOf(value);
+      case "meetingType":
+        return MeetingType.valueOf(value);
+      case "priorityType":
+        return PriorityType.valueOf(value);
+      case "meetingDate":
+        return ZonedDateTime.ofInstant(Instant.parse(value), ZoneOffset.UTC);
+      default:
+        throw new IllegalArgumentException("Attribute can not be used for paging: " + attribute);
+    }
+  }
+
+  private static String format(Comparable<?> value) {
+    if (value instanceof ZonedDateTime) {
+      return ((ZonedDateTime) value).toInstant().toString();
+    }
+    if (value instanceof Enum) {
+      return ((Enum<?>) value).name();
+    }
+    return String.valueOf(value);
+  }
+}
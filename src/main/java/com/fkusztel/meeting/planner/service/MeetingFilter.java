@@ -0,0 +1,77 @@
+package com.fkusztel.meeting.planner.service;
+
+import com.fkusztel.meeting.planner.entity.Meeting;
+import com.fkusztel.meeting.planner.entity.MeetingType;
+import com.fkusztel.meeting.planner.entity.PriorityType;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Conditions meetings have to meet to be listed. Conditions left out, or given an empty set, do
+ * not restrict the meetings. All of them are evaluated by the database, where the indexes on type
+ * and priority followed by date cover the common combinations.
+ *
+ * @author Filip.Kusztelak
+ */
+@Builder(toBuilder = true)
+@Getter
+@ToString
+@AllArgsConstructor
+@EqualsAndHashCode
+public class MeetingFilter {
+
+  /** Filter letting every meeting through. */
+  public static final MeetingFilter ALL = builder().build();
+
+  /** Types of meetings to list. */
+  private Set<MeetingType> meetingTypes;
+
+  /** Priorities of meetings to list. */
+  private Set<PriorityType> priorityTypes;
+
+  /** Inclusive lower bound of the meeting date in UTC (2018-01-01T00:00:00). */
+  private LocalDateTime startDate;
+
+  /** Exclusive upper bound of the meeting date in UTC (2018-02-02T00:00:00). */
+  private LocalDateTime endDate;
+
+  /** Conditions of this filter, null when it lets every meeting through. */
+  Specification<Meeting> toSpecification() {
+    if (equals(ALL)) {
+      return null;
+    }
+    return (root, query, builder) -> {
+      List<Predicate> predicates = new ArrayList<>();
+      if (meetingTypes != null && !meetingTypes.isEmpty()) {
+        predicates.add(root.get("meetingType").in(meetingTypes));
+      }
+      if (priorityTypes != null && !priorityTypes.isEmpty()) {
+        predicates.add(root.get("priorityType").in(priorityTypes));
+      }
+      Path<ZonedDateTime> meetingDate = root.get("meetingDate");
+      if (startDate != null) {
+        predicates.add(builder.greaterThanOrEqualTo(meetingDate, utc(startDate)));
+      }
+      if (endDate != null) {
+        predicates.add(builder.lessThan(meetingDate, utc(endDate)));
+      }
+      return builder.and(predicates.toArray(new Predicate[0]));
+    };
+  }
+
+  private static ZonedDateTime utc(LocalDateTime date) {
+    return date.atZone(ZoneOffset.UTC);
+  }
+}
@@ -0,0 +1,29 @@
+package com.fkusztel.meeting.planner.service;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Event of an imported calendar which was not created as a meeting.
+ *
+ * @author Filip.Kusztelak
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+@EqualsAndHashCode
+public class MeetingImportError {
+
+  /** Position of the event in the calendar, starting at 0. */
+  private int index;
+
+  /** Line of the calendar the event begins on. */
+  private int line;
+
+  /** UID of the event, null when it has none. */
+  private String uid;
+
+  private String error;
+}
@@ -0,0 +1,28 @@
+package com.fkusztel.meeting.planner.service;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Counts of events of a calendar import so far.
+ *
+ * @author Filip.Kusztelak
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+@EqualsAndHashCode
+public class MeetingImportProgress {
+
+  /** Events read from the calendar. */
+  private int events;
+
+  private int created;
+
+  private int failed;
+
+  /** The whole calendar was read and its events imported, the counts are final. */
+  private boolean completed;
+}
@@ -0,0 +1,321 @@
+package com.fkusztel.meeting.planner.service;
+
+import com.fkusztel.meeting.planner.config.ZoneIdConverter;
+import com.fkusztel.meeting.planner.entity.MeetingType;
+import com.fkusztel.meeting.planner.entity.PriorityType;
+import com.fkusztel.meeting.planner.service.MeetingBulkResult.Status;
+import com.google.common.base.Splitter;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import java.io.Reader;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Imports the events of an iCalendar stream as meetings. Events are read one at a time by {@link
+ * CalendarReader} and created in chunks by {@link MeetingService#meetingCreateAll}, which writes
+ * each chunk with JDBC batching, so memory is bounded by a chunk whatever the size of the
+ * calendar. Recurring and all-day events are not imported.
+ *
+ * <p>Types are given by rules matched in order against the summary and categories of an event, a
+ * rule {@code DEMO:demo|review} gives events containing demo or review the DEMO type. Priorities
+ * are given the same way by rules matched against the PRIORITY property, {@code HIGH:1|2|3|4}.
+ * Events no rule matches get the configured default, and fail when there is none.
+ *
+ * <p>Imported events are counted as meeting.import.events and events not imported as
+ * meeting.import.failed.
+ *
+ * @author Filip.Kusztelak
+ */
+@Slf4j
+@Component
+public class MeetingImporter {
+
+  private static final Counter IMPORTED = Metrics.counter("meeting.import.events");
+
+  private static final Counter FAILED = Metrics.counter("meeting.import.failed");
+
+  private final List<Rule<MeetingType>> typeRules;
+
+  private final List<Rule<PriorityType>> priorityRules;
+
+  @Autowired MeetingService meetingService;
+
+  /** Type of events no type rule matches, events fail when it is not set. */
+  @Value("${meeting.import.default-type:}")
+  MeetingType defaultType;
+
+  @Value("${meeting.import.default-priority:MEDIUM}")
+  PriorityType defaultPriority;
+
+  /** Events read before their meetings are created and the progress is reported. */
+  @Value("${meeting.import.chunk-size:1000}")
+  int chunkSize;
+
+  @Value("${meeting.import.max-line-length:4096}")
+  int maxLineLength;
+
+  /**
+   * @param typeRules Rules giving meeting types, TYPE:keyword|keyword.
+   * @param priorityRules Rules giving priorities, PRIORITY:value|value.
+   * @exception IllegalArgumentException Rule is malformed or names an unknown type or priority
+   */
+  public MeetingImporter(
+      @Value("${meeting.import.type-rules:}") String[] typeRules,
+      @Value("${meeting.import.priority-rules:}") String[] priorityRules) {
+    this.typeRules = Rule.parse(typeRules, MeetingType::valueOf);
+    this.priorityRules = Rule.parse(priorityRules, PriorityType::valueOf);
+  }
+
+  /**
+   * Import events of given calendar as meetings, in the order of the calendar. Events failing to
+   * import do not prevent the others from being imported.
+   *
+   * @param calendar Calendar, read as its events are imported.
+   * @param timeZone Time zone of floating times, given neither in UTC nor with a TZID.
+   * @param errors Receives every event which was not imported.
+   * @param progress Receives the counts after every chunk, and the final counts.
+   * @return Final counts.
+   */
+  public MeetingImportProgress importCalendar(
+      Reader calendar,
+      ZoneId timeZone,
+      Consumer<MeetingImportError> errors,
+      Consumer<MeetingImportProgress> progress) {
+    Import run = new Import(timeZone, errors);
+    CalendarReader events = new CalendarReader(calendar, maxLineLength);
+    while (events.hasNext()) {
+      run.add(events.next());
+      if (run.read % chunkSize == 0) {
+        run.flush();
+        progress.accept(run.progress(false));
+      }
+    }
+    run.flush();
+    MeetingImportProgress result = run.progress(true);
+    progress.accept(result);
+    log.info("importCalendar: {}", result);
+    return result;
+  }
+
+  /**
+   * Values of a meeting created from given event.
+   *
+   * @exception IllegalArgumentException Event can not be imported
+   * @exception DateTimeException Date, duration or time zone could not be parsed
+   */
+  private MeetingSpec toSpec(CalendarEvent event, ZoneId timeZone) {
+    if (event.getError() != null) {
+      throw new IllegalArgumentException(event.getError());
+    }
+    if (event.isRecurring()) {
+      throw new IllegalArgumentException("Recurring events are not imported");
+    }
+    if (event.getStart() == null) {
+      throw new IllegalArgumentException("DTSTART is required");
+    }
+    String start = isoDate(event.getStart());
+    ZoneId startZone = zoneOf(event.getStart(), event.getStartZone(), timeZone);
+
+    Duration duration;
+    if (event.getEnd() != null) {
+      Instant end =
+          MeetingTime.toInstant(
+              MeetingTime.parseLocal(isoDate(event.getEnd())),
+              zoneOf(event.getEnd(), event.getEndZone(), timeZone));
+      duration =
+          Duration.between(MeetingTime.toInstant(MeetingTime.parseLocal(start), startZone), end);
+    } else if (event.getDuration() != null) {
+      duration = parseDuration(event.getDuration());
+    } else {
+      throw new IllegalArgumentException("DTEND or DURATION is required");
+    }
+
+    return MeetingSpec.builder()
+        .meetingType(typeOf(event))
+        .priorityType(priorityOf(event))
+        .date(start)
+        .timeZone(startZone)
+        .durationMinutes(duration.toMinutes())
+        .build();
+  }
+
+  private MeetingType typeOf(CalendarEvent event) {
+    String text =
+        Strings.nullToEmpty(event.getSummary()).toLowerCase(Locale.ROOT)
+            + '\n'
+            + Strings.nullToEmpty(event.getCategories()).toLowerCase(Locale.ROOT);
+    for (Rule<MeetingType> rule : typeRules) {
+      if (rule.values.stream().anyMatch(text::contains)) {
+        return rule.target;
+      }
+    }
+    if (defaultType == null) {
+      throw new IllegalArgumentException("No type rule matches the event");
+    }
+    return defaultType;
+  }
+
+  private PriorityType priorityOf(CalendarEvent event) {
+    if (event.getPriority() != null) {
+      for (Rule<PriorityType> rule : priorityRules) {
+        if (rule.values.contains(event.getPriority())) {
+          return rule.target;
+        }
+      }
+    }
+    return defaultPriority;
+  }
+
+  /** ISO local date time of a date time in the basic format, 20180326T120000[Z]. */
+  private static String isoDate(String value) {
+    if (value.length() == 8) {
+      throw new IllegalArgumentException("All-day events are not imported");
+    }
+    if (value.length() < 15 || value.charAt(8) != 'T') {
+      throw new DateTimeException("Invalid date: " + value);
+    }
+    return value.substring(0, 4)
+        + '-'
+        + value.substring(4, 6)
+        + '-'
+        + value.substring(6, 8)
+        + 'T'
+        + value.substring(9, 11)
+        + ':'
+        + value.substring(11, 13)
+        + ':'
+        + value.substring(13, 15);
+  }
+
+  private static ZoneId zoneOf(String value, String zone, ZoneId floating) {
+    if (value.endsWith("Z")) {
+      return ZoneOffset.UTC;
+    }
+    return zone != null ? ZoneIdConverter.toZoneId(zone) : floating;
+  }
+
+  /** Duration of iCalendar, which has weeks but otherwise the form of ISO durations. */
+  private static Duration parseDuration(String value) {
+    if (value.endsWith("W")) {
+      int sign = value.startsWith("-") ? -1 : 1;
+      String weeks = value.substring(value.indexOf('P') + 1, value.length() - 1);
+      try {
+        return Duration.ofDays(7L * sign * Long.parseLong(weeks));
+      } catch (NumberFormatException e) {
+        throw new DateTimeException("Invalid duration: " + value);
+      }
+    }
+    return Duration.parse(value);
+  }
+
+  /** State of a single import. */
+  private final class Import {
+
+    private final ZoneId timeZone;
+
+    private final Consumer<MeetingImportError> errors;
+
+    /** Events of the current chunk to create, at the positions of their values. */
+    private final List<CalendarEvent> events = new ArrayList<>();
+
+    private final List<MeetingSpec> specs = new ArrayList<>();
+
+    private int read;
+
+    private int created;
+
+    private int failed;
+
+    private Import(ZoneId timeZone, Consumer<MeetingImportError> errors) {
+      this.timeZone = timeZone;
+      this.errors = errors;
+    }
+
+    private void add(CalendarEvent event) {
+      read++;
+      try {
+        specs.add(toSpec(event, timeZone));
+        events.add(event);
+      } catch (IllegalArgumentException | DateTimeException e) {
+        fail(event, e.getMessage());
+      }
+    }
+
+    /** Create the meetings of the current chunk. */
+    private void flush() {
+      if (specs.isEmpty()) {
+        return;
+      }
+      for (MeetingBulkResult result : meetingService.meetingCreateAll(specs)) {
+        if (result.getStatus() == Status.CREATED) {
+          created++;
+          IMPORTED.increment();
+        } else {
+          fail(events.get(result.getIndex()), result.getError());
+        }
+      }
+      specs.clear();
+      events.clear();
+    }
+
+    private void fail(CalendarEvent event, String error) {
+      failed++;
+      FAILED.increment();
+      errors.accept(
+          new MeetingImportError(event.getIndex(), event.getLine(), event.getUid(), error));
+    }
+
+    private MeetingImportProgress progress(boolean completed) {
+      return new MeetingImportProgress(read, created, failed, completed);
+    }
+  }
+
+  /** Value given to events by one of their properties. */
+  private static final class Rule<T> {
+
+    private final T target;
+
+    /** Keywords or values of the property, lower case. */
+    private final List<String> values;
+
+    private Rule(T target, List<String> values) {
+      this.target = target;
+      this.values = values;
+    }
+
+    private static <T> List<Rule<T>> parse(String[] rules, Function<String, T> target) {
+      ImmutableList.Builder<Rule<T>> parsed = ImmutableList.builder();
+      for (String rule : rules) {
+        if (rule.trim().isEmpty()) {
+          continue;
+        }
+        List<String> parts = Splitter.on(':').trimResults().limit(2).splitToList(rule);
+        if (parts.size() != 2 || parts.get(1).isEmpty()) {
+          throw new IllegalArgumentException("Invalid import rule: " + rule);
+        }
+        List<String> values =
+            Splitter.on('|')
+                .trimResults()
+                .omitEmptyStrings()
+                .splitToList(parts.get(1).toLowerCase(Locale.ROOT));
+        parsed.add(new Rule<>(target.apply(parts.get(0)), values));
+      }
+      return parsed.build();
+    }
+  }
+}
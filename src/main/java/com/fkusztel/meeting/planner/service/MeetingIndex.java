@@ -0,0 +1,434 @@
+package com.fkusztel.meeting.planner.service;
+
+import com.fkusztel.meeting.planner.entity.Meeting;
+import com.fkusztel.meeting.planner.entity.MeetingRepository;
+import com.fkusztel.meeting.planner.entity.MeetingSeries;
+import com.fkusztel.meeting.planner.entity.MeetingSeriesRepository;
+import com.fkusztel.meeting.planner.exception.MeetingConflictException;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-memory index of meetings sorted by the UTC instant of their date. It is loaded at startup and
+ * kept in sync by {@link MeetingServiceImpl}, so it only sees writes made through this instance.
+ *
+ * <p>Reads never lock and see a weakly consistent view. Writes are serialized and applied after
+ * the surrounding transaction commits. Writers reserve the time span of a meeting first, which
+ * rejects overlapping meetings even while their transactions are still running. Series are not
+ * indexed, their occurrences are checked against the series stored in the database.
+ *
+ * <p>Rejected meetings are counted as meeting.conflicts and the number of meetings is exported as
+ * meeting.rows.
+ *
+ * @author Filip.Kusztelak
+ */
+@Slf4j
+@Component
+public class MeetingIndex implements MeterBinder {
+
+  private static final Counter CONFLICTS = Metrics.counter("meeting.conflicts");
+
+  private final NavigableMap<Key, Meeting> meetings = new ConcurrentSkipListMap<>();
+
+  /** Meetings reserved by transactions which have not completed yet. */
+  private final NavigableMap<Key, Meeting> reserved = new ConcurrentSkipListMap<>();
+
+  private final AtomicLong reservations = new AtomicLong();
+
+  /** Number of reservations of series released, each after its series was committed or not. */
+  private final AtomicLong seriesReleased = new AtomicLong();
+
+  private final Map<Long, Key> keys = new ConcurrentHashMap<>();
+
+  /** Ids removed while loading, so the loader does not bring them back. */
+  private final Set<Long> removedWhileLoading = new HashSet<>();
+
+  private final Object writeLock = new Object();
+
+  private volatile boolean loading;
+
+  private volatile boolean ready;
+
+  @Autowired MeetingRepository meetingRepository;
+
+  @Autowired MeetingSeriesRepository meetingSeriesRepository;
+
+  @Autowired TransactionTemplate transactionTemplate;
+
+  @Value("${meeting.index.enabled:false}")
+  boolean enabled;
+
+  /** Row count while the index is not loaded. Counting scans an index, so it is kept a while. */
+  private final Supplier<Long> databaseSize =
+      Suppliers.memoizeWithExpiration(() -> meetingRepository.count(), 1, TimeUnit.MINUTES);
+
+  /** Load all meetings from database. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    if (!enabled) {
+      return;
+    }
+
+    loading = true;
+    transactionTemplate.execute(
+        status -> {
+          try (Stream<Meeting> stream = meetingRepository.streamAll()) {
+            stream.forEach(
+                meeting -> {
+                  synchronized (writeLock) {
+                    if (!keys.containsKey(meeting.getId())
+                        && !removedWhileLoading.contains(meeting.getId())) {
+                      insert(meeting);
+                    }
+                  }
+                  meetingRepository.detach(meeting);
+                });
+          }
+          return null;
+        });
+
+    synchronized (writeLock) {
+      loading = false;
+      removedWhileLoading.clear();
+    }
+    ready = true;
+    log.info("Meeting index loaded with {} meetings", meetings.size());
+  }
+
+  /** Whether the index holds all meetings and can answer queries. */
+  boolean isReady() {
+    return ready;
+  }
+
+  int size() {
+    return meetings.size();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder(
+            "meeting.rows", this, index -> index.ready ? index.size() : index.databaseSize.get())
+        .description("Number of meetings in database")
+        .register(registry);
+  }
+
+  /**
+   * Find meetings starting strictly between given instants, ordered by date.
+   *
+   * @param start Exclusive lower bound.
+   * @param end Exclusive upper bound.
+   */
+  List<Meeting> findBetween(Instant start, Instant end) {
+    if (!start.isBefore(end)) {
+      return new ArrayList<>();
+    }
+    return new ArrayList<>(
+        meetings
+            .subMap(
+                new Key(start.toEpochMilli(), Long.MAX_VALUE),
+                false,
+                new Key(end.toEpochMilli(), Long.MIN_VALUE),
+                false)
+            .values());
+  }
+
+  /**
+   * Meetings overlapping given time span, ordered by date. The returned view is read lazily, so
+   * iterating over the first k meetings takes O(log n + k).
+   *
+   * @param start Inclusive start of the time span.
+   * @param end Exclusive end of the time span.
+   */
+  Collection<Meeting> findOverlapping(Instant start, Instant end) {
+    Key to = new Key(end.toEpochMilli(), Long.MIN_VALUE);
+    // Meetings do not overlap, so only the last one starting before the span can reach into it
+    Key from = meetings.floorKey(new Key(start.toEpochMilli(), Long.MAX_VALUE));
+
+    if (from != null && from.compareTo(to) < 0) {
+      return meetings.subMap(from, true, to, false).values();
+    }
+    return meetings.headMap(to, false).values();
+  }
+
+  /**
+   * Check given meeting does not overlap any other meeting or occurrence of a series, and hold its
+   * time span until the current transaction completes. Meetings never overlap each other, so only
+   * the last two meetings starting before the end of given one have to be checked, which takes
+   * O(log n). Series are read from the database.
+   *
+   * @param meeting Meeting with dates, Id is null for new meetings.
+   * @exception MeetingConflictException Given meeting overlaps another one
+   */
+  void reserve(Meeting meeting) {
+    MeetingConflictException conflict =
+        reserve(Collections.singletonList(meeting), false, false).get(0);
+    if (conflict != null) {
+      throw conflict;
+    }
+  }
+
+  /**
+   * Reserve each of given meetings which overlaps no other meeting, the way {@link
+   * #reserve(Meeting)} does. Series are read once for all of them.
+   *
+   * @param toReserve Meetings with dates, Id is null for new meetings.
+   * @return Conflicts of the meetings which were not reserved, by their position in given list.
+   */
+  Map<Integer, MeetingConflictException> reserveEach(List<Meeting> toReserve) {
+    return reserve(toReserve, false, false);
+  }
+
+  /**
+   * Check occurrences of given series starting before given instant do not overlap any meeting,
+   * occurrence of another series or each other, and hold their time spans until the current
+   * transaction completes. Later occurrences are not checked.
+   *
+   * @param series New series with its bounds, before it is saved.
+   * @param until Exclusive end of the checked occurrences.
+   * @exception MeetingConflictException An occurrence overlaps a meeting
+   */
+  void reserve(MeetingSeries series, Instant until) {
+    List<Meeting> occurrences = new ArrayList<>();
+    MeetingOccurrences.overlapping(series, series.getSeriesStart().toInstant(), until)
+        .forEachRemaining(
+            occurrence ->
+                occurrences.add(
+                    Meeting.builder()
+                        .meetingDate(occurrence.getMeetingDate())
+                        .meetingEndDate(occurrence.getMeetingEndDate())
+                        .build()));
+    Map<Integer, MeetingConflictException> conflicts = reserve(occurrences, true, true);
+    if (!conflicts.isEmpty()) {
+      throw conflicts.values().iterator().next();
+    }
+  }
+
+  /**
+   * Reserve given meetings, skipping the overlapping ones or, when all or none are reserved,
+   * releasing the reserved ones at the first conflict.
+   */
+  private Map<Integer, MeetingConflictException> reserve(
+      List<Meeting> toReserve, boolean allOrNone, boolean ofSeries) {
+    Map<Integer, MeetingConflictException> conflicts = new HashMap<>();
+    if (toReserve.isEmpty()) {
+      return conflicts;
+    }
+    // Series are read outside of the lock, and read again when a series was released meanwhile
+    long released = seriesReleased.get();
+    List<MeetingSeries> series = findSeries(toReserve);
+    List<Key> reservedKeys = new ArrayList<>(toReserve.size());
+
+    synchronized (writeLock) {
+      if (seriesReleased.get() != released) {
+        series = findSeries(toReserve);
+      }
+      for (int i = 0; i < toReserve.size(); i++) {
+        Meeting meeting = toReserve.get(i);
+        MeetingConflictException conflict = findConflict(meeting, series);
+        if (conflict != null) {
+          CONFLICTS.increment();
+          conflicts.put(i, conflict);
+          if (allOrNone) {
+            reservedKeys.forEach(reserved::remove);
+            return conflicts;
+          }
+          continue;
+        }
+        Key key = new Key(startOf(meeting), -reservations.incrementAndGet());
+        reserved.put(key, meeting.toBuilder().build());
+        reservedKeys.add(key);
+      }
+    }
+
+    // Released after the commit callbacks, so a committed reservation is already in the index
+    Transactions.afterCompletion(
+        () -> {
+          synchronized (writeLock) {
+            reservedKeys.forEach(reserved::remove);
+            if (ofSeries) {
+              seriesReleased.incrementAndGet();
+            }
+          }
+        });
+    return conflicts;
+  }
+
+  /** Series which may have occurrences overlapping any of given meetings. */
+  private List<MeetingSeries> findSeries(List<Meeting> meetings) {
+    long start = meetings.stream().mapToLong(MeetingIndex::startOf).min().getAsLong();
+    long end = meetings.stream().mapToLong(MeetingIndex::endOf).max().getAsLong();
+    return meetingSeriesRepository.findOverlapping(
+        Instant.ofEpochMilli(start).atZone(ZoneOffset.UTC),
+        Instant.ofEpochMilli(end).atZone(ZoneOffset.UTC));
+  }
+
+  /** Conflict of given meeting with a reserved or stored meeting or an occurrence of a series. */
+  private MeetingConflictException findConflict(Meeting meeting, List<MeetingSeries> series) {
+    long start = startOf(meeting);
+    long end = endOf(meeting);
+    Meeting conflict = findOverlapping(reserved, start, end, meeting.getId());
+    if (conflict == null) {
+      conflict =
+          ready
+              ? findOverlapping(meetings, start, end, meeting.getId())
+              : findOverlappingInDatabase(meeting);
+    }
+    if (conflict != null) {
+      return new MeetingConflictException(conflict.getId());
+    }
+    Instant from = Instant.ofEpochMilli(start);
+    Instant to = Instant.ofEpochMilli(end);
+    for (MeetingSeries each : series) {
+      if (MeetingOccurrences.overlapping(each, from, to).hasNext()) {
+        return MeetingConflictException.series(each.getId());
+      }
+    }
+    return null;
+  }
+
+  private Meeting findOverlappingInDatabase(Meeting meeting) {
+    List<Meeting> endingAfter =
+        meetingRepository.findEndingAfter(
+            meeting.getMeetingDate(),
+            meeting.getId() == null ? -1L : meeting.getId(),
+            PageRequest.of(0, 1));
+    if (endingAfter.isEmpty()
+        || !endingAfter.get(0).getMeetingDate().isBefore(meeting.getMeetingEndDate())) {
+      return null;
+    }
+    return endingAfter.get(0);
+  }
+
+  private static Meeting findOverlapping(
+      NavigableMap<Key, Meeting> index, long start, long end, Long meetingId) {
+    NavigableMap<Key, Meeting> startingBefore = index.headMap(new Key(end, Long.MIN_VALUE), false);
+    for (Meeting other : startingBefore.descendingMap().values()) {
+      // Meetings do not overlap, so earlier meetings end earlier as well
+      if (endOf(other) <= start) {
+        return null;
+      }
+      if (meetingId == null || !meetingId.equals(other.getId())) {
+        return other;
+      }
+    }
+    return null;
+  }
+
+  private static long startOf(Meeting meeting) {
+    return meeting.getMeetingDate().toInstant().toEpochMilli();
+  }
+
+  private static long endOf(Meeting meeting) {
+    ZonedDateTime end = meeting.getMeetingEndDate();
+    return (end != null ? end : meeting.getMeetingDate()).toInstant().toEpochMilli();
+  }
+
+  /**
+   * Add or replace given meeting once the current transaction commits. A meeting updated without a
+   * version gets the version following the one of the meeting it replaces, writes of a meeting
+   * commit one at a time under {@link MeetingLocks}.
+   *
+   * @param meeting Meeting with Id.
+   */
+  void put(Meeting meeting) {
+    if (!enabled) {
+      return;
+    }
+    // Keep a copy, the given entity may still be modified by the caller
+    Meeting copy = meeting.toBuilder().build();
+    Transactions.afterCommit(
+        () -> {
+          synchronized (writeLock) {
+            Key previous = keys.get(copy.getId());
+            Meeting replaced = previous != null ? meetings.get(previous) : null;
+            if (copy.getVersion() == null && replaced != null && replaced.getVersion() != null) {
+              copy.setVersion(replaced.getVersion() + 1);
+            }
+            insert(copy);
+            if (previous != null && !previous.equals(keys.get(copy.getId()))) {
+              meetings.remove(previous);
+            }
+          }
+        });
+  }
+
+  /**
+   * Remove meeting with given Id once the current transaction commits.
+   *
+   * @param meetingId Id of the meeting.
+   */
+  void remove(Long meetingId) {
+    if (!enabled) {
+      return;
+    }
+    Transactions.afterCommit(
+        () -> {
+          synchronized (writeLock) {
+            Key previous = keys.remove(meetingId);
+            if (previous != null) {
+              meetings.remove(previous);
+            }
+            if (loading) {
+              removedWhileLoading.add(meetingId);
+            }
+          }
+        });
+  }
+
+  private void insert(Meeting meeting) {
+    Key key = new Key(meeting.getMeetingDate().toInstant().toEpochMilli(), meeting.getId());
+    meetings.put(key, meeting);
+    keys.put(meeting.getId(), key);
+  }
+
+  /** Position of a meeting in the index: start instant, then Id for meetings starting together. */
+  @EqualsAndHashCode
+  private static final class Key implements Comparable<Key> {
+
+    private final long start;
+
+    private final long id;
+
+    Key(long start, long id) {
+      this.start = start;
+      this.id = id;
+    }
+
+    @Override
+    public int compareTo(Key other) {
+      int result = Long.compare(start, other.start);
+      return result != 0 ? result : Long.compare(id, other.id);
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package com.fkusztel.meeting.planner.service;
+
+import com.fkusztel.meeting.planner.exception.ServiceBusyException;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Striped;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Striped locks serializing writes of the same meeting within this instance. Concurrent updates of
+ * a hot meeting wait here in turn, rather than all taking a pooled connection to wait on the row
+ * lock in the database and failing on deadlocks. Meeting Ids share a fixed number of stripes, so
+ * memory does not grow with the number of meetings, at the cost of unrelated meetings sharing a
+ * stripe now and then.
+ *
+ * <p>Locks only coordinate writers of this instance, versions of meetings keep writes of different
+ * instances consistent. Time spent waiting is exported as meeting.lock.wait and waits given up
+ * after the timeout are counted as meeting.lock.timeouts.
+ *
+ * @author Filip.Kusztelak
+ */
+@Component
+public class MeetingLocks {
+
+  private static final Timer WAIT = Metrics.timer("meeting.lock.wait");
+
+  private static final Counter TIMEOUTS = Metrics.counter("meeting.lock.timeouts");
+
+  private final Striped<Lock> stripes;
+
+  @Value("${meeting.lock.timeout-millis:2000}")
+  long timeoutMillis;
+
+  public MeetingLocks(@Value("${meeting.lock.stripes:256}") int stripes) {
+    this.stripes = Striped.lock(stripes);
+  }
+
+  /**
+   * Run given action holding the locks of given meetings. Locks of several meetings are taken in
+   * the order of their stripes, so writers of overlapping sets of meetings never deadlock.
+   *
+   * @param meetingIds Ids of the written meetings.
+   * @param action Runs and commits the write, so no other writer sees it uncommitted.
+   * @exception ServiceBusyException Locks were not acquired within the timeout
+   */
+  <T> T withLocks(Collection<Long> meetingIds, Supplier<T> action) {
+    List<Lock> locks = ImmutableList.copyOf(stripes.bulkGet(meetingIds));
+    int locked = 0;
+    try {
+      long start = System.nanoTime();
+      long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+      for (Lock lock : locks) {
+        if (!lock.tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+          TIMEOUTS.increment();
+          throw new ServiceBusyException();
+        }
+        locked++;
+      }
+      WAIT.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      return action.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ServiceBusyException();
+    } finally {
+      // Ids sharing a stripe lock it once for each of them
+      for (int i = locked - 1; i >= 0; i--) {
+        locks.get(i).unlock();
+      }
+    }
+  }
+}
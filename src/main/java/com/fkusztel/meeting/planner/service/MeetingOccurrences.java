@@ -0,0 +1,200 @@
+package com.fkusztel.meeting.planner.service;
+
+import com.fkusztel.meeting.planner.entity.Frequency;
+import com.fkusztel.meeting.planner.entity.MeetingSeries;
+import com.fkusztel.meeting.planner.entity.MeetingView;
+import com.google.common.collect.AbstractIterator;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Occurrences of a {@link MeetingSeries} in a time span, expanded one at a time in date order.
+ * Expansion starts at the first candidate date of the span, computed from the rule rather than
+ * stepped to from the start of the series, and stops at the end of the span, so its cost only
+ * depends on the number of occurrences in the span.
+ *
+ * <p>Each occurrence starts at the wall clock time of the series on its date, resolved in the time
+ * zone of the series the same way {@link MeetingTime} resolves a meeting, and lasts the duration
+ * of the series.
+ *
+ * @author Filip.Kusztelak
+ */
+final class MeetingOccurrences extends AbstractIterator<MeetingView> {
+
+  private final MeetingSeries series;
+
+  private final LocalTime time;
+
+  private final ZoneId zone;
+
+  private final Duration duration;
+
+  /** Days of weekly occurrences. */
+  private final Set<DayOfWeek> days;
+
+  private final Set<LocalDate> exceptions;
+
+  private final Instant start;
+
+  private final Instant end;
+
+  /** Next candidate date, not yet checked against the end of the span or the series. */
+  private LocalDate date;
+
+  private MeetingOccurrences(MeetingSeries series, Instant start, Instant end) {
+    this.series = series;
+    this.time = series.getFirstDate().toLocalTime();
+    this.zone = series.getTimeZone();
+    this.duration = Duration.ofMinutes(series.getDurationMinutes());
+    this.days =
+        series.getDaysOfWeek() == null || series.getDaysOfWeek().isEmpty()
+            ? EnumSet.of(series.getFirstDate().getDayOfWeek())
+            : EnumSet.copyOf(series.getDaysOfWeek());
+    this.exceptions =
+        series.getExceptions() != null ? series.getExceptions() : Collections.emptySet();
+    this.start = start;
+    this.end = end;
+
+    // Offsets differ from UTC by less than a day, so no occurrence overlapping the span starts on
+    // an earlier date
+    LocalDate from =
+        LocalDateTime.ofInstant(start.minus(duration), ZoneOffset.UTC).toLocalDate().minusDays(1);
+    this.date = firstOnOrAfter(from);
+  }
+
+  /**
+   * Occurrences of given series overlapping given time span, ordered by date.
+   *
+   * @param series Series with its exceptions.
+   * @param start Inclusive start of the time span.
+   * @param end Exclusive end of the time span.
+   */
+  static Iterator<MeetingView> overlapping(MeetingSeries series, Instant start, Instant end) {
+    return new MeetingOccurrences(series, start, end);
+  }
+
+  /** Whether the rule of given series has an occurrence on given local date, cancelled or not. */
+  static boolean isOccurrence(MeetingSeries series, LocalDate date) {
+    if (date.isBefore(series.getFirstDate().toLocalDate())
+        || (series.getLastDate() != null && date.isAfter(series.getLastDate()))) {
+      return false;
+    }
+    // Only the rule is used, not the span
+    return new MeetingOccurrences(series, Instant.EPOCH, Instant.EPOCH)
+        .firstOnOrAfter(date)
+        .equals(date);
+  }
+
+  /** Start of the first possible occurrence of given series, in UTC. */
+  static ZonedDateTime seriesStart(MeetingSeries series) {
+    return MeetingTime.toInstant(series.getFirstDate(), series.getTimeZone())
+        .atZone(ZoneOffset.UTC);
+  }
+
+  /** End of the last possible occurrence of given series in UTC, null when it does not end. */
+  static ZonedDateTime seriesEnd(MeetingSeries series) {
+    if (series.getLastDate() == null) {
+      return null;
+    }
+    LocalDateTime last = series.getLastDate().atTime(series.getFirstDate().toLocalTime());
+    return MeetingTime.toInstant(last, series.getTimeZone())
+        .plus(Duration.ofMinutes(series.getDurationMinutes()))
+        .atZone(ZoneOffset.UTC);
+  }
+
+  @Override
+  protected MeetingView computeNext() {
+    while (series.getLastDate() == null || !date.isAfter(series.getLastDate())) {
+      // Wall clock times of later dates always resolve to later instants
+      Instant occurrenceStart = MeetingTime.toInstant(LocalDateTime.of(date, time), zone);
+      if (!occurrenceStart.isBefore(end)) {
+        break;
+      }
+      Instant occurrenceEnd = occurrenceStart.plus(duration);
+      LocalDate occurrenceDate = date;
+      date = next(date);
+
+      if (occurrenceEnd.isAfter(start) && !exceptions.contains(occurrenceDate)) {
+        return new MeetingView(
+            null,
+            series.getMeetingType(),
+            series.getPriorityType(),
+            occurrenceStart.atZone(ZoneOffset.UTC),
+            occurrenceEnd.atZone(ZoneOffset.UTC),
+            null,
+            series.getId());
+      }
+    }
+    return endOfData();
+  }
+
+  /** First date of the rule on or after given date. */
+  private LocalDate firstOnOrAfter(LocalDate from) {
+    LocalDate first = series.getFirstDate().toLocalDate();
+    int interval = series.getRepeatInterval();
+    if (from.isBefore(first)) {
+      from = first;
+    }
+
+    if (series.getFrequency() == Frequency.DAILY) {
+      long steps = ceilDiv(ChronoUnit.DAYS.between(first, from), interval);
+      return first.plusDays(steps * interval);
+    }
+
+    LocalDate firstWeek = weekOf(first);
+    long weeks = ChronoUnit.WEEKS.between(firstWeek, weekOf(from));
+    long steps = ceilDiv(weeks, interval);
+    if (steps * interval != weeks) {
+      return firstDay(firstWeek.plusWeeks(steps * interval));
+    }
+    // The week of the date repeats, take its first day on or after the date
+    for (LocalDate day = from; weekOf(day).equals(weekOf(from)); day = day.plusDays(1)) {
+      if (days.contains(day.getDayOfWeek())) {
+        return day;
+      }
+    }
+    return firstDay(firstWeek.plusWeeks((steps + 1) * interval));
+  }
+
+  /** Date of the rule following given date of the rule. */
+  private LocalDate next(LocalDate date) {
+    int interval = series.getRepeatInterval();
+    if (series.getFrequency() == Frequency.DAILY) {
+      return date.plusDays(interval);
+    }
+    for (LocalDate day = date.plusDays(1);
+        day.getDayOfWeek() != DayOfWeek.MONDAY;
+        day = day.plusDays(1)) {
+      if (days.contains(day.getDayOfWeek())) {
+        return day;
+      }
+    }
+    return firstDay(weekOf(date).plusWeeks(interval));
+  }
+
+  /** First date of the rule in the week starting on given Monday. */
+  private LocalDate firstDay(LocalDate monday) {
+    return monday.with(TemporalAdjusters.nextOrSame(days.iterator().next()));
+  }
+
+  private static LocalDate weekOf(LocalDate date) {
+    return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+  }
+
+  private static long ceilDiv(long value, long divisor) {
+    return (value + divisor - 1) / divisor;
+  }
+}
@@ -0,0 +1,21 @@
+package com.fkusztel.meeting.planner.service;
+
+import com.fkusztel.meeting.planner.entity.MeetingView;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/** @author Filip.Kusztelak */
+@Getter
+@ToString
+@AllArgsConstructor
+@EqualsAndHashCode
+public class MeetingPage {
+
+  private List<MeetingView> meetings;
+
+  /** Token to pass to fetch the next page, null when this is the last page. */
+  private String nextCursor;
+}
@@ -1,12 +1,18 @@
 package com.fkusztel.meeting.planner.service;
 
 import com.fkusztel.meeting.planner.entity.Meeting;
+import com.fkusztel.meeting.planner.entity.MeetingSeries;
 import com.fkusztel.meeting.planner.entity.MeetingType;
+import com.fkusztel.meeting.planner.entity.MeetingView;
 import com.fkusztel.meeting.planner.entity.PriorityType;
 import com.fkusztel.meeting.planner.exception.MeetingNotFoundException;
+import com.fkusztel.meeting.planner.exception.OccurrenceNotFoundException;
+import com.fkusztel.meeting.planner.exception.SeriesNotFoundException;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
-import org.springframework.data.domain.Sort.Direction;
+import java.util.List;
+import java.util.function.Consumer;
 
 /** @author Filip.Kusztelak */
 public interface MeetingService {
@@ -15,25 +21,54 @@ public interface MeetingService {
 
   Meeting findMeetingById(Long meetingId) throws MeetingNotFoundException;
 
-  Iterable<Meeting> findAll();
+  List<MeetingView> findAll();
+
+  MeetingPage findAll(String cursor, Integer pageSize);
+
+  void exportAll(Consumer<Meeting> consumer);
 
   void deleteMeeting(Long meetingId) throws MeetingNotFoundException;
 
   Meeting meetingCreate(
-      MeetingType meetingType, PriorityType priorityType, String date, ZoneId timeZone);
+      MeetingType meetingType, PriorityType priorityType, MeetingTime meetingTime);
 
-  Iterable<Meeting> findMeetingByDateBetween(LocalDateTime startDate, LocalDateTime endDate);
+  List<MeetingView> findMeetingByDateBetween(LocalDateTime startDate, LocalDateTime endDate);
 
   Meeting updateMeeting(
       Long meetingId,
       MeetingType meetingType,
       PriorityType priorityType,
-      String date,
-      ZoneId timeZone);
+      MeetingTime meetingTime,
+      Long version);
+
+  List<FreeSlot> findFreeSlots(
+      LocalDateTime startDate,
+      LocalDateTime endDate,
+      Duration duration,
+      PriorityType minPriority,
+      int limit);
+
+  List<MeetingBulkResult> meetingCreateAll(List<MeetingSpec> specs);
+
+  List<MeetingBulkResult> updateMeetingAll(List<MeetingSpec> specs);
+
+  List<MeetingBulkResult> deleteMeetingAll(List<Long> meetingIds);
+
+  MeetingSeries seriesCreate(MeetingSeries series);
+
+  MeetingSeries findSeriesById(Long seriesId) throws SeriesNotFoundException;
+
+  MeetingSeries cancelOccurrence(Long seriesId, LocalDate date)
+      throws SeriesNotFoundException, OccurrenceNotFoundException;
+
+  void deleteSeries(Long seriesId) throws SeriesNotFoundException;
 
   Iterable<MeetingType> getType();
 
   Iterable<PriorityType> getPriority();
 
-  Iterable<Meeting> getSorted(String attribute, Direction direction);
+  MeetingPage getSorted(MeetingSort sort, String cursor, Integer pageSize);
+
+  MeetingPage findMeetings(
+      MeetingFilter filter, MeetingSort sort, String cursor, Integer pageSize);
 }
@@ -1,44 +1,150 @@
 package com.fkusztel.meeting.planner.service;
 
 import com.fkusztel.meeting.planner.entity.Meeting;
+import com.fkusztel.meeting.planner.entity.Frequency;
 import com.fkusztel.meeting.planner.entity.MeetingRepository;
+import com.fkusztel.meeting.planner.entity.MeetingSeries;
+import com.fkusztel.meeting.planner.entity.MeetingSeriesRepository;
 import com.fkusztel.meeting.planner.entity.MeetingType;
+import com.fkusztel.meeting.planner.entity.MeetingView;
 import com.fkusztel.meeting.planner.entity.PriorityType;
-import com.fkusztel.meeting.planner.exception.DirectionException;
+import com.fkusztel.meeting.planner.exception.CursorException;
+import com.fkusztel.meeting.planner.exception.MeetingConflictException;
 import com.fkusztel.meeting.planner.exception.MeetingNotFoundException;
+import com.fkusztel.meeting.planner.exception.MeetingVersionException;
+import com.fkusztel.meeting.planner.exception.OccurrenceNotFoundException;
+import com.fkusztel.meeting.planner.exception.SeriesNotFoundException;
+import com.fkusztel.meeting.planner.exception.ServiceBusyException;
+import com.fkusztel.meeting.planner.service.MeetingBulkResult.Status;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.domain.Sort.Direction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /** @author Filip.Kusztelak */
 @Slf4j
 @Service
 public class MeetingServiceImpl implements MeetingService {
 
+  private static final Counter READ_NOT_FOUND =
+      Metrics.counter("meeting.not.found", "operation", "read");
+
+  private static final Counter DELETE_NOT_FOUND =
+      Metrics.counter("meeting.not.found", "operation", "delete");
+
+  private static final Counter VERSION_CONFLICTS = Metrics.counter("meeting.version.conflicts");
+
+  private static final Counter RETRIES = Metrics.counter("meeting.write.retries");
+
+  private static final List<MeetingType> TYPES = ImmutableList.copyOf(MeetingType.values());
+
+  private static final List<PriorityType> PRIORITIES = ImmutableList.copyOf(PriorityType.values());
+
+  private static final Comparator<MeetingView> BY_DATE =
+      Comparator.comparing(meeting -> meeting.getMeetingDate().toInstant());
+
   @Autowired MeetingRepository meetingRepository;
 
+  @Autowired MeetingSeriesRepository meetingSeriesRepository;
+
+  @Autowired TransactionTemplate transactionTemplate;
+
+  @Autowired MeetingCache meetingCache;
+
+  @Autowired MeetingIndex meetingIndex;
+
+  @Autowired MeetingAuditor meetingAuditor;
+
+  @Autowired MeetingVersion meetingVersion;
+
+  @Autowired MeetingChangeFeed meetingChangeFeed;
+
+  @Autowired MeetingLocks meetingLocks;
+
+  /** Bulk operations commit one transaction per chunk of that many meetings. */
+  @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+  int batchSize;
+
+  /** Attempts of a write failing on concurrent writes, the first one included. */
+  @Value("${meeting.write.max-attempts:3}")
+  int maxAttempts;
+
+  /** Upper bound of the random wait before the first retry, doubled by every further one. */
+  @Value("${meeting.write.retry-backoff-millis:20}")
+  long retryBackoffMillis;
+
+  @Value("${meeting.series.check-days:366}")
+  long seriesCheckDays;
+
+  @Value("${meeting.page.default-size:100}")
+  int defaultPageSize;
+
+  @Value("${meeting.page.max-size:1000}")
+  int maxPageSize;
+
   /**
    * Save meeting in database
    *
    * @param meeting Given meeting entity.
+   * @exception MeetingConflictException Meeting overlaps another one
    */
   @Override
+  @Transactional
   public void saveMeeting(Meeting meeting) {
-    meetingRepository.save(meeting);
+    meetingIndex.reserve(meeting);
+    boolean created = meeting.getId() == null;
+    Meeting saved = meetingRepository.save(meeting);
+    written(saved);
+    if (created) {
+      recordCreated(saved);
+    } else {
+      recordUpdated(saved);
+    }
   }
 
   /**
-   * Find meeting with the specified Id.
+   * Find meeting with the specified Id. Meetings are read through {@link MeetingCache}. Misses are
+   * loaded from the primary, as a meeting read from a lagging replica would stay cached long after
+   * the replica caught up.
    *
    * @param meetingId Id of given meeting.
    * @exception MeetingNotFoundException Given meeting was not found in database
@@ -46,26 +152,78 @@ public class MeetingServiceImpl implements MeetingService {
   @Override
   public Meeting findMeetingById(Long meetingId) throws MeetingNotFoundException {
 
-    return meetingRepository.findById(meetingId).orElseThrow(MeetingNotFoundException::new);
+    Optional<Meeting> meeting =
+        meetingCache.get(
+            meetingId,
+            () -> transactionTemplate.execute(status -> meetingRepository.findById(meetingId)));
+    if (!meeting.isPresent()) {
+      READ_NOT_FOUND.increment();
+      throw new MeetingNotFoundException();
+    }
+    return meeting.get();
+  }
+
+  /** Find all meetings in database, read as views rather than managed entities. */
+  @Override
+  @Transactional(readOnly = true)
+  public List<MeetingView> findAll() {
+    return meetingRepository.findAllViews();
+  }
+
+  /**
+   * Find one page of meetings ordered by date.
+   *
+   * @param cursor Token returned with the previous page, null for the first page.
+   * @param pageSize Number of meetings per page, configured default when null.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public MeetingPage findAll(String cursor, Integer pageSize) {
+    return getSorted(MeetingSort.BY_DATE, cursor, pageSize);
   }
 
-  /** Find all meetings in database */
+  /**
+   * Pass every meeting in database to given consumer. Meetings are streamed from the database and
+   * detached once consumed, so memory use does not grow with the number of meetings.
+   *
+   * @param consumer Receives meetings one by one.
+   */
   @Override
-  public Iterable<Meeting> findAll() {
-    return meetingRepository.findAll();
+  @Transactional(readOnly = true)
+  public void exportAll(Consumer<Meeting> consumer) {
+    try (Stream<Meeting> meetings = meetingRepository.streamAll()) {
+      meetings.forEach(
+          meeting -> {
+            consumer.accept(meeting);
+            meetingRepository.detach(meeting);
+          });
+    }
   }
 
   /**
-   * Delete meeting from database with the specified values.
+   * Delete meeting from database with the specified values. The delete holds the lock of the
+   * meeting on {@link MeetingLocks} until it committed, like updates do, so the index and the
+   * change feed see the writes of a meeting in the order they were committed.
    *
    * @param meetingId Id of the meeting.
    * @exception MeetingNotFoundException Given meeting was not found in database
+   * @exception ServiceBusyException Meeting stayed locked by other writes for too long
    */
   @Override
   public void deleteMeeting(Long meetingId) throws MeetingNotFoundException {
     try {
-      meetingRepository.deleteById(meetingId);
-    } catch (NoSuchElementException e) {
+      meetingLocks.withLocks(
+          Collections.singleton(meetingId),
+          () ->
+              transactionTemplate.execute(
+                  status -> {
+                    meetingRepository.deleteById(meetingId);
+                    removed(meetingId);
+                    recordDeleted(meetingId);
+                    return null;
+                  }));
+    } catch (NoSuchElementException | EmptyResultDataAccessException e) {
+      DELETE_NOT_FOUND.increment();
       throw new MeetingNotFoundException();
     }
   }
@@ -75,119 +233,691 @@ public class MeetingServiceImpl implements MeetingService {
    *
    * @param meetingType Type of the meeting.
    * @param priorityType Priority type of meeting.
-   * @param date Starting date of meeting (2018-02-03T12:30:30).
-   * @param timeZone Preferred timezone (Europe/Paris, America/Sao_Paulo, Asia/Tokyo etc).
+   * @param meetingTime Start and end of meeting.
+   * @exception MeetingConflictException Meeting overlaps another one
    */
   @Override
+  @Transactional
   public Meeting meetingCreate(
-      MeetingType meetingType, PriorityType priorityType, String date, ZoneId timeZone) {
+      MeetingType meetingType, PriorityType priorityType, MeetingTime meetingTime) {
 
     // Create meeting from given parameters and save it to database
-    Meeting meeting =
-        Meeting.builder()
-            .meetingType(meetingType)
-            .priorityType(priorityType)
-            .meetingDate(ZonedDateTime.ofLocal(LocalDateTime.parse(date), timeZone, ZoneOffset.UTC))
-            .build();
+    Meeting meeting = toMeeting(null, meetingType, priorityType, meetingTime);
 
-    log.info("createMeeting: {}", meeting.toString());
-    saveMeeting(meeting);
-    return meetingRepository.save(meeting);
+    meetingIndex.reserve(meeting);
+    Meeting created = meetingRepository.save(meeting);
+    written(created);
+    recordCreated(created);
+    return created;
   }
 
   /**
-   * Update a Meeting if exists or creates a new one with the specified values.
+   * Update a Meeting if exists or creates a new one with the specified values. An existing meeting
+   * is updated with a single statement, without reading it first. Given a version, the meeting is
+   * only updated while it still has that version, so values read before a concurrent update never
+   * overwrite it. An absent meeting is created under a newly generated Id, unless a version is
+   * given. The returned meeting carries its new version only when a version was given, the version
+   * of a meeting updated without one is left unset rather than read back.
+   *
+   * <p>Updates of the same meeting on this instance wait for each other on {@link MeetingLocks},
+   * and an update failing on a concurrent write is retried a bounded number of times.
    *
    * @param meetingId Id of the meeting.
    * @param meetingType Type of the meeting.
    * @param priorityType Priority type of meeting.
-   * @param date Starting date of meeting (2018-02-03T12:30:30).
+   * @param meetingTime Start and end of meeting.
+   * @param version Expected version of the meeting, any version when null.
+   * @exception MeetingConflictException Meeting overlaps another one
+   * @exception MeetingVersionException Meeting no longer has given version or was deleted
+   * @exception ServiceBusyException Meeting stayed locked by other updates for too long
    */
   @Override
   public Meeting updateMeeting(
       Long meetingId,
       MeetingType meetingType,
       PriorityType priorityType,
-      String date,
-      ZoneId timeZone) {
+      MeetingTime meetingTime,
+      Long version) {
+
+    Meeting meeting = toMeeting(meetingId, meetingType, priorityType, meetingTime);
+    meeting.setVersion(version);
+
+    return meetingLocks.withLocks(
+        Collections.singleton(meetingId), () -> executeWithRetry(status -> update(meeting)));
+  }
+
+  /** Update a copy of given meeting, or create it when absent, in the current transaction. */
+  private Meeting update(Meeting values) {
+    Meeting meeting = values.toBuilder().build();
+
+    meetingIndex.reserve(meeting);
+    if (meetingRepository.update(meeting) > 0) {
+      if (meeting.getVersion() != null) {
+        meeting.setVersion(meeting.getVersion() + 1);
+      }
+      written(meeting);
+      recordUpdated(meeting);
+      return meeting;
+    }
+    if (meeting.getVersion() != null) {
+      VERSION_CONFLICTS.increment();
+      throw new MeetingVersionException(meeting.getId(), meeting.getVersion());
+    }
+
+    meeting.setId(null);
+    Meeting created = meetingRepository.save(meeting);
+    written(created);
+    recordCreated(created);
+    log.debug(
+        "Meeting with Id {} was absent and was created as {}", values.getId(), created.getId());
+    return created;
+  }
+
+  /**
+   * Find the earliest free slots long enough for a meeting of given duration. Meetings are swept in
+   * date order starting at the window, so the cost depends on the number of meetings passed before
+   * enough slots are found, not on the size of the calendar. Occurrences of meeting series block
+   * slots the same way meetings do.
+   *
+   * @param startDate Start of the searched window, interpreted as UTC.
+   * @param endDate End of the searched window, interpreted as UTC.
+   * @param duration Minimal length of a slot.
+   * @param minPriority Only meetings of this or higher priority block a slot, all do when null.
+   * @param limit Maximal number of returned slots.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public List<FreeSlot> findFreeSlots(
+      LocalDateTime startDate,
+      LocalDateTime endDate,
+      Duration duration,
+      PriorityType minPriority,
+      int limit) {
+    if (duration.isNegative() || duration.isZero() || limit < 1) {
+      throw new IllegalArgumentException("Duration and limit must be positive");
+    }
+    Instant start = startDate.toInstant(ZoneOffset.UTC);
+    Instant end = endDate.toInstant(ZoneOffset.UTC);
+    if (!start.isBefore(end)) {
+      return new ArrayList<>();
+    }
+
+    int maxSlots = Math.min(limit, maxPageSize);
+    if (meetingIndex.isReady()) {
+      return findFreeSlots(
+          withOccurrences(
+              Iterators.transform(
+                  meetingIndex.findOverlapping(start, end).iterator(), MeetingView::of),
+              start,
+              end),
+          start,
+          end,
+          duration,
+          minPriority,
+          maxSlots);
+    }
+    return transactionTemplate.execute(
+        status -> {
+          // Meetings do not overlap, so only the first one ending in the window can start before
+          List<Meeting> first =
+              meetingRepository.findEndingAfter(
+                  start.atZone(ZoneOffset.UTC), -1L, PageRequest.of(0, 1));
+          ZonedDateTime from =
+              first.isEmpty() || !first.get(0).getMeetingDate().toInstant().isBefore(start)
+                  ? start.atZone(ZoneOffset.UTC)
+                  : first.get(0).getMeetingDate();
+
+          try (Stream<Meeting> meetings =
+              meetingRepository.streamStartingBetween(from, end.atZone(ZoneOffset.UTC))) {
+            Iterator<MeetingView> views = Iterators.transform(meetings.iterator(), MeetingView::of);
+            return findFreeSlots(
+                withOccurrences(views, start, end),
+                start,
+                end,
+                duration,
+                minPriority,
+                maxSlots);
+          }
+        });
+  }
+
+  private static List<FreeSlot> findFreeSlots(
+      Iterator<MeetingView> meetings,
+      Instant start,
+      Instant end,
+      Duration duration,
+      PriorityType minPriority,
+      int limit) {
+    List<FreeSlot> slots = new ArrayList<>();
+    Instant free = start;
+
+    while (slots.size() < limit && meetings.hasNext()) {
+      MeetingView meeting = meetings.next();
+      if (minPriority != null && meeting.getPriorityType().compareTo(minPriority) < 0) {
+        continue;
+      }
+
+      Instant meetingStart = meeting.getMeetingDate().toInstant();
+      Instant meetingEnd =
+          meeting.getMeetingEndDate() != null
+              ? meeting.getMeetingEndDate().toInstant()
+              : meetingStart;
+
+      if (!free.plus(duration).isAfter(meetingStart)) {
+        slots.add(new FreeSlot(free.atZone(ZoneOffset.UTC), meetingStart.atZone(ZoneOffset.UTC)));
+      }
+      if (meetingEnd.isAfter(free)) {
+        free = meetingEnd;
+      }
+    }
+
+    if (slots.size() < limit && !free.plus(duration).isAfter(end)) {
+      slots.add(new FreeSlot(free.atZone(ZoneOffset.UTC), end.atZone(ZoneOffset.UTC)));
+    }
+    return slots;
+  }
+
+  /**
+   * Create meetings in chunks, each chunk persisted in one transaction using JDBC batching.
+   *
+   * @param specs Values of meetings to create.
+   */
+  @Override
+  public List<MeetingBulkResult> meetingCreateAll(List<MeetingSpec> specs) {
+    List<MeetingBulkResult> results = new ArrayList<>(specs.size());
+    for (List<MeetingSpec> chunk : Lists.partition(specs, batchSize)) {
+      results.addAll(createChunk(chunk, results.size()));
+    }
+    return results;
+  }
+
+  /**
+   * Update meetings in chunks, each chunk read and written in one transaction using JDBC batching.
+   * Absent meetings are created, the same way {@link #updateMeeting} does.
+   *
+   * @param specs Values of meetings to update, meeting Id is required.
+   */
+  @Override
+  public List<MeetingBulkResult> updateMeetingAll(List<MeetingSpec> specs) {
+    List<MeetingBulkResult> results = new ArrayList<>(specs.size());
+    for (List<MeetingSpec> chunk : Lists.partition(specs, batchSize)) {
+      results.addAll(updateChunk(chunk, results.size()));
+    }
+    return results;
+  }
+
+  /**
+   * Delete meetings in chunks, each chunk removed with a single statement while holding the locks
+   * of its meetings.
+   *
+   * @param meetingIds Ids of meetings to delete.
+   */
+  @Override
+  public List<MeetingBulkResult> deleteMeetingAll(List<Long> meetingIds) {
+    List<MeetingBulkResult> results = new ArrayList<>(meetingIds.size());
+    for (List<Long> chunk : Lists.partition(meetingIds, batchSize)) {
+      results.addAll(deleteChunk(chunk, results.size()));
+    }
+    return results;
+  }
+
+  private List<MeetingBulkResult> createChunk(List<MeetingSpec> chunk, int offset) {
+    MeetingBulkResult[] results = new MeetingBulkResult[chunk.size()];
+    Map<Integer, Meeting> meetings = new LinkedHashMap<>();
+
+    for (int i = 0; i < chunk.size(); i++) {
+      try {
+        meetings.put(i, toMeeting(chunk.get(i)));
+      } catch (IllegalArgumentException | DateTimeException e) {
+        results[i] = failed(offset + i, null, e);
+      }
+    }
 
-    Meeting updated;
     try {
-      updated = findMeetingById(meetingId);
-      updated.setMeetingType(meetingType);
-      updated.setPriorityType(priorityType);
-      updated.setId(meetingId);
-      updated.setMeetingDate(
-          ZonedDateTime.ofLocal(LocalDateTime.parse(date), timeZone, ZoneOffset.UTC));
-
-      saveMeeting(updated);
-      log.info(updated.toString() + " updated successfully");
-      return updated;
-    } catch (MeetingNotFoundException e) {
-      Meeting created =
-          Meeting.builder()
-              .id(meetingId)
-              .meetingType(meetingType)
-              .priorityType(priorityType)
-              .meetingDate(
-                  ZonedDateTime.ofLocal(LocalDateTime.parse(date), timeZone, ZoneOffset.UTC))
-              .build();
-
-      saveMeeting(created);
-      log.info("Meeting with Id "
-          + meetingId
-          + " was absent and it was created: "
-          + created.toString());
-      return created;
+      transactionTemplate.execute(
+          status -> {
+            reserveAll(meetings, offset, results);
+            meetingRepository.saveAll(meetings.values());
+            // In the index before the reservations are released
+            meetings.values().forEach(this::written);
+            meetings.values().forEach(this::recordCreated);
+            return null;
+          });
+      meetings.forEach(
+          (i, meeting) ->
+              results[i] =
+                  new MeetingBulkResult(offset + i, meeting.getId(), Status.CREATED, null));
+    } catch (DataAccessException | TransactionException e) {
+      log.warn("meetingCreateAll: chunk at {} failed", offset, e);
+      meetings.keySet().forEach(i -> results[i] = failed(offset + i, null, e));
     }
+    return Arrays.asList(results);
+  }
+
+  private List<MeetingBulkResult> updateChunk(List<MeetingSpec> chunk, int offset) {
+    MeetingBulkResult[] results = new MeetingBulkResult[chunk.size()];
+    Map<Integer, Meeting> meetings = new LinkedHashMap<>();
+
+    for (int i = 0; i < chunk.size(); i++) {
+      MeetingSpec spec = chunk.get(i);
+      try {
+        if (spec.getMeetingId() == null) {
+          throw new IllegalArgumentException("meetingId is required");
+        }
+        meetings.put(i, toMeeting(spec));
+      } catch (IllegalArgumentException | DateTimeException e) {
+        results[i] = failed(offset + i, spec.getMeetingId(), e);
+      }
+    }
+
+    try {
+      meetingLocks.withLocks(
+          meetings.values().stream().map(Meeting::getId).collect(Collectors.toList()),
+          () -> executeWithRetry(status -> applyChunk(chunk, offset, meetings, results)));
+    } catch (DataAccessException | TransactionException | ServiceBusyException e) {
+      log.warn("updateMeetingAll: chunk at {} failed", offset, e);
+      meetings
+          .keySet()
+          .forEach(i -> results[i] = failed(offset + i, chunk.get(i).getMeetingId(), e));
+    }
+    return Arrays.asList(results);
+  }
+
+  /**
+   * Update or create the meetings of a chunk in the current transaction. Values of the chunk are
+   * left as they are, so a retried transaction applies them again.
+   */
+  private Void applyChunk(
+      List<MeetingSpec> chunk,
+      int offset,
+      Map<Integer, Meeting> meetings,
+      MeetingBulkResult[] results) {
+    reserveAll(meetings, offset, results);
+    List<Long> meetingIds =
+        meetings.values().stream().map(Meeting::getId).collect(Collectors.toList());
+    Map<Long, Meeting> existing =
+        meetingRepository
+            .findAllById(meetingIds)
+            .stream()
+            .collect(Collectors.toMap(Meeting::getId, Function.identity()));
+
+    List<Meeting> updated = new ArrayList<>();
+    meetings.forEach(
+        (i, values) -> {
+          Meeting managed = existing.get(values.getId());
+          Long version = chunk.get(i).getVersion();
+          if (version != null && (managed == null || !version.equals(managed.getVersion()))) {
+            VERSION_CONFLICTS.increment();
+            MeetingVersionException e = new MeetingVersionException(values.getId(), version);
+            results[i] = failed(offset + i, values.getId(), e);
+            return;
+          }
+          if (managed == null) {
+            Meeting created = meetingRepository.save(values.toBuilder().id(null).build());
+            written(created);
+            recordCreated(created);
+            results[i] = new MeetingBulkResult(offset + i, created.getId(), Status.CREATED, null);
+            return;
+          }
+          // Changes of managed entities are flushed in one batch, each row checked for its version
+          managed.setMeetingType(values.getMeetingType());
+          managed.setPriorityType(values.getPriorityType());
+          managed.setMeetingDate(values.getMeetingDate());
+          managed.setMeetingEndDate(values.getMeetingEndDate());
+          updated.add(managed);
+          results[i] = new MeetingBulkResult(offset + i, managed.getId(), Status.UPDATED, null);
+        });
+
+    // Versions are incremented by the flush, updates are recorded with them
+    meetingRepository.flush();
+    updated.forEach(this::written);
+    updated.forEach(this::recordUpdated);
+    return null;
+  }
+
+  private List<MeetingBulkResult> deleteChunk(List<Long> chunk, int offset) {
+    List<MeetingBulkResult> results = new ArrayList<>(chunk.size());
+    try {
+      Set<Long> deleted =
+          meetingLocks.withLocks(
+              chunk.stream().filter(Objects::nonNull).collect(Collectors.toList()),
+              () ->
+                  transactionTemplate.execute(
+                      status -> {
+                        List<Meeting> existing = meetingRepository.findAllById(chunk);
+                        meetingRepository.deleteInBatch(existing);
+                        Set<Long> ids =
+                            existing.stream().map(Meeting::getId).collect(Collectors.toSet());
+                        ids.forEach(this::removed);
+                        ids.forEach(this::recordDeleted);
+                        return ids;
+                      }));
+
+      for (int i = 0; i < chunk.size(); i++) {
+        Long meetingId = chunk.get(i);
+        Status status = deleted.contains(meetingId) ? Status.DELETED : Status.NOT_FOUND;
+        if (status == Status.NOT_FOUND) {
+          DELETE_NOT_FOUND.increment();
+        }
+        results.add(new MeetingBulkResult(offset + i, meetingId, status, null));
+      }
+    } catch (DataAccessException | TransactionException | ServiceBusyException e) {
+      log.warn("deleteMeetingAll: chunk at {} failed", offset, e);
+      for (int i = 0; i < chunk.size(); i++) {
+        results.add(failed(offset + i, chunk.get(i), e));
+      }
+    }
+    return results;
+  }
+
+  /** Reserve time of given meetings, leaving out and failing the overlapping ones. */
+  private void reserveAll(Map<Integer, Meeting> meetings, int offset, MeetingBulkResult[] results) {
+    List<Integer> positions = new ArrayList<>(meetings.keySet());
+    meetingIndex
+        .reserveEach(new ArrayList<>(meetings.values()))
+        .forEach(
+            (position, conflict) -> {
+              int i = positions.get(position);
+              results[i] = failed(offset + i, meetings.remove(i).getId(), conflict);
+            });
+  }
+
+  /**
+   * Run given callback in a transaction, repeated up to the maximal number of attempts while it
+   * fails on a concurrent write: a deadlock, a lock wait timeout or a row changed between its read
+   * and its write. Each retry first waits a random time, bounded by a backoff doubling with every
+   * attempt, so writers which collided do not collide again.
+   */
+  private <T> T executeWithRetry(TransactionCallback<T> callback) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return transactionTemplate.execute(callback);
+      } catch (ConcurrencyFailureException e) {
+        if (attempt >= maxAttempts) {
+          throw e;
+        }
+        RETRIES.increment();
+        log.debug("Write failed on a concurrent write, attempt {}: {}", attempt, e.toString());
+        long backoffMillis = retryBackoffMillis << (attempt - 1);
+        try {
+          Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMillis + 1));
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          throw e;
+        }
+      }
+    }
+  }
+
+  /** Audit a created meeting and publish it to the change feed, once committed. */
+  private void recordCreated(Meeting meeting) {
+    meetingAuditor.created(meeting);
+    meetingChangeFeed.created(meeting);
+  }
+
+  /** Audit an updated meeting and publish it to the change feed, once committed. */
+  private void recordUpdated(Meeting meeting) {
+    meetingAuditor.updated(meeting);
+    meetingChangeFeed.updated(meeting);
+  }
+
+  /** Audit a deleted meeting and publish it to the change feed, once committed. */
+  private void recordDeleted(Long meetingId) {
+    meetingAuditor.deleted(meetingId);
+    meetingChangeFeed.deleted(meetingId);
+  }
+
+  /**
+   * Keep cache, index and version coherent with a created or updated meeting. Called in the
+   * transaction writing it, so the meeting is in the index before its reservation is released.
+   */
+  private void written(Meeting meeting) {
+    meetingCache.invalidate(meeting.getId());
+    meetingIndex.put(meeting);
+    meetingVersion.bump();
+  }
+
+  /** Keep cache, index and version coherent with a deleted meeting. */
+  private void removed(Long meetingId) {
+    meetingCache.invalidate(meetingId);
+    meetingIndex.remove(meetingId);
+    meetingVersion.bump();
+  }
+
+  private static Meeting toMeeting(MeetingSpec spec) {
+    if (spec.getMeetingType() == null
+        || spec.getPriorityType() == null
+        || spec.getDate() == null
+        || spec.getTimeZone() == null
+        || spec.getDurationMinutes() == null) {
+      throw new IllegalArgumentException(
+          "meetingType, priorityType, date, timeZone and durationMinutes are required");
+    }
+    return toMeeting(
+        spec.getMeetingId(),
+        spec.getMeetingType(),
+        spec.getPriorityType(),
+        MeetingTime.of(
+            spec.getDate(), spec.getTimeZone(), Duration.ofMinutes(spec.getDurationMinutes())));
+  }
+
+  private static Meeting toMeeting(
+      Long meetingId, MeetingType meetingType, PriorityType priorityType, MeetingTime meetingTime) {
+    return Meeting.builder()
+        .id(meetingId)
+        .meetingType(meetingType)
+        .priorityType(priorityType)
+        .meetingDate(meetingTime.getStartDate())
+        .meetingEndDate(meetingTime.getEndDate())
+        .build();
+  }
+
+  private static MeetingBulkResult failed(int index, Long meetingId, Exception e) {
+    return new MeetingBulkResult(
+        index, meetingId, Status.FAILED, NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+  }
+
+  /**
+   * Create a series of meetings. Only the rule of the series is stored, its occurrences are
+   * expanded by queries of the time spans they fall in. Occurrences starting in the first
+   * meeting.series.check-days days of the series are checked not to overlap meetings or other
+   * series, later ones are not. Meetings written later are checked against all occurrences.
+   *
+   * @param series Rule of the series, without Id.
+   * @exception IllegalArgumentException Rule is incomplete or inconsistent
+   * @exception MeetingConflictException A checked occurrence overlaps another meeting
+   */
+  @Override
+  @Transactional
+  public MeetingSeries seriesCreate(MeetingSeries series) {
+    if (series.getMeetingType() == null
+        || series.getPriorityType() == null
+        || series.getFirstDate() == null
+        || series.getTimeZone() == null
+        || series.getFrequency() == null) {
+      throw new IllegalArgumentException(
+          "meetingType, priorityType, date, timeZone and frequency are required");
+    }
+    if (series.getDurationMinutes() <= 0 || series.getRepeatInterval() < 1) {
+      throw new IllegalArgumentException("Duration and interval of series must be positive");
+    }
+    if (series.getLastDate() != null
+        && series.getLastDate().isBefore(series.getFirstDate().toLocalDate())) {
+      throw new IllegalArgumentException("Last date of series precedes its first date");
+    }
+    if (series.getFrequency() == Frequency.DAILY
+        && series.getDaysOfWeek() != null
+        && !series.getDaysOfWeek().isEmpty()) {
+      throw new IllegalArgumentException("Days of week only apply to weekly series");
+    }
+
+    series.setId(null);
+    series.setSeriesStart(MeetingOccurrences.seriesStart(series));
+    series.setSeriesEnd(MeetingOccurrences.seriesEnd(series));
+    meetingIndex.reserve(
+        series, series.getSeriesStart().toInstant().plus(Duration.ofDays(seriesCheckDays)));
+    return meetingSeriesRepository.save(series);
+  }
+
+  /**
+   * Find series with the specified Id, together with its cancelled occurrences.
+   *
+   * @param seriesId Id of the series.
+   * @exception SeriesNotFoundException Given series was not found in database
+   */
+  @Override
+  public MeetingSeries findSeriesById(Long seriesId) throws SeriesNotFoundException {
+    return meetingSeriesRepository.findById(seriesId).orElseThrow(SeriesNotFoundException::new);
+  }
+
+  /**
+   * Cancel the occurrence of a series on given date, leaving the other occurrences in place.
+   *
+   * @param seriesId Id of the series.
+   * @param date Local date of the occurrence in the time zone of the series.
+   * @exception SeriesNotFoundException Given series was not found in database
+   * @exception OccurrenceNotFoundException Series has no occurrence on given date
+   */
+  @Override
+  @Transactional
+  public MeetingSeries cancelOccurrence(Long seriesId, LocalDate date)
+      throws SeriesNotFoundException, OccurrenceNotFoundException {
+    MeetingSeries series = findSeriesById(seriesId);
+    if (!MeetingOccurrences.isOccurrence(series, date)) {
+      throw new OccurrenceNotFoundException();
+    }
+    series.getExceptions().add(date);
+    return series;
+  }
+
+  /**
+   * Delete series with all its occurrences.
+   *
+   * @param seriesId Id of the series.
+   * @exception SeriesNotFoundException Given series was not found in database
+   */
+  @Override
+  @Transactional
+  public void deleteSeries(Long seriesId) throws SeriesNotFoundException {
+    meetingSeriesRepository.delete(findSeriesById(seriesId));
   }
 
   /** Get all types available */
   @Override
   public Iterable<MeetingType> getType() {
-    return Arrays.asList(MeetingType.values());
+    return TYPES;
   }
 
   /** Get all priorities available */
   @Override
   public Iterable<PriorityType> getPriority() {
-    return Arrays.asList(PriorityType.values());
+    return PRIORITIES;
   }
 
+  /**
+   * Find one page of meetings in given order. Pages are keyed on the values of the sort keys, and
+   * every allowed sort is served by an index, so fetching a page costs the same no matter how deep
+   * the client pages.
+   *
+   * @param sort Order of meetings.
+   * @param cursor Token returned with the previous page, null for the first page.
+   * @param pageSize Number of meetings per page, configured default when null.
+   * @exception CursorException Given cursor was not issued for this sort
+   */
   @Override
-  public Iterable<Meeting> getSorted(String orderBy, Direction direction) {
+  @Transactional(readOnly = true)
+  public MeetingPage getSorted(MeetingSort sort, String cursor, Integer pageSize) {
+    return findMeetings(MeetingFilter.ALL, sort, cursor, pageSize);
+  }
 
-    if (direction.equals(Sort.Direction.ASC)) {
-      return meetingRepository.findAll(Sort.by(Sort.Direction.ASC, orderBy));
+  /**
+   * Find one page of meetings passing given filter, in given order. Paged the same way as {@link
+   * #getSorted}, the filter is evaluated by the database together with the page position.
+   *
+   * @param filter Conditions meetings have to meet.
+   * @param sort Order of meetings.
+   * @param cursor Token returned with the previous page, null for the first page.
+   * @param pageSize Number of meetings per page, configured default when null.
+   * @exception CursorException Given cursor was not issued for this sort
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public MeetingPage findMeetings(
+      MeetingFilter filter, MeetingSort sort, String cursor, Integer pageSize) {
+    int size = pageSize == null ? defaultPageSize : Math.max(1, Math.min(pageSize, maxPageSize));
+    Specification<Meeting> specification = filter.toSpecification();
+    if (cursor != null) {
+      Specification<Meeting> after = MeetingCursor.decode(cursor, sort).toSpecification();
+      specification = specification == null ? after : specification.and(after);
     }
 
-    if (direction.equals(Direction.DESC)) {
-      return meetingRepository.findAll(Sort.by(Direction.DESC, orderBy));
+    // Fetch one extra row to find out whether another page follows
+    List<MeetingView> meetings =
+        meetingRepository.findSlice(specification, sort.toSort(), size + 1);
+
+    if (meetings.size() <= size) {
+      return new MeetingPage(meetings, null);
     }
 
-    throw new DirectionException();
+    List<MeetingView> page = new ArrayList<>(meetings.subList(0, size));
+    return new MeetingPage(page, MeetingCursor.of(page.get(size - 1), sort).encode());
   }
 
   /**
-   * Find a date between two given dates with the specified values.
+   * Find meetings starting between two given dates. Both bounds are exclusive and interpreted as
+   * UTC. Answered from {@link MeetingIndex} when it is enabled. Occurrences of meeting series
+   * starting between the dates are listed with the meetings.
    *
    * @param startDate Date from which the search should be smaller (2018-01-01T11:30:30).
    * @param endDate Date from which the search should be greater (2019-02-02T12:30:30).
    */
   @Override
-  public Iterable<Meeting> findMeetingByDateBetween(
+  @Transactional(readOnly = true)
+  public List<MeetingView> findMeetingByDateBetween(
       LocalDateTime startDate, LocalDateTime endDate) {
-    List<Meeting> meetingList = Lists.newArrayList(findAll());
-    List<Meeting> datesBetween = Lists.newArrayList();
+    ZonedDateTime start = startDate.atZone(ZoneOffset.UTC);
+    ZonedDateTime end = endDate.atZone(ZoneOffset.UTC);
 
-    // Check all meetings and if date is between start and end date
-    for (Meeting meeting : meetingList) {
-      if (meeting.getMeetingDate().toLocalDateTime().isAfter(startDate)
-          && meeting.getMeetingDate().toLocalDateTime().isBefore(endDate)) {
+    List<MeetingView> meetings =
+        meetingIndex.isReady()
+            ? meetingIndex
+                .findBetween(start.toInstant(), end.toInstant())
+                .stream()
+                .map(MeetingView::of)
+                .collect(Collectors.toList())
+            : meetingRepository.findByMeetingDateBetween(start, end);
 
-        datesBetween.add(meeting);
-      }
+    // Occurrences overlapping the lower bound may start before it
+    return Lists.newArrayList(
+        Iterators.filter(
+            withOccurrences(meetings.iterator(), start.toInstant(), end.toInstant()),
+            meeting -> meeting.getMeetingDate().isAfter(start)));
+  }
+
+  /**
+   * Merge occurrences of series overlapping given time span into given meetings. Only series
+   * overlapping the span are read, and their occurrences are expanded while merging, so a long
+   * series costs no more than the occurrences in the span.
+   *
+   * @param meetings Meetings ordered by date.
+   * @param start Inclusive start of the time span.
+   * @param end Exclusive end of the time span.
+   * @return Meetings and occurrences ordered by date, given meetings when no series overlaps.
+   */
+  private Iterator<MeetingView> withOccurrences(
+      Iterator<MeetingView> meetings, Instant start, Instant end) {
+    List<MeetingSeries> series =
+        meetingSeriesRepository.findOverlapping(
+            start.atZone(ZoneOffset.UTC), end.atZone(ZoneOffset.UTC));
+    if (series.isEmpty()) {
+      return meetings;
+    }
+
+    List<Iterator<MeetingView>> sources = new ArrayList<>(series.size() + 1);
+    sources.add(meetings);
+    for (MeetingSeries each : series) {
+      sources.add(MeetingOccurrences.overlapping(each, start, end));
     }
-    return datesBetween;
+    return Iterators.mergeSorted(sources, BY_DATE);
   }
 }
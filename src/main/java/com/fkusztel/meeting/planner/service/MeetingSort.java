@@ -0,0 +1,162 @@
+package com.fkusztel.meeting.planner.service;
+
+import com.fkusztel.meeting.planner.exception.DirectionException;
+import com.fkusztel.meeting.planner.exception.SortException;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Sort.Order;
+
+/**
+ * Order of meetings requested by a client, for example {@code priorityType:desc,meetingDate}.
+ * Only {@link Attribute attributes} on the whitelist may be used, and only in combinations that a
+ * database index of {@link com.fkusztel.meeting.planner.entity.Meeting} serves in index order,
+ * scanned forwards or backwards. Orders not ending with a unique attribute are completed with the
+ * meeting date, so every order is total and can be paged with a {@link MeetingCursor}.
+ *
+ * @author Filip.Kusztelak
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class MeetingSort {
+
+  /** Meeting attributes clients may sort by. */
+  @Getter
+  @AllArgsConstructor
+  public enum Attribute {
+    ID("id", true),
+    MEETING_TYPE("meetingType", false),
+    PRIORITY_TYPE("priorityType", false),
+    MEETING_DATE("meetingDate", true);
+
+    private final String property;
+
+    /** No two meetings share the value, so no further key is needed to break ties. */
+    private final boolean unique;
+
+    /** @exception SortException Given property is not on the whitelist */
+    public static Attribute of(String property) {
+      for (Attribute attribute : values()) {
+        if (attribute.property.equals(property)) {
+          return attribute;
+        }
+      }
+      throw new SortException();
+    }
+  }
+
+  /** Keys of the indexes on the meeting table that can serve a sort, in index order. */
+  private static final Set<List<Order>> INDEXED =
+      ImmutableSet.of(
+          ImmutableList.of(Order.asc("id")),
+          ImmutableList.of(Order.asc("meetingDate")),
+          ImmutableList.of(Order.asc("meetingType"), Order.asc("meetingDate")),
+          ImmutableList.of(Order.asc("priorityType"), Order.asc("meetingDate")),
+          ImmutableList.of(Order.desc("priorityType"), Order.asc("meetingDate")));
+
+  private static final String ORDER_SEPARATOR = ",";
+
+  private static final String DIRECTION_SEPARATOR = ":";
+
+  public static final MeetingSort BY_DATE = of(Attribute.MEETING_DATE.property, Direction.ASC);
+
+  private final List<Order> orders;
+
+  /**
+   * Sort by a single attribute.
+   *
+   * @exception SortException Attribute is not on the whitelist
+   */
+  public static MeetingSort of(String attribute, Direction direction) {
+    return of(ImmutableList.of(new Order(direction, Attribute.of(attribute).getProperty())));
+  }
+
+  /**
+   * Parse comma separated sort keys, each an attribute optionally followed by {@code :asc} or
+   * {@code :desc}.
+   *
+   * @exception SortException Keys are empty, repeated or not served by an index
+   * @exception DirectionException Direction is neither asc nor desc
+   */
+  public static MeetingSort parse(String value) {
+    List<Order> orders = new ArrayList<>();
+    for (String key : Splitter.on(ORDER_SEPARATOR).trimResults().split(value)) {
+      List<String> parts = Splitter.on(DIRECTION_SEPARATOR).limit(2).splitToList(key);
+      Direction direction = parts.size() > 1 ? direction(parts.get(1)) : Direction.ASC;
+      orders.add(new Order(direction, Attribute.of(parts.get(0)).getProperty()));
+    }
+    return of(orders);
+  }
+
+  /**
+   * Sort by given keys, the first key being the most significant.
+   *
+   * @exception SortException Keys are empty, repeated or not served by an index
+   */
+  public static MeetingSort of(List<Order> keys) {
+    Set<Attribute> used = EnumSet.noneOf(Attribute.class);
+    List<Order> orders = new ArrayList<>();
+
+    for (Order key : keys) {
+      Attribute attribute = Attribute.of(key.getProperty());
+      if (!used.add(attribute)) {
+        throw new SortException();
+      }
+      orders.add(key);
+      if (attribute.isUnique()) {
+        // Any further key would never be compared
+        break;
+      }
+    }
+    if (orders.isEmpty()) {
+      throw new SortException();
+    }
+    if (!Attribute.of(orders.get(orders.size() - 1).getProperty()).isUnique()) {
+      orders.add(new Order(orders.get(0).getDirection(), Attribute.MEETING_DATE.property));
+    }
+
+    if (!INDEXED.contains(orders) && !INDEXED.contains(reverse(orders))) {
+      throw new SortException();
+    }
+    return new MeetingSort(ImmutableList.copyOf(orders));
+  }
+
+  private static Direction direction(String value) {
+    try {
+      return Direction.fromString(value);
+    } catch (IllegalArgumentException e) {
+      throw new DirectionException();
+    }
+  }
+
+  private static List<Order> reverse(List<Order> orders) {
+    return Lists.transform(
+        orders, order -> order.with(order.isAscending() ? Direction.DESC : Direction.ASC));
+  }
+
+  public Sort toSort() {
+    return Sort.by(orders);
+  }
+
+  /** Canonical form, parsed back into an equal sort. */
+  String format() {
+    return orders.stream()
+        .map(order -> order.getProperty() + DIRECTION_SEPARATOR + order.getDirection().name())
+        .collect(Collectors.joining(ORDER_SEPARATOR));
+  }
+}
@@ -0,0 +1,44 @@
+package com.fkusztel.meeting.planner.service;
+
+import com.fkusztel.meeting.planner.entity.MeetingType;
+import com.fkusztel.meeting.planner.entity.PriorityType;
+import java.time.ZoneId;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Values of a single meeting passed to bulk operations.
+ *
+ * @author Filip.Kusztelak
+ */
+@Builder(toBuilder = true)
+@Setter
+@Getter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class MeetingSpec {
+
+  /** Id of the meeting, required for updates only. */
+  private Long meetingId;
+
+  private MeetingType meetingType;
+
+  private PriorityType priorityType;
+
+  /** Starting date of meeting (2018-02-03T12:30:30). */
+  private String date;
+
+  private ZoneId timeZone;
+
+  private Long durationMinutes;
+
+  /** Expected version of the meeting for updates, any version when null. */
+  private Long version;
+}
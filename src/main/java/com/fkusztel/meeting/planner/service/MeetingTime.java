@@ -0,0 +1,112 @@
+package com.fkusztel.meeting.planner.service;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneRules;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Start and end of a meeting taken from request values. Date and time zone are parsed and
+ * validated once, when the request is bound, and kept as UTC instants afterwards.
+ *
+ * @author Filip.Kusztelak
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class MeetingTime {
+
+  private final Instant start;
+
+  /** Exclusive end of the meeting. */
+  private final Instant end;
+
+  private MeetingTime(Instant start, Instant end) {
+    this.start = start;
+    this.end = end;
+  }
+
+  /**
+   * Resolve meeting time from request values.
+   *
+   * @param date Starting date of meeting (2018-02-03T12:30:30).
+   * @param timeZone Time zone the date is given in.
+   * @param duration Duration of meeting.
+   * @exception IllegalArgumentException Duration is not positive
+   * @exception DateTimeException Date could not be parsed
+   */
+  public static MeetingTime of(String date, ZoneId timeZone, Duration duration) {
+    if (duration.isNegative() || duration.isZero()) {
+      throw new IllegalArgumentException("Duration of meeting must be positive");
+    }
+    Instant start = toInstant(parseLocal(date), timeZone);
+    return new MeetingTime(start, start.plus(duration));
+  }
+
+  public ZonedDateTime getStartDate() {
+    return start.atZone(ZoneOffset.UTC);
+  }
+
+  public ZonedDateTime getEndDate() {
+    return end.atZone(ZoneOffset.UTC);
+  }
+
+  /**
+   * Parse ISO local date time. The common yyyy-MM-ddTHH:mm:ss form is read directly, any other
+   * form goes through {@link LocalDateTime#parse(CharSequence)}.
+   */
+  static LocalDateTime parseLocal(String date) {
+    if (date.length() != 19
+        || date.charAt(4) != '-'
+        || date.charAt(7) != '-'
+        || date.charAt(10) != 'T'
+        || date.charAt(13) != ':'
+        || date.charAt(16) != ':') {
+      return LocalDateTime.parse(date);
+    }
+    int year = digits(date, 0, 4);
+    int month = digits(date, 5, 7);
+    int day = digits(date, 8, 10);
+    int hour = digits(date, 11, 13);
+    int minute = digits(date, 14, 16);
+    int second = digits(date, 17, 19);
+    if (year < 0 || month < 0 || day < 0 || hour < 0 || minute < 0 || second < 0) {
+      return LocalDateTime.parse(date);
+    }
+    return LocalDateTime.of(year, month, day, hour, minute, second);
+  }
+
+  /** Decimal value of given characters, -1 when any of them is not a digit. */
+  private static int digits(String text, int from, int to) {
+    int value = 0;
+    for (int i = from; i < to; i++) {
+      int digit = text.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      value = value * 10 + digit;
+    }
+    return value;
+  }
+
+  /**
+   * Same instant as {@code ZonedDateTime.ofLocal(local, timeZone, ZoneOffset.UTC)}, without
+   * creating the zoned date time. A local time in a gap is moved forward, in an overlap UTC is
+   * preferred when valid and the earlier offset is used otherwise.
+   */
+  static Instant toInstant(LocalDateTime local, ZoneId timeZone) {
+    ZoneRules rules = timeZone.getRules();
+    ZoneOffset offset = rules.getOffset(local);
+    if (!offset.equals(ZoneOffset.UTC) && rules.isValidOffset(local, ZoneOffset.UTC)) {
+      offset = ZoneOffset.UTC;
+    }
+    return Instant.ofEpochSecond(local.toEpochSecond(offset), local.getNano());
+  }
+}
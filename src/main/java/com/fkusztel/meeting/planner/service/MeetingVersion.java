@@ -0,0 +1,62 @@
+package com.fkusztel.meeting.planner.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+
+/**
+ * Version of the meeting table, bumped by every write through {@link MeetingService}. Listings are
+ * tagged with it, so clients polling an unchanged table are answered without querying the
+ * database. Versions are prefixed with the startup time, so a restarted instance never reissues a
+ * version of earlier data. Only writes made by this instance are counted.
+ *
+ * <p>When reads are served by replicas, a version is only settled once its writes had time to
+ * reach them. Until then a listing may not hold the latest writes yet, and must not be tagged.
+ *
+ * @author Filip.Kusztelak
+ */
+@Component
+public class MeetingVersion {
+
+  private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+  private final AtomicLong counter = new AtomicLong();
+
+  /** Time writes take to reach the replicas, zero without replicas. */
+  private volatile long replicationLagNanos;
+
+  private volatile long lastBump = System.nanoTime();
+
+  /** Current version, changed by every write. */
+  public String get() {
+    return epoch + '.' + counter.get();
+  }
+
+  /**
+   * Bump the version. When called inside a transaction it is bumped again after completion, so a
+   * listing read before the commit is never tagged with a version following the write.
+   */
+  void bump() {
+    increment();
+    Transactions.afterCompletion(this::increment);
+  }
+
+  /**
+   * Current version if all listings, including those read from replicas, hold it, null otherwise.
+   * The version is read before the time of the last write, so a write in between is never taken
+   * for settled.
+   */
+  public String getSettled() {
+    String version = get();
+    return System.nanoTime() - lastBump >= replicationLagNanos ? version : null;
+  }
+
+  public void setReplicationLag(Duration replicationLag) {
+    replicationLagNanos = replicationLag.toNanos();
+  }
+
+  private void increment() {
+    lastBump = System.nanoTime();
+    counter.incrementAndGet();
+  }
+}
@@ -0,0 +1,46 @@
+package com.fkusztel.meeting.planner.service;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers actions to the end of the current transaction. Outside of a transaction they run
+ * immediately.
+ *
+ * @author Filip.Kusztelak
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+final class Transactions {
+
+  /** Run given action once the current transaction commits, never after a rollback. */
+  static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronizationAdapter() {
+          @Override
+          public void afterCommit() {
+            action.run();
+          }
+        });
+  }
+
+  /** Run given action once the current transaction completes, after the commit callbacks. */
+  static void afterCompletion(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronizationAdapter() {
+          @Override
+          public void afterCompletion(int status) {
+            action.run();
+          }
+        });
+  }
+}
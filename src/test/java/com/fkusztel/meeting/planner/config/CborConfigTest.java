@@ -0,0 +1,131 @@
+package com.fkusztel.meeting.planner.config;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fkusztel.meeting.planner.controller.ChangeFeedBroadcaster;
+import com.fkusztel.meeting.planner.controller.MeetingController;
+import com.fkusztel.meeting.planner.controller.RequestExecutor;
+import com.fkusztel.meeting.planner.entity.Meeting;
+import com.fkusztel.meeting.planner.entity.MeetingType;
+import com.fkusztel.meeting.planner.entity.PriorityType;
+import com.fkusztel.meeting.planner.service.MeetingCache;
+import com.fkusztel.meeting.planner.service.MeetingImporter;
+import com.fkusztel.meeting.planner.service.MeetingService;
+import com.fkusztel.meeting.planner.service.MeetingVersion;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/** @author Filip.Kusztelak */
+@RunWith(SpringRunner.class)
+@WebMvcTest(MeetingController.class)
+@Import({CborConfig.class, RequestExecutor.class})
+public class CborConfigTest {
+
+  private static final MediaType CBOR = MediaType.valueOf("application/cbor");
+
+  @Autowired MockMvc mockMvc;
+
+  @MockBean MeetingService meetingService;
+
+  @MockBean MeetingCache meetingCache;
+
+  @MockBean MeetingVersion meetingVersion;
+
+  @MockBean ChangeFeedBroadcaster changeFeedBroadcaster;
+
+  @MockBean MeetingImporter meetingImporter;
+
+  private byte[] getAllMeetings(MediaType mediaType) throws Exception {
+    MvcResult result = mockMvc.perform(get("/meeting/all").accept(mediaType)).andReturn();
+    return mockMvc
+        .perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andReturn()
+        .getResponse()
+        .getContentAsByteArray();
+  }
+
+  @Test
+  public void getAllMeetings_cborWithEpochMillisAndOrdinals() throws Exception {
+    Meeting berlin = TestObjectFactory.Meetings.getMeetingBerlin();
+    Mockito.when(meetingService.findAll())
+        .thenReturn(TestObjectFactory.Meetings.views(Collections.singletonList(berlin)));
+
+    MvcResult result = mockMvc.perform(get("/meeting/all").accept(CBOR)).andReturn();
+    byte[] body =
+        mockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(CBOR))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+    JsonNode meeting = new ObjectMapper(new CBORFactory()).readTree(body).get(0);
+    Assert.assertEquals(
+        berlin.getMeetingDate().toInstant().toEpochMilli(), meeting.get("meetingDate").asLong());
+    Assert.assertTrue(meeting.get("meetingDate").isIntegralNumber());
+    Assert.assertEquals(berlin.getMeetingType().ordinal(), meeting.get("meetingType").asInt());
+    Assert.assertEquals(berlin.getPriorityType().ordinal(), meeting.get("priorityType").asInt());
+  }
+
+  @Test
+  public void getAllMeetings_jsonByDefault() throws Exception {
+    Meeting berlin = TestObjectFactory.Meetings.getMeetingBerlin();
+    Mockito.when(meetingService.findAll())
+        .thenReturn(TestObjectFactory.Meetings.views(Collections.singletonList(berlin)));
+
+    MvcResult result = mockMvc.perform(get("/meeting/all").accept(MediaType.ALL)).andReturn();
+    mockMvc
+        .perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$[0].meetingType").value(berlin.getMeetingType().name()));
+  }
+
+  @Test
+  public void getAllMeetings_cborSmallerThanJson() throws Exception {
+    ZonedDateTime start = ZonedDateTime.parse("2019-01-01T00:00:00Z");
+    List<Meeting> meetings = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      meetings.add(
+          Meeting.builder()
+              .id((long) i)
+              .meetingType(MeetingType.values()[i % MeetingType.values().length])
+              .priorityType(PriorityType.values()[i % PriorityType.values().length])
+              .meetingDate(start.plusMinutes(70L * i))
+              .meetingEndDate(start.plusMinutes(70L * i + 60))
+              .version(0L)
+              .build());
+    }
+    Mockito.when(meetingService.findAll()).thenReturn(TestObjectFactory.Meetings.views(meetings));
+
+    byte[] json = getAllMeetings(MediaType.APPLICATION_JSON);
+    byte[] cbor = getAllMeetings(CBOR);
+
+    Assert.assertTrue(
+        "CBOR " + cbor.length + " bytes, JSON " + json.length + " bytes",
+        cbor.length * 3 < json.length * 2);
+  }
+}
@@ -0,0 +1,53 @@
+package com.fkusztel.meeting.planner.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.SQLException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/** @author Filip.Kusztelak */
+public class ConnectionPoolWarmupTest {
+
+  private HikariDataSource dataSource;
+
+  private ConnectionPoolWarmup warmup;
+
+  @Before
+  public void setUp() {
+    dataSource = new HikariDataSource();
+    dataSource.setJdbcUrl("jdbc:h2:mem:warmup");
+    dataSource.setMinimumIdle(4);
+    dataSource.setMaximumPoolSize(8);
+
+    warmup = new ConnectionPoolWarmup();
+    warmup.dataSource = dataSource;
+    warmup.validationTimeoutSeconds = 1;
+  }
+
+  @After
+  public void tearDown() {
+    dataSource.close();
+  }
+
+  @Test
+  public void warmUp_minimumIdleOpenedAndReturned() throws SQLException {
+    warmup.warmUp();
+
+    Assert.assertEquals(4, dataSource.getHikariPoolMXBean().getTotalConnections());
+    Assert.assertEquals(4, dataSource.getHikariPoolMXBean().getIdleConnections());
+  }
+
+  @Test(expected = SQLException.class)
+  public void warmUp_failsWithoutDatabase() throws SQLException {
+    dataSource.close();
+    dataSource = new HikariDataSource();
+    dataSource.setJdbcUrl("jdbc:h2:mem:unreachable;INIT=RUNSCRIPT FROM 'absent.sql'");
+    dataSource.setInitializationFailTimeout(-1);
+    dataSource.setConnectionTimeout(250);
+    warmup.dataSource = dataSource;
+
+    warmup.warmUp();
+  }
+}
@@ -0,0 +1,114 @@
+package com.fkusztel.meeting.planner.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.sql.DataSource;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/** @author Filip.Kusztelak */
+public class ReplicaRoutingDataSourceTest {
+
+  private static final String SELECT = "select name from source";
+
+  private HikariDataSource primary;
+
+  private HikariDataSource replica;
+
+  private HikariDataSource otherReplica;
+
+  @Before
+  public void setUp() {
+    primary = database("primary");
+    replica = database("replica");
+    otherReplica = database("other-replica");
+  }
+
+  @After
+  public void tearDown() {
+    primary.close();
+    replica.close();
+    otherReplica.close();
+  }
+
+  @Test
+  public void getConnection_readOnlyToReplica() {
+    DataSource dataSource = routing(Collections.singletonList(replica));
+
+    Assert.assertEquals("replica", read(dataSource, true));
+    Assert.assertEquals("primary", read(dataSource, false));
+    // Outside of a transaction
+    Assert.assertEquals(
+        "primary", new JdbcTemplate(dataSource).queryForObject(SELECT, String.class));
+  }
+
+  @Test
+  public void getConnection_replicasInTurn() {
+    DataSource dataSource = routing(Arrays.asList(replica, otherReplica));
+
+    Set<String> read =
+        new HashSet<>(Arrays.asList(read(dataSource, true), read(dataSource, true)));
+
+    Assert.assertEquals(new HashSet<>(Arrays.asList("replica", "other-replica")), read);
+  }
+
+  @Test
+  public void getConnection_primaryRequired() {
+    DataSource dataSource = routing(Collections.singletonList(replica));
+
+    boolean previous = DataSourceRouting.setPrimaryRequired(true);
+    try {
+      Assert.assertEquals("primary", read(dataSource, true));
+    } finally {
+      DataSourceRouting.setPrimaryRequired(previous);
+    }
+  }
+
+  @Test
+  public void getConnection_unavailableReplicaSkipped() throws SQLException {
+    DataSource down = Mockito.mock(DataSource.class);
+    Mockito.when(down.getConnection()).thenThrow(new SQLException("Replica is down"));
+    DataSource dataSource = routing(Collections.singletonList(down));
+
+    Assert.assertEquals("primary", read(dataSource, true));
+    Assert.assertEquals("primary", read(dataSource, true));
+
+    Mockito.verify(down, Mockito.times(1)).getConnection();
+  }
+
+  private static HikariDataSource database(String name) {
+    HikariDataSource dataSource = new HikariDataSource();
+    dataSource.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    jdbcTemplate.execute("create table if not exists source (name varchar(20))");
+    jdbcTemplate.update("delete from source");
+    jdbcTemplate.update("insert into source values (?)", name);
+    return dataSource;
+  }
+
+  private DataSource routing(List<DataSource> replicas) {
+    return new LazyConnectionDataSourceProxy(
+        new ReplicaRoutingDataSource(primary, replicas, Duration.ofMinutes(1)));
+  }
+
+  private static String read(DataSource dataSource, boolean readOnly) {
+    TransactionTemplate transactionTemplate =
+        new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    transactionTemplate.setReadOnly(readOnly);
+    return transactionTemplate.execute(
+        status -> new JdbcTemplate(dataSource).queryForObject(SELECT, String.class));
+  }
+}
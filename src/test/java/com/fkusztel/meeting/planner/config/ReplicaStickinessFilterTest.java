@@ -0,0 +1,51 @@
+package com.fkusztel.meeting.planner.config;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.servlet.http.Cookie;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/** @author Filip.Kusztelak */
+public class ReplicaStickinessFilterTest {
+
+  private final ReplicaStickinessFilter filter =
+      new ReplicaStickinessFilter(Duration.ofSeconds(5));
+
+  @Test
+  public void doFilter_readsAfterWriteFromPrimary() throws Exception {
+    MockHttpServletResponse written = new MockHttpServletResponse();
+    filter.doFilter(
+        new MockHttpServletRequest("POST", "/meeting/create"), written, new MockFilterChain());
+    Cookie cookie = written.getCookie(ReplicaStickinessFilter.COOKIE_NAME);
+    Assert.assertNotNull(cookie);
+
+    MockHttpServletRequest read = new MockHttpServletRequest("GET", "/meeting/all");
+    read.setCookies(cookie);
+    Assert.assertTrue(primaryRequired(read));
+    Assert.assertFalse(DataSourceRouting.isPrimaryRequired());
+  }
+
+  @Test
+  public void doFilter_readsFromReplicaWithoutRecentWrite() throws Exception {
+    MockHttpServletRequest read = new MockHttpServletRequest("GET", "/meeting/all");
+    Assert.assertFalse(primaryRequired(read));
+
+    read.setCookies(
+        new Cookie(
+            ReplicaStickinessFilter.COOKIE_NAME, Long.toString(System.currentTimeMillis() - 1)));
+    Assert.assertFalse(primaryRequired(read));
+  }
+
+  private boolean primaryRequired(MockHttpServletRequest request) throws Exception {
+    AtomicBoolean required = new AtomicBoolean();
+    filter.doFilter(
+        request,
+        new MockHttpServletResponse(),
+        (req, res) -> required.set(DataSourceRouting.isPrimaryRequired()));
+    return required.get();
+  }
+}
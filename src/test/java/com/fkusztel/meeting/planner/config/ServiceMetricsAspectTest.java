@@ -0,0 +1,61 @@
+package com.fkusztel.meeting.planner.config;
+
+import com.fkusztel.meeting.planner.exception.MeetingNotFoundException;
+import com.fkusztel.meeting.planner.service.MeetingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+/** @author Filip.Kusztelak */
+public class ServiceMetricsAspectTest {
+
+  private SimpleMeterRegistry registry;
+
+  private MeetingService target;
+
+  private MeetingService meetingService;
+
+  @Before
+  public void setUp() {
+    registry = new SimpleMeterRegistry();
+    ServiceMetricsAspect aspect = new ServiceMetricsAspect();
+    aspect.meterRegistry = registry;
+
+    target = Mockito.mock(MeetingService.class);
+    AspectJProxyFactory factory = new AspectJProxyFactory(target);
+    factory.addAspect(aspect);
+    meetingService = factory.getProxy();
+  }
+
+  @Test
+  public void time_taggedByMethodAndException() throws Exception {
+    Mockito.when(target.findMeetingById(1L)).thenThrow(new MeetingNotFoundException());
+
+    meetingService.getType();
+    meetingService.getType();
+    try {
+      meetingService.findMeetingById(1L);
+      Assert.fail();
+    } catch (MeetingNotFoundException expected) {
+      // Timed as well
+    }
+
+    Assert.assertEquals(
+        2,
+        registry
+            .get(ServiceMetricsAspect.METRIC_NAME)
+            .tags("method", "getType", "exception", "none")
+            .timer()
+            .count());
+    Assert.assertEquals(
+        1,
+        registry
+            .get(ServiceMetricsAspect.METRIC_NAME)
+            .tags("method", "findMeetingById", "exception", "MeetingNotFoundException")
+            .timer()
+            .count());
+  }
+}
@@ -2,13 +2,16 @@ package com.fkusztel.meeting.planner.config;
 
 import com.fkusztel.meeting.planner.entity.Meeting;
 import com.fkusztel.meeting.planner.entity.MeetingType;
+import com.fkusztel.meeting.planner.entity.MeetingView;
 import com.fkusztel.meeting.planner.entity.PriorityType;
+import com.fkusztel.meeting.planner.service.MeetingSpec;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
@@ -36,12 +39,17 @@ public class TestObjectFactory {
       return Arrays.asList(getMeetingSaoPaulo(), getMeetingBerlin(), getMeetingTokyo());
     }
 
+    public static List<MeetingView> views(List<Meeting> meetings) {
+      return meetings.stream().map(MeetingView::of).collect(Collectors.toList());
+    }
+
     static Meeting getMeetingLosAngeles() {
       return Meeting.builder()
           .id(3L)
           .priorityType(PriorityType.MEDIUM)
           .meetingType(MeetingType.GROOMING)
           .meetingDate(ZonedDates.LOS_ANGELES)
+          .meetingEndDate(ZonedDates.LOS_ANGELES.plusHours(1))
           .build();
     }
 
@@ -51,6 +59,7 @@ public class TestObjectFactory {
           .priorityType(PriorityType.LOW)
           .meetingType(MeetingType.STAND_UP)
           .meetingDate(ZonedDates.SAOPAULO)
+          .meetingEndDate(ZonedDates.SAOPAULO.plusHours(1))
           .build();
     }
 
@@ -60,6 +69,7 @@ public class TestObjectFactory {
           .priorityType(PriorityType.MEDIUM)
           .meetingType(MeetingType.GROOMING)
           .meetingDate(ZonedDates.BERLIN)
+          .meetingEndDate(ZonedDates.BERLIN.plusHours(1))
           .build();
     }
 
@@ -69,6 +79,7 @@ public class TestObjectFactory {
           .priorityType(PriorityType.HIGH)
           .meetingType(MeetingType.DEMO)
           .meetingDate(ZonedDates.TOKYO)
+          .meetingEndDate(ZonedDates.TOKYO.plusHours(1))
           .build();
     }
 
@@ -78,6 +89,21 @@ public class TestObjectFactory {
           .priorityType(PriorityType.HIGH)
           .meetingType(MeetingType.DEMO)
           .meetingDate(ZonedDates.PARIS)
+          .meetingEndDate(ZonedDates.PARIS.plusHours(1))
+          .build();
+    }
+  }
+
+  @NoArgsConstructor(access = AccessLevel.PRIVATE)
+  public static class Specs {
+
+    public static MeetingSpec getSpecBerlin() {
+      return MeetingSpec.builder()
+          .priorityType(PriorityType.MEDIUM)
+          .meetingType(MeetingType.GROOMING)
+          .date(Dates.DATE_BERLIN)
+          .timeZone(TimeZones.TIME_ZONE_BERLIN)
+          .durationMinutes(60L)
           .build();
     }
   }
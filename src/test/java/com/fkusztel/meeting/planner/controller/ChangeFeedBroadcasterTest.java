@@ -0,0 +1,214 @@
+package com.fkusztel.meeting.planner.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import com.fkusztel.meeting.planner.service.MeetingCache;
+import com.fkusztel.meeting.planner.service.MeetingChange;
+import com.fkusztel.meeting.planner.service.MeetingChange.Action;
+import com.fkusztel.meeting.planner.service.MeetingChangeFeed;
+import com.fkusztel.meeting.planner.service.MeetingImporter;
+import com.fkusztel.meeting.planner.service.MeetingService;
+import com.fkusztel.meeting.planner.service.MeetingVersion;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.MockReset;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/** @author Filip.Kusztelak */
+@RunWith(SpringRunner.class)
+@WebMvcTest(MeetingController.class)
+@Import({
+  RequestExecutor.class,
+  ChangeFeedBroadcaster.class,
+  ChangeFeedBroadcasterTest.StalledResponseFilter.class
+})
+@TestPropertySource(
+    properties = {"meeting.feed.sender-threads=1", "meeting.feed.send-timeout-millis=200"})
+public class ChangeFeedBroadcasterTest {
+
+  @Autowired MockMvc mockMvc;
+
+  @Autowired StalledResponseFilter stalledResponseFilter;
+
+  @MockBean MeetingService meetingService;
+
+  @MockBean MeetingCache meetingCache;
+
+  @MockBean MeetingVersion meetingVersion;
+
+  @MockBean MeetingImporter meetingImporter;
+
+  /** Not reset, keeps the listener registered at startup. */
+  @MockBean(reset = MockReset.NONE)
+  MeetingChangeFeed meetingChangeFeed;
+
+  /** Deletions of meetings numbered as the changes, the first two no longer kept. */
+  private static List<MeetingChange> changes(long sequence, long latest) {
+    if (sequence < 2) {
+      return null;
+    }
+    return LongStream.rangeClosed(sequence + 1, latest)
+        .mapToObj(next -> new MeetingChange(next, Action.DELETED, next, null))
+        .collect(Collectors.toList());
+  }
+
+  /** Wait for the stream to contain given text, events are sent on the sender threads. */
+  private static String awaitContent(MvcResult result, String expected) throws Exception {
+    long deadline = System.currentTimeMillis() + 5_000;
+    String content = result.getResponse().getContentAsString();
+    while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+      content = result.getResponse().getContentAsString();
+    }
+    Assert.assertTrue(content, content.contains(expected));
+    return content;
+  }
+
+  @Before
+  public void setUp() {
+    Mockito.when(meetingChangeFeed.getEpoch()).thenReturn("e");
+    Mockito.when(meetingChangeFeed.getLast()).thenReturn(3L);
+    Mockito.when(meetingChangeFeed.since(ArgumentMatchers.anyLong()))
+        .thenAnswer(invocation -> changes(invocation.getArgument(0), 3));
+  }
+
+  @Test
+  public void streamChanges_resumesAfterLastEventId() throws Exception {
+    MvcResult result =
+        mockMvc
+            .perform(get("/meeting/changes").header("Last-Event-ID", "e.2"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    String content = awaitContent(result, "\"meetingId\":3}");
+    Assert.assertTrue(content, content.startsWith("event:meeting\nid:e.3\ndata:{\"sequence\":3"));
+  }
+
+  @Test
+  public void streamChanges_resetWhenChangesMissed() throws Exception {
+    MvcResult gap =
+        mockMvc.perform(get("/meeting/changes").header("Last-Event-ID", "e.1")).andReturn();
+    MvcResult otherEpoch =
+        mockMvc.perform(get("/meeting/changes").header("Last-Event-ID", "f.3")).andReturn();
+
+    String reset = "event:reset\nid:e.3\ndata:e.3";
+    Assert.assertFalse(awaitContent(gap, reset).contains("event:meeting"));
+    Assert.assertFalse(awaitContent(otherEpoch, reset).contains("event:meeting"));
+  }
+
+  @Test
+  public void streamChanges_newSubscriberGetsLiveChanges() throws Exception {
+    ArgumentCaptor<Runnable> listener = ArgumentCaptor.forClass(Runnable.class);
+    Mockito.verify(meetingChangeFeed).addListener(listener.capture());
+
+    MvcResult result = mockMvc.perform(get("/meeting/changes")).andReturn();
+    awaitContent(result, "event:subscribed\nid:e.3\ndata:e.3");
+
+    Mockito.when(meetingChangeFeed.getLast()).thenReturn(4L);
+    Mockito.when(meetingChangeFeed.since(ArgumentMatchers.anyLong()))
+        .thenAnswer(invocation -> changes(invocation.getArgument(0), 4));
+    listener.getValue().run();
+
+    String content = awaitContent(result, "id:e.4\ndata:{\"sequence\":4");
+    Assert.assertFalse(content, content.contains("id:e.3\ndata:{"));
+  }
+
+  @Test
+  public void streamChanges_stalledSubscriberExpired() throws Exception {
+    ArgumentCaptor<Runnable> listener = ArgumentCaptor.forClass(Runnable.class);
+    Mockito.verify(meetingChangeFeed).addListener(listener.capture());
+
+    MvcResult stalled =
+        mockMvc.perform(get("/meeting/changes").header("Last-Event-ID", "e.3")).andReturn();
+    Mockito.when(meetingChangeFeed.getLast()).thenReturn(4L);
+    Mockito.when(meetingChangeFeed.since(ArgumentMatchers.anyLong()))
+        .thenAnswer(invocation -> changes(invocation.getArgument(0), 4));
+    stalledResponseFilter.stall(stalled);
+    listener.getValue().run();
+    Assert.assertTrue(stalledResponseFilter.stalled.await(5, TimeUnit.SECONDS));
+
+    // The only sender thread is blocked by the stalled subscriber
+    MvcResult result = mockMvc.perform(get("/meeting/changes")).andReturn();
+    awaitContent(result, "event:subscribed\nid:e.4\ndata:e.4");
+
+    stalledResponseFilter.released.countDown();
+    awaitContent(stalled, "id:e.4\ndata:{\"sequence\":4");
+    // Completed once the send returned
+    Assert.assertNull(stalled.getAsyncResult(5_000));
+  }
+
+  /** Blocks writes of sender threads to the stalled response until released. */
+  static class StalledResponseFilter extends OncePerRequestFilter {
+
+    final CountDownLatch stalled = new CountDownLatch(1);
+
+    final CountDownLatch released = new CountDownLatch(1);
+
+    private volatile HttpServletRequest stalledRequest;
+
+    void stall(MvcResult result) {
+      stalledRequest = result.getRequest();
+    }
+
+    @Override
+    protected void doFilterInternal(
+        HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws IOException, ServletException {
+      chain.doFilter(
+          request,
+          new HttpServletResponseWrapper(response) {
+            @Override
+            public ServletOutputStream getOutputStream() throws IOException {
+              ServletOutputStream out = response.getOutputStream();
+              return new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                  if (request == stalledRequest
+                      && Thread.currentThread().getName().startsWith("meeting-feed")) {
+                    stalled.countDown();
+                    Uninterruptibles.awaitUninterruptibly(released);
+                  }
+                  out.write(b);
+                }
+
+                @Override
+                public boolean isReady() {
+                  return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {}
+              };
+            }
+          });
+    }
+  }
+}
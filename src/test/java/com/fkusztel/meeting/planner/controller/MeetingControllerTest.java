@@ -0,0 +1,150 @@
+package com.fkusztel.meeting.planner.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fkusztel.meeting.planner.config.TestObjectFactory;
+import com.fkusztel.meeting.planner.exception.MeetingNotFoundException;
+import com.fkusztel.meeting.planner.service.MeetingCache;
+import com.fkusztel.meeting.planner.service.MeetingImporter;
+import com.fkusztel.meeting.planner.service.MeetingService;
+import com.fkusztel.meeting.planner.service.MeetingVersion;
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/** @author Filip.Kusztelak */
+@RunWith(SpringRunner.class)
+@WebMvcTest(MeetingController.class)
+@Import({RequestExecutor.class, CompletedFutureReturnValueHandler.class})
+public class MeetingControllerTest {
+
+  @Autowired MockMvc mockMvc;
+
+  @MockBean MeetingService meetingService;
+
+  @MockBean MeetingCache meetingCache;
+
+  @MockBean MeetingVersion meetingVersion;
+
+  @MockBean ChangeFeedBroadcaster changeFeedBroadcaster;
+
+  @MockBean MeetingImporter meetingImporter;
+
+  @Before
+  public void setUp() {
+    Mockito.when(meetingVersion.getSettled()).thenReturn("v.1");
+    Mockito.when(meetingService.findAll())
+        .thenReturn(TestObjectFactory.Meetings.views(TestObjectFactory.Meetings.getMeetingList()));
+  }
+
+  @Test
+  public void getAllMeetings_notModifiedWithoutQuerying() throws Exception {
+    String eTag =
+        mockMvc
+            .perform(get("/meeting/all"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    mockMvc
+        .perform(get("/meeting/all").header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+    Mockito.verify(meetingService, Mockito.times(1)).findAll();
+  }
+
+  @Test
+  public void getAllMeetings_modifiedAfterWrite() throws Exception {
+    String eTag =
+        mockMvc.perform(get("/meeting/all")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    Mockito.when(meetingVersion.getSettled()).thenReturn("v.3");
+
+    mockMvc
+        .perform(get("/meeting/all").header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  public void getAllMeetings_untaggedUntilSettled() throws Exception {
+    Mockito.when(meetingVersion.getSettled()).thenReturn(null);
+
+    mockMvc
+        .perform(get("/meeting/all").header(HttpHeaders.IF_NONE_MATCH, "\"v.1-json\""))
+        .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+
+    Mockito.verify(meetingService, Mockito.times(1)).findAll();
+  }
+
+  @Test
+  public void getAllMeetings_tagPerRepresentation() throws Exception {
+    String json =
+        mockMvc.perform(get("/meeting/all")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    String cbor =
+        mockMvc
+            .perform(get("/meeting/all").header(HttpHeaders.ACCEPT, "application/cbor"))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+    String gzip =
+        mockMvc
+            .perform(get("/meeting/all").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    Assert.assertEquals(3, Arrays.asList(json, cbor, gzip).stream().distinct().count());
+  }
+
+  @Test
+  public void readMeetingById_blockingWithoutAsyncDispatch() throws Exception {
+    Mockito.when(meetingService.findMeetingById(7L))
+        .thenReturn(TestObjectFactory.Meetings.getMeetingList().get(0));
+
+    MvcResult result =
+        mockMvc
+            .perform(get("/meeting/read").param("meetingId", "7"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.meetingType").exists())
+            .andReturn();
+
+    Assert.assertFalse(result.getRequest().isAsyncStarted());
+  }
+
+  @Test
+  public void readMeetingById_notFound() throws Exception {
+    Mockito.when(meetingService.findMeetingById(7L)).thenThrow(new MeetingNotFoundException());
+
+    mockMvc.perform(get("/meeting/read").param("meetingId", "7")).andExpect(status().isNotFound());
+  }
+
+  @Test
+  public void getMeetingTypes_notModified() throws Exception {
+    String eTag =
+        mockMvc
+            .perform(get("/meeting/types"))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    mockMvc
+        .perform(get("/meeting/types").header(HttpHeaders.IF_NONE_MATCH, eTag))
+        .andExpect(status().isNotModified());
+    Mockito.verify(meetingService, Mockito.times(1)).getType();
+  }
+}
@@ -0,0 +1,105 @@
+package com.fkusztel.meeting.planner.controller;
+
+import com.fkusztel.meeting.planner.entity.PriorityType;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Exports more meetings than fit into the heap of the test JVM through {@code /meeting/export}.
+ * Runs in the exportHeapTest task, whose heap is capped, so an export holding its meetings or its
+ * response in memory fails with an OutOfMemoryError. Meetings are kept in a file database, which
+ * holds only a small cache of them in the heap.
+ *
+ * @author Filip.Kusztelak
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {
+      "spring.datasource.url="
+          + "jdbc:h2:file:${java.io.tmpdir}/meeting-export-heap-test;CACHE_SIZE=8192",
+      "spring.datasource.username=sa",
+      "spring.datasource.password=",
+      "meeting.index.enabled=false",
+      "meeting.audit.file=${java.io.tmpdir}/meeting-export-heap-test.log"
+    })
+public class MeetingExportHeapTest {
+
+  private static final int MEETINGS = 1_200_000;
+
+  private static final int BATCH = 10_000;
+
+  private static final Instant START = Instant.parse("2018-01-01T00:00:00Z");
+
+  @LocalServerPort int port;
+
+  @Autowired JdbcTemplate jdbcTemplate;
+
+  @After
+  public void tearDown() {
+    // Dropping the meetings would leave the space they took in the file
+    jdbcTemplate.execute("drop all objects delete files");
+  }
+
+  @Test
+  public void exportMeetings_moreThanFitsIntoHeap() throws Exception {
+    for (int from = 0; from < MEETINGS; from += BATCH) {
+      int first = from;
+      jdbcTemplate.batchUpdate(
+          "insert into meeting (meeting_id, meeting_type, priority_type, meeting_date,"
+              + " meeting_end_date, version) values (?, 'DEMO', ?, ?, ?, 0)",
+          new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+              Instant date = START.plusSeconds(60L * (first + i));
+              ps.setLong(1, first + i + 1);
+              ps.setInt(2, PriorityType.LOW.ordinal());
+              ps.setTimestamp(3, Timestamp.from(date));
+              ps.setTimestamp(4, Timestamp.from(date.plusSeconds(30)));
+            }
+
+            @Override
+            public int getBatchSize() {
+              return Math.min(BATCH, MEETINGS - first);
+            }
+          });
+    }
+
+    URL export = new URL("http://localhost:" + port + "/meeting/export");
+    HttpURLConnection connection = (HttpURLConnection) export.openConnection();
+    long bytes = 0;
+    long lines = 0;
+    byte[] buffer = new byte[65536];
+    try (InputStream in = connection.getInputStream()) {
+      for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+        bytes += n;
+        for (int i = 0; i < n; i++) {
+          if (buffer[i] == '\n') {
+            lines++;
+          }
+        }
+      }
+    }
+
+    Assert.assertEquals(200, connection.getResponseCode());
+    Assert.assertEquals(MEETINGS, lines);
+    Assert.assertTrue(
+        "Exported " + bytes + " bytes, no more than the heap",
+        bytes > Runtime.getRuntime().maxMemory());
+  }
+}
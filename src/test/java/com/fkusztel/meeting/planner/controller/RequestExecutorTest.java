@@ -0,0 +1,77 @@
+package com.fkusztel.meeting.planner.controller;
+
+import com.fkusztel.meeting.planner.controller.RequestExecutor.Mode;
+import com.fkusztel.meeting.planner.exception.MeetingNotFoundException;
+import com.fkusztel.meeting.planner.exception.ServiceBusyException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+/** @author Filip.Kusztelak */
+public class RequestExecutorTest {
+
+  @Test
+  public void submit_blockingRunsOnCallingThread() throws Exception {
+    RequestExecutor executor = new RequestExecutor(Mode.BLOCKING, 1, 1);
+    Thread caller = Thread.currentThread();
+
+    CompletableFuture<Thread> future = executor.submit(Thread::currentThread);
+
+    Assert.assertTrue(future.isDone());
+    Assert.assertSame(caller, future.get());
+  }
+
+  @Test
+  public void submit_exceptionCompletesFuture() throws Exception {
+    RequestExecutor executor = new RequestExecutor(Mode.BLOCKING, 1, 1);
+
+    CompletableFuture<Object> future =
+        executor.submit(
+            () -> {
+              throw new MeetingNotFoundException();
+            });
+
+    try {
+      future.get();
+      Assert.fail();
+    } catch (ExecutionException e) {
+      Assert.assertTrue(e.getCause() instanceof MeetingNotFoundException);
+    }
+  }
+
+  @Test
+  public void submit_asyncRejectsBeyondQueue() throws Exception {
+    RequestExecutor executor = new RequestExecutor(Mode.ASYNC, 1, 1);
+    CountDownLatch running = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    try {
+      CompletableFuture<Boolean> first =
+          executor.submit(
+              () -> {
+                running.countDown();
+                return release.await(10, TimeUnit.SECONDS);
+              });
+      running.await(10, TimeUnit.SECONDS);
+      CompletableFuture<Boolean> queued = executor.submit(() -> true);
+      CompletableFuture<Boolean> rejected = executor.submit(() -> true);
+
+      Assert.assertTrue(rejected.isCompletedExceptionally());
+      try {
+        rejected.get();
+        Assert.fail();
+      } catch (ExecutionException e) {
+        Assert.assertTrue(e.getCause() instanceof ServiceBusyException);
+      }
+
+      release.countDown();
+      Assert.assertTrue(first.get(10, TimeUnit.SECONDS));
+      Assert.assertTrue(queued.get(10, TimeUnit.SECONDS));
+    } finally {
+      release.countDown();
+      executor.shutdown();
+    }
+  }
+}
@@ -0,0 +1,179 @@
+package com.fkusztel.meeting.planner.entity;
+
+import static com.fkusztel.meeting.planner.config.TestObjectFactory.TimeZones.TIME_ZONE_BERLIN;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.hibernate.Session;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Sort.Order;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/** @author Filip.Kusztelak */
+@RunWith(SpringRunner.class)
+@DataJpaTest
+public class MeetingRepositoryTest {
+
+  @Autowired private MeetingRepository meetingRepository;
+
+  @Autowired private TestEntityManager entityManager;
+
+  private Meeting save(LocalDateTime utcDate) {
+    return meetingRepository.save(
+        Meeting.builder()
+            .meetingType(MeetingType.DEMO)
+            .priorityType(PriorityType.LOW)
+            .meetingDate(utcDate.atZone(ZoneOffset.UTC))
+            .meetingEndDate(utcDate.plusHours(1).atZone(ZoneOffset.UTC))
+            .build());
+  }
+
+  private static List<LocalDateTime> utcDates(List<MeetingView> meetings) {
+    return meetings
+        .stream()
+        .map(m -> m.getMeetingDate().withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime())
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void findByMeetingDateBetween_boundsExclusive() {
+    LocalDateTime start = LocalDateTime.parse("2018-02-03T10:00:00");
+    LocalDateTime end = LocalDateTime.parse("2018-02-03T12:00:00");
+    save(start);
+    save(start.plusSeconds(1));
+    save(end.minusSeconds(1));
+    save(end);
+
+    List<MeetingView> result =
+        meetingRepository.findByMeetingDateBetween(
+            start.atZone(ZoneOffset.UTC), end.atZone(ZoneOffset.UTC));
+
+    Assert.assertEquals(
+        Arrays.asList(start.plusSeconds(1), end.minusSeconds(1)), utcDates(result));
+  }
+
+  @Test
+  public void findByMeetingDateBetween_comparesInstants() {
+    // 12:30 in Berlin during winter is 11:30 UTC
+    meetingRepository.save(
+        Meeting.builder()
+            .meetingType(MeetingType.GROOMING)
+            .priorityType(PriorityType.HIGH)
+            .meetingDate(
+                ZonedDateTime.of(LocalDateTime.parse("2018-02-03T12:30:00"), TIME_ZONE_BERLIN))
+            .build());
+
+    Assert.assertEquals(
+        1,
+        meetingRepository
+            .findByMeetingDateBetween(
+                ZonedDateTime.parse("2018-02-03T11:00:00Z"),
+                ZonedDateTime.parse("2018-02-03T12:00:00Z"))
+            .size());
+    Assert.assertTrue(
+        meetingRepository
+            .findByMeetingDateBetween(
+                ZonedDateTime.parse("2018-02-03T12:00:00Z"),
+                ZonedDateTime.parse("2018-02-03T13:00:00Z"))
+            .isEmpty());
+  }
+
+  @Test
+  public void findAllViews_nothingManaged() {
+    save(LocalDateTime.parse("2018-02-03T10:00:00"));
+    save(LocalDateTime.parse("2018-02-03T11:00:00"));
+    entityManager.flush();
+    entityManager.clear();
+
+    List<MeetingView> result = meetingRepository.findAllViews();
+
+    Assert.assertEquals(2, result.size());
+    Assert.assertEquals(
+        0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+  }
+
+  @Test
+  public void findSlice_limitAndSort() {
+    LocalDateTime date = LocalDateTime.parse("2018-02-03T10:00:00");
+    save(date.plusHours(2));
+    save(date);
+    save(date.plusHours(1));
+
+    List<MeetingView> result =
+        meetingRepository.findSlice(null, Sort.by(Direction.DESC, "meetingDate"), 2);
+
+    Assert.assertEquals(Arrays.asList(date.plusHours(2), date.plusHours(1)), utcDates(result));
+  }
+
+  @Test
+  public void findSlice_priorityInRankOrder() {
+    LocalDateTime date = LocalDateTime.parse("2018-02-03T10:00:00");
+    for (PriorityType priorityType : PriorityType.values()) {
+      Meeting meeting = save(date.plusHours(priorityType.ordinal()));
+      meeting.setPriorityType(priorityType);
+      meetingRepository.save(meeting);
+    }
+
+    List<MeetingView> result =
+        meetingRepository.findSlice(
+            null, Sort.by(Order.desc("priorityType"), Order.asc("meetingDate")), 3);
+
+    Assert.assertEquals(
+        Arrays.asList(PriorityType.HIGH, PriorityType.MEDIUM, PriorityType.LOW),
+        result.stream().map(MeetingView::getPriorityType).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void update_existingAndAbsent() {
+    Meeting saved = save(LocalDateTime.parse("2018-02-03T10:00:00"));
+    Meeting changed =
+        Meeting.builder()
+            .id(saved.getId())
+            .meetingType(MeetingType.STAND_UP)
+            .priorityType(PriorityType.HIGH)
+            .meetingDate(LocalDateTime.parse("2018-02-04T10:00:00").atZone(ZoneOffset.UTC))
+            .build();
+
+    Assert.assertEquals(1, meetingRepository.update(changed));
+    Assert.assertEquals(0, meetingRepository.update(changed.toBuilder().id(-1L).build()));
+
+    entityManager.clear();
+    Meeting result = meetingRepository.findById(saved.getId()).get();
+    Assert.assertEquals(MeetingType.STAND_UP, result.getMeetingType());
+    Assert.assertEquals(PriorityType.HIGH, result.getPriorityType());
+  }
+
+  @Test
+  public void findEndingAfter_earliestFirstExcludingItself() {
+    LocalDateTime date = LocalDateTime.parse("2018-02-03T10:00:00");
+    Meeting saved = save(date);
+    Meeting later = save(date.plusHours(2));
+    PageRequest first = PageRequest.of(0, 1);
+
+    Assert.assertEquals(
+        Arrays.asList(saved),
+        meetingRepository.findEndingAfter(date.plusMinutes(59).atZone(ZoneOffset.UTC), -1L, first));
+    Assert.assertEquals(
+        Arrays.asList(later),
+        meetingRepository.findEndingAfter(date.plusHours(1).atZone(ZoneOffset.UTC), -1L, first));
+    Assert.assertEquals(
+        Arrays.asList(later),
+        meetingRepository.findEndingAfter(date.atZone(ZoneOffset.UTC), saved.getId(), first));
+    Assert.assertTrue(
+        meetingRepository
+            .findEndingAfter(date.plusHours(3).atZone(ZoneOffset.UTC), -1L, first)
+            .isEmpty());
+  }
+}
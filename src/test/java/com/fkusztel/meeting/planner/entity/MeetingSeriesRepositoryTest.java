@@ -0,0 +1,92 @@
+package com.fkusztel.meeting.planner.entity;
+
+import static com.fkusztel.meeting.planner.config.TestObjectFactory.TimeZones.TIME_ZONE_BERLIN;
+
+import com.google.common.collect.Sets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/** @author Filip.Kusztelak */
+@RunWith(SpringRunner.class)
+@DataJpaTest
+public class MeetingSeriesRepositoryTest {
+
+  @Autowired private MeetingSeriesRepository meetingSeriesRepository;
+
+  @Autowired private TestEntityManager entityManager;
+
+  private static ZonedDateTime utc(String date) {
+    return LocalDateTime.parse(date).atZone(ZoneOffset.UTC);
+  }
+
+  private MeetingSeries save(String seriesStart, String seriesEnd) {
+    return meetingSeriesRepository.save(
+        MeetingSeries.builder()
+            .meetingType(MeetingType.STAND_UP)
+            .priorityType(PriorityType.LOW)
+            .firstDate(LocalDateTime.parse(seriesStart))
+            .timeZone(TIME_ZONE_BERLIN)
+            .durationMinutes(15)
+            .frequency(Frequency.WEEKLY)
+            .repeatInterval(1)
+            .daysOfWeek(EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.THURSDAY))
+            .lastDate(seriesEnd != null ? LocalDate.parse(seriesEnd.substring(0, 10)) : null)
+            .exceptions(Sets.newHashSet(LocalDate.parse("2018-03-26")))
+            .seriesStart(utc(seriesStart))
+            .seriesEnd(seriesEnd != null ? utc(seriesEnd) : null)
+            .build());
+  }
+
+  @Test
+  public void findOverlapping_onlySeriesOverlappingTheSpan() {
+    save("2017-01-02T09:00:00", "2017-12-31T09:15:00");
+    MeetingSeries running = save("2018-01-01T09:00:00", "2018-12-31T09:15:00");
+    MeetingSeries open = save("2018-03-01T09:00:00", null);
+    save("2019-01-01T09:00:00", null);
+    entityManager.flush();
+    entityManager.clear();
+
+    List<Long> ids =
+        meetingSeriesRepository
+            .findOverlapping(utc("2018-02-01T00:00:00"), utc("2018-04-01T00:00:00"))
+            .stream()
+            .map(MeetingSeries::getId)
+            .sorted()
+            .collect(Collectors.toList());
+
+    Assert.assertEquals(Arrays.asList(running.getId(), open.getId()), ids);
+  }
+
+  @Test
+  public void findOverlapping_readsRuleAndExceptions() {
+    MeetingSeries saved = save("2018-03-25T02:30:00", "2018-12-31T09:15:00");
+    entityManager.flush();
+    entityManager.clear();
+
+    MeetingSeries read =
+        meetingSeriesRepository
+            .findOverlapping(utc("2018-01-01T00:00:00"), utc("2019-01-01T00:00:00"))
+            .get(0);
+
+    Assert.assertEquals(saved.getId(), read.getId());
+    Assert.assertEquals(LocalDateTime.parse("2018-03-25T02:30:00"), read.getFirstDate());
+    Assert.assertEquals(TIME_ZONE_BERLIN, read.getTimeZone());
+    Assert.assertEquals(EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.THURSDAY), read.getDaysOfWeek());
+    Assert.assertEquals(LocalDate.parse("2018-12-31"), read.getLastDate());
+    Assert.assertEquals(Sets.newHashSet(LocalDate.parse("2018-03-26")), read.getExceptions());
+  }
+}
@@ -0,0 +1,102 @@
+package com.fkusztel.meeting.planner.service;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Lists;
+import java.io.StringReader;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+/** @author Filip.Kusztelak */
+public class CalendarReaderTest {
+
+  private static List<CalendarEvent> read(String calendar, int maxLineLength) {
+    return Lists.newArrayList(new CalendarReader(new StringReader(calendar), maxLineLength));
+  }
+
+  @Test
+  public void events_foldedLinesParametersAndNestedComponents() {
+    String calendar =
+        "BEGIN:VCALENDAR\r\n"
+            + "BEGIN:VTIMEZONE\r\n"
+            + "TZID:Europe/Berlin\r\n"
+            + "END:VTIMEZONE\r\n"
+            + "BEGIN:VEVENT\r\n"
+            + "UID:first@example.com\r\n"
+            + "SUMMARY:Sprint\r\n"
+            + " review\r\n"
+            + "DTSTART;TZID=\"Europe/Berlin\";X-NOTE=\"a;b:c\":20180326T120000\r\n"
+            + "DURATION:PT45M\r\n"
+            + "CATEGORIES:Team\r\n"
+            + "categories:Product\r\n"
+            + "PRIORITY:1\r\n"
+            + "BEGIN:VALARM\r\n"
+            + "DURATION:PT15M\r\n"
+            + "END:VALARM\r\n"
+            + "END:VEVENT\r\n"
+            + "BEGIN:VEVENT\r\n"
+            + "UID:second@example.com\r\n"
+            + "DTSTART:20180327T100000Z\r\n"
+            + "DTEND:20180327T110000Z\r\n"
+            + "RRULE:FREQ=DAILY\r\n"
+            + "END:VEVENT\r\n"
+            + "END:VCALENDAR\r\n";
+
+    List<CalendarEvent> events = read(calendar, 4096);
+
+    Assert.assertEquals(2, events.size());
+    CalendarEvent first = events.get(0);
+    Assert.assertEquals(0, first.getIndex());
+    Assert.assertEquals(5, first.getLine());
+    Assert.assertEquals("first@example.com", first.getUid());
+    Assert.assertEquals("Sprintreview", first.getSummary());
+    Assert.assertEquals("20180326T120000", first.getStart());
+    Assert.assertEquals("Europe/Berlin", first.getStartZone());
+    Assert.assertEquals("PT45M", first.getDuration());
+    Assert.assertEquals("Team,Product", first.getCategories());
+    Assert.assertEquals("1", first.getPriority());
+    Assert.assertFalse(first.isRecurring());
+    Assert.assertNull(first.getError());
+
+    CalendarEvent second = events.get(1);
+    Assert.assertEquals(1, second.getIndex());
+    Assert.assertEquals(18, second.getLine());
+    Assert.assertEquals("20180327T110000Z", second.getEnd());
+    Assert.assertNull(second.getEndZone());
+    Assert.assertTrue(second.isRecurring());
+  }
+
+  @Test
+  public void events_longLinesCut() {
+    String calendar =
+        "BEGIN:VEVENT\n"
+            + "DESCRIPTION:"
+            + Strings.repeat("x", 100_000)
+            + "\n"
+            + "SUMMARY:"
+            + Strings.repeat("y", 100)
+            + "\n"
+            + "DTSTART:20180326T120000Z\n"
+            + "END:VEVENT\n";
+
+    List<CalendarEvent> events = read(calendar, 50);
+
+    Assert.assertEquals(1, events.size());
+    Assert.assertEquals(Strings.repeat("y", 42), events.get(0).getSummary());
+    Assert.assertEquals("20180326T120000Z", events.get(0).getStart());
+  }
+
+  @Test
+  public void events_calendarEndingInsideEvent() {
+    String calendar =
+        "BEGIN:VEVENT\nUID:1\nDTSTART:20180326T120000Z\nEND:VEVENT\nBEGIN:VEVENT\nUID:2\nDTST";
+
+    List<CalendarEvent> events = read(calendar, 4096);
+
+    Assert.assertEquals(2, events.size());
+    Assert.assertNull(events.get(0).getError());
+    Assert.assertEquals("2", events.get(1).getUid());
+    Assert.assertEquals(5, events.get(1).getLine());
+    Assert.assertNotNull(events.get(1).getError());
+  }
+}
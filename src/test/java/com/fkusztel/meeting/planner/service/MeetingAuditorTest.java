@@ -0,0 +1,86 @@
+package com.fkusztel.meeting.planner.service;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.fkusztel.meeting.planner.config.TestObjectFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/** @author Filip.Kusztelak */
+public class MeetingAuditorTest {
+
+  private final MeetingAuditor meetingAuditor = new MeetingAuditor();
+
+  private final Logger logger = (Logger) LoggerFactory.getLogger(MeetingAuditor.LOGGER_NAME);
+
+  private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+  @Before
+  public void setUp() {
+    appender.start();
+    logger.addAppender(appender);
+  }
+
+  @After
+  public void tearDown() {
+    logger.detachAppender(appender);
+  }
+
+  private List<String> events() {
+    return appender.list.stream()
+        .map(ILoggingEvent::getFormattedMessage)
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void created_writesJsonFields() {
+    meetingAuditor.created(TestObjectFactory.Meetings.getMeetingBerlin());
+    meetingAuditor.deleted(1L);
+
+    Assert.assertEquals(
+        Arrays.asList(
+            "\"action\":\"CREATED\",\"meetingId\":1,\"meetingType\":\"GROOMING\","
+                + "\"priorityType\":\"MEDIUM\",\"start\":\"2018-02-03T11:30:30Z\","
+                + "\"end\":\"2018-02-03T12:30:30Z\"",
+            "\"action\":\"DELETED\",\"meetingId\":1"),
+        events());
+  }
+
+  @Test
+  public void updated_writtenOnlyAfterCommit() {
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      meetingAuditor.updated(TestObjectFactory.Meetings.getMeetingBerlin());
+      Assert.assertTrue(events().isEmpty());
+
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(TransactionSynchronization::afterCommit);
+      Assert.assertEquals(1, events().size());
+      Assert.assertTrue(events().get(0).startsWith("\"action\":\"UPDATED\",\"meetingId\":1,"));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  public void deleted_notWrittenOnRollback() {
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      meetingAuditor.deleted(1L);
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    Assert.assertTrue(events().isEmpty());
+  }
+}
@@ -0,0 +1,75 @@
+package com.fkusztel.meeting.planner.service;
+
+import com.fkusztel.meeting.planner.config.TestObjectFactory;
+import com.fkusztel.meeting.planner.entity.Meeting;
+import com.fkusztel.meeting.planner.entity.MeetingView;
+import com.fkusztel.meeting.planner.service.MeetingChange.Action;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/** @author Filip.Kusztelak */
+public class MeetingChangeFeedTest {
+
+  private final MeetingChangeFeed meetingChangeFeed = new MeetingChangeFeed(3);
+
+  private static List<Long> sequences(List<MeetingChange> changes) {
+    return changes.stream().map(MeetingChange::getSequence).collect(Collectors.toList());
+  }
+
+  @Test
+  public void created_numberedOnlyAfterCommit() {
+    Meeting meeting = TestObjectFactory.Meetings.getMeetingBerlin();
+    AtomicInteger notified = new AtomicInteger();
+    meetingChangeFeed.addListener(notified::incrementAndGet);
+
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      meetingChangeFeed.created(meeting);
+      meetingChangeFeed.deleted(2L);
+      Assert.assertEquals(0, meetingChangeFeed.getLast());
+
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(TransactionSynchronization::afterCommit);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    List<MeetingChange> changes = meetingChangeFeed.since(0);
+    Assert.assertEquals(2, notified.get());
+    Assert.assertEquals(2, changes.size());
+    Assert.assertEquals(
+        new MeetingChange(1, Action.CREATED, 1L, MeetingView.of(meeting)), changes.get(0));
+    Assert.assertEquals(new MeetingChange(2, Action.DELETED, 2L, null), changes.get(1));
+  }
+
+  @Test
+  public void deleted_notPublishedOnRollback() {
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      meetingChangeFeed.deleted(1L);
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    Assert.assertEquals(0, meetingChangeFeed.getLast());
+  }
+
+  @Test
+  public void since_nullOnceChangesLeftTheRing() {
+    for (long meetingId = 1; meetingId <= 5; meetingId++) {
+      meetingChangeFeed.deleted(meetingId);
+    }
+
+    Assert.assertEquals(5, meetingChangeFeed.getLast());
+    Assert.assertEquals(Arrays.asList(3L, 4L, 5L), sequences(meetingChangeFeed.since(2)));
+    Assert.assertTrue(meetingChangeFeed.since(5).isEmpty());
+    Assert.assertNull(meetingChangeFeed.since(1));
+  }
+}
@@ -0,0 +1,116 @@
+package com.fkusztel.meeting.planner.service;
+
+import com.fkusztel.meeting.planner.entity.Meeting;
+import com.fkusztel.meeting.planner.entity.MeetingRepository;
+import com.fkusztel.meeting.planner.entity.MeetingType;
+import com.fkusztel.meeting.planner.entity.PriorityType;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Concurrent bulk creates of meetings overlapping each other, checked against the loaded index.
+ * Every thread creates a meeting in each slot, each thread a minute later than the one before, so
+ * the meetings never share a date and only the index can keep them apart.
+ *
+ * @author Filip.Kusztelak
+ */
+@RunWith(SpringRunner.class)
+@DataJpaTest(showSql = false)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+@Import({
+  MeetingServiceImpl.class,
+  MeetingCache.class,
+  MeetingIndex.class,
+  MeetingAuditor.class,
+  MeetingVersion.class,
+  MeetingChangeFeed.class,
+  MeetingLocks.class
+})
+public class MeetingCreateRaceTest {
+
+  private static final int THREADS = 8;
+
+  private static final int SLOTS = 500;
+
+  private static final LocalDateTime START = LocalDateTime.parse("2040-01-01T00:00:00");
+
+  @Autowired private MeetingService meetingService;
+
+  @Autowired private MeetingIndex meetingIndex;
+
+  @Autowired private MeetingRepository meetingRepository;
+
+  @Before
+  public void setUp() {
+    meetingIndex.load();
+  }
+
+  @After
+  public void tearDown() {
+    meetingRepository.deleteAllInBatch();
+  }
+
+  @Test
+  public void meetingCreateAll_overlappingMeetingsRejected() throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+    List<Future<?>> threads = new ArrayList<>();
+    for (int thread = 0; thread < THREADS; thread++) {
+      int minute = thread;
+      threads.add(
+          executor.submit(
+              () -> {
+                start.await();
+                for (int slot = 0; slot < SLOTS; slot++) {
+                  meetingService.meetingCreateAll(
+                      Collections.singletonList(
+                          MeetingSpec.builder()
+                              .meetingType(MeetingType.GROOMING)
+                              .priorityType(PriorityType.HIGH)
+                              .date(START.plusHours(slot).plusMinutes(minute).toString())
+                              .timeZone(ZoneOffset.UTC)
+                              .durationMinutes(30L)
+                              .build()));
+                }
+                return null;
+              }));
+    }
+    start.countDown();
+    for (Future<?> thread : threads) {
+      thread.get(2, TimeUnit.MINUTES);
+    }
+    executor.shutdown();
+
+    List<Meeting> meetings = meetingRepository.findAll();
+    meetings.sort(Comparator.comparing(Meeting::getMeetingDate));
+    Assert.assertEquals(SLOTS, meetings.size());
+    for (int i = 1; i < meetings.size(); i++) {
+      Assert.assertFalse(
+          meetings.get(i) + " overlaps " + meetings.get(i - 1),
+          meetings.get(i).getMeetingDate().isBefore(meetings.get(i - 1).getMeetingEndDate()));
+    }
+  }
+}
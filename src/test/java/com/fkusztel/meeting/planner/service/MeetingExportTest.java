@@ -0,0 +1,71 @@
+package com.fkusztel.meeting.planner.service;
+
+import com.fkusztel.meeting.planner.entity.PriorityType;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/** @author Filip.Kusztelak */
+@RunWith(SpringRunner.class)
+@DataJpaTest
+@Import({
+  MeetingServiceImpl.class,
+  MeetingCache.class,
+  MeetingIndex.class,
+  MeetingAuditor.class,
+  MeetingVersion.class,
+  MeetingChangeFeed.class,
+  MeetingLocks.class
+})
+public class MeetingExportTest {
+
+  private static final int MEETINGS = 50_000;
+
+  @Autowired private MeetingService meetingService;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @Autowired private EntityManager entityManager;
+
+  @Test
+  public void exportAll_persistenceContextStaysFlat() {
+    Instant date = Instant.parse("2018-01-01T00:00:00Z");
+    List<Object[]> rows = new ArrayList<>();
+    for (long id = 1; id <= MEETINGS; id++) {
+      rows.add(
+          new Object[] {
+            id, "DEMO", PriorityType.LOW.ordinal(), Timestamp.from(date.plusSeconds(60 * id))
+          });
+    }
+    jdbcTemplate.batchUpdate(
+        "insert into meeting (meeting_id, meeting_type, priority_type, meeting_date, version)"
+            + " values (?, ?, ?, ?, 0)",
+        rows);
+    rows.clear();
+
+    Session session = entityManager.unwrap(Session.class);
+    AtomicInteger exported = new AtomicInteger();
+    AtomicInteger maxManaged = new AtomicInteger();
+
+    meetingService.exportAll(
+        meeting -> {
+          exported.incrementAndGet();
+          maxManaged.accumulateAndGet(session.getStatistics().getEntityCount(), Math::max);
+        });
+
+    Assert.assertEquals(MEETINGS, exported.get());
+    Assert.assertEquals(1, maxManaged.get());
+  }
+}
@@ -0,0 +1,98 @@
+package com.fkusztel.meeting.planner.service;
+
+import com.fkusztel.meeting.planner.entity.Meeting;
+import com.fkusztel.meeting.planner.entity.MeetingRepository;
+import com.fkusztel.meeting.planner.entity.MeetingType;
+import com.fkusztel.meeting.planner.entity.MeetingView;
+import com.fkusztel.meeting.planner.entity.PriorityType;
+import com.google.common.collect.ImmutableSet;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/** @author Filip.Kusztelak */
+@RunWith(SpringRunner.class)
+@DataJpaTest
+public class MeetingFilterTest {
+
+  private static final LocalDateTime DATE = LocalDateTime.parse("2018-02-03T10:00:00");
+
+  @Autowired private MeetingRepository meetingRepository;
+
+  /** One meeting per hour, for every pair of type and priority in turn. */
+  @Before
+  public void setUp() {
+    int hour = 0;
+    for (MeetingType meetingType : MeetingType.values()) {
+      for (PriorityType priorityType : PriorityType.values()) {
+        LocalDateTime date = DATE.plusHours(hour++);
+        meetingRepository.save(
+            Meeting.builder()
+                .meetingType(meetingType)
+                .priorityType(priorityType)
+                .meetingDate(date.atZone(ZoneOffset.UTC))
+                .meetingEndDate(date.plusHours(1).atZone(ZoneOffset.UTC))
+                .build());
+      }
+    }
+  }
+
+  private List<MeetingView> find(MeetingFilter filter) {
+    return meetingRepository.findSlice(
+        filter.toSpecification(), MeetingSort.BY_DATE.toSort(), Integer.MAX_VALUE);
+  }
+
+  @Test
+  public void toSpecification_typesAndPriorities() {
+    List<MeetingView> result =
+        find(
+            MeetingFilter.builder()
+                .meetingTypes(ImmutableSet.of(MeetingType.DEMO, MeetingType.STAND_UP))
+                .priorityTypes(ImmutableSet.of(PriorityType.HIGH))
+                .build());
+
+    Assert.assertEquals(2, result.size());
+    for (MeetingView meeting : result) {
+      Assert.assertEquals(PriorityType.HIGH, meeting.getPriorityType());
+      Assert.assertTrue(
+          meeting.getMeetingType() == MeetingType.DEMO
+              || meeting.getMeetingType() == MeetingType.STAND_UP);
+    }
+  }
+
+  @Test
+  public void toSpecification_windowStartInclusiveEndExclusive() {
+    List<MeetingView> result =
+        find(
+            MeetingFilter.builder()
+                .priorityTypes(Collections.emptySet())
+                .startDate(DATE.plusHours(1))
+                .endDate(DATE.plusHours(3))
+                .build());
+
+    Assert.assertEquals(
+        Arrays.asList(DATE.plusHours(1), DATE.plusHours(2)),
+        result
+            .stream()
+            .map(m -> m.getMeetingDate().withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime())
+            .collect(Collectors.toList()));
+  }
+
+  @Test
+  public void toSpecification_allLetsEveryMeetingThrough() {
+    Assert.assertNull(MeetingFilter.ALL.toSpecification());
+    Assert.assertEquals(
+        MeetingType.values().length * PriorityType.values().length,
+        find(MeetingFilter.ALL).size());
+  }
+}
@@ -0,0 +1,144 @@
+package com.fkusztel.meeting.planner.service;
+
+import com.fkusztel.meeting.planner.entity.Meeting;
+import com.fkusztel.meeting.planner.entity.MeetingRepository;
+import com.fkusztel.meeting.planner.entity.MeetingType;
+import com.fkusztel.meeting.planner.entity.PriorityType;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.StringReader;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/** @author Filip.Kusztelak */
+@RunWith(SpringRunner.class)
+@DataJpaTest(showSql = false)
+@Import({
+  MeetingImporter.class,
+  MeetingServiceImpl.class,
+  MeetingCache.class,
+  MeetingIndex.class,
+  MeetingAuditor.class,
+  MeetingVersion.class,
+  MeetingChangeFeed.class,
+  MeetingLocks.class
+})
+public class MeetingImporterTest {
+
+  private static final DateTimeFormatter BASIC =
+      DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+  @Autowired private MeetingImporter meetingImporter;
+
+  @Autowired private MeetingRepository meetingRepository;
+
+  private static String event(String uid, String summary, String... properties) {
+    return "BEGIN:VEVENT\r\nUID:"
+        + uid
+        + "\r\nSUMMARY:"
+        + summary
+        + "\r\n"
+        + String.join("\r\n", properties)
+        + "\r\nEND:VEVENT\r\n";
+  }
+
+  @Test
+  public void importCalendar_progressAfterEveryChunk() {
+    StringBuilder calendar = new StringBuilder("BEGIN:VCALENDAR\r\n");
+    Instant start = Instant.parse("2019-01-01T00:00:00Z");
+    for (int i = 0; i < 2500; i++) {
+      calendar.append(
+          event(
+              "event-" + i,
+              "Daily stand-up",
+              "DTSTART:" + BASIC.format(start.plusSeconds(1800L * i)),
+              "DURATION:PT30M"));
+    }
+    calendar.append("END:VCALENDAR\r\n");
+    List<MeetingImportProgress> progress = new ArrayList<>();
+    List<MeetingImportError> errors = new ArrayList<>();
+
+    MeetingImportProgress result =
+        meetingImporter.importCalendar(
+            new StringReader(calendar.toString()), ZoneOffset.UTC, errors::add, progress::add);
+
+    Assert.assertEquals(new MeetingImportProgress(2500, 2500, 0, true), result);
+    Assert.assertEquals(
+        Arrays.asList(1000, 2000, 2500),
+        progress.stream().map(MeetingImportProgress::getEvents).collect(Collectors.toList()));
+    Assert.assertTrue(errors.isEmpty());
+    Assert.assertEquals(2500, meetingRepository.count());
+  }
+
+  @Test
+  public void importCalendar_failedEventsReported() {
+    String calendar =
+        "BEGIN:VCALENDAR\r\n"
+            + event(
+                "refinement",
+                "Backlog refinement",
+                "DTSTART;TZID=Europe/Berlin:20180326T120000",
+                "DTEND;TZID=Europe/Berlin:20180326T130000",
+                "PRIORITY:1")
+            + event("all-day", "Sprint demo", "DTSTART;VALUE=DATE:20180327")
+            + event(
+                "recurring",
+                "Daily stand-up",
+                "DTSTART:20180327T080000Z",
+                "DURATION:PT15M",
+                "RRULE:FREQ=DAILY")
+            + event("no-rule", "Lunch", "DTSTART:20180327T110000Z", "DURATION:PT1H")
+            + event("overlap", "Demo", "DTSTART:20180326T103000Z", "DURATION:PT30M")
+            + event("unknown-zone", "Demo", "DTSTART;TZID=Mars/Olympus:20180327T120000")
+            + event("floating", "Demo", "DTSTART:20180328T090000", "DURATION:PT30M")
+            + "END:VCALENDAR\r\n";
+    List<MeetingImportError> errors = new ArrayList<>();
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    Metrics.addRegistry(registry);
+
+    MeetingImportProgress result;
+    try {
+      result =
+          meetingImporter.importCalendar(
+              new StringReader(calendar), ZoneId.of("America/New_York"), errors::add, p -> {});
+    } finally {
+      Metrics.removeRegistry(registry);
+    }
+
+    Assert.assertEquals(new MeetingImportProgress(7, 2, 5, true), result);
+    Assert.assertEquals(2, registry.get("meeting.import.events").counter().count(), 0);
+    Assert.assertEquals(5, registry.get("meeting.import.failed").counter().count(), 0);
+    errors.sort(Comparator.comparing(MeetingImportError::getIndex));
+    Assert.assertEquals(
+        Arrays.asList("all-day", "recurring", "no-rule", "overlap", "unknown-zone"),
+        errors.stream().map(MeetingImportError::getUid).collect(Collectors.toList()));
+    Assert.assertEquals(9, errors.get(0).getLine());
+
+    List<Meeting> meetings = meetingRepository.findAll();
+    meetings.sort(Comparator.comparing(Meeting::getMeetingDate));
+    Assert.assertEquals(MeetingType.GROOMING, meetings.get(0).getMeetingType());
+    Assert.assertEquals(PriorityType.HIGH, meetings.get(0).getPriorityType());
+    Assert.assertEquals(
+        Instant.parse("2018-03-26T10:00:00Z"), meetings.get(0).getMeetingDate().toInstant());
+    Assert.assertEquals(
+        Instant.parse("2018-03-26T11:00:00Z"), meetings.get(0).getMeetingEndDate().toInstant());
+    Assert.assertEquals(MeetingType.DEMO, meetings.get(1).getMeetingType());
+    Assert.assertEquals(PriorityType.MEDIUM, meetings.get(1).getPriorityType());
+    Assert.assertEquals(
+        Instant.parse("2018-03-28T13:00:00Z"), meetings.get(1).getMeetingDate().toInstant());
+  }
+}
@@ -0,0 +1,345 @@
+package com.fkusztel.meeting.planner.service;
+
+import static org.mockito.ArgumentMatchers.any;
+
+import com.fkusztel.meeting.planner.config.TestObjectFactory;
+import com.fkusztel.meeting.planner.entity.Frequency;
+import com.fkusztel.meeting.planner.entity.Meeting;
+import com.fkusztel.meeting.planner.entity.MeetingRepository;
+import com.fkusztel.meeting.planner.entity.MeetingSeries;
+import com.fkusztel.meeting.planner.entity.MeetingSeriesRepository;
+import com.fkusztel.meeting.planner.entity.MeetingType;
+import com.fkusztel.meeting.planner.entity.PriorityType;
+import com.fkusztel.meeting.planner.exception.MeetingConflictException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/** @author Filip.Kusztelak */
+public class MeetingIndexTest {
+
+  private MeetingIndex meetingIndex;
+
+  @Before
+  public void setUp() {
+    meetingIndex = new MeetingIndex();
+    meetingIndex.enabled = true;
+    meetingIndex.meetingRepository = Mockito.mock(MeetingRepository.class);
+    meetingIndex.meetingSeriesRepository = Mockito.mock(MeetingSeriesRepository.class);
+    meetingIndex.transactionTemplate = Mockito.mock(TransactionTemplate.class);
+
+    Mockito.when(meetingIndex.transactionTemplate.execute(any()))
+        .thenAnswer(
+            invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    Mockito.when(meetingIndex.meetingRepository.streamAll()).thenReturn(meetings().stream());
+  }
+
+  /** Dates of all test meetings under distinct Ids. */
+  private static List<Meeting> meetings() {
+    List<Meeting> meetings = new ArrayList<>();
+    for (Meeting meeting : TestObjectFactory.Meetings.getDatesAll()) {
+      meetings.add(meeting.toBuilder().id(10L + meetings.size()).build());
+    }
+    return meetings;
+  }
+
+  private static Instant instant(String date) {
+    return Instant.parse(date + "Z");
+  }
+
+  @Test
+  public void load_findBetweenOrderedByInstant() {
+    meetingIndex.load();
+
+    // Sao Paulo, Berlin and Tokyo ordered by instant
+    List<Meeting> all = meetings();
+    List<Meeting> expected = new ArrayList<>(all.subList(1, 4));
+    expected.sort(Comparator.comparing(meeting -> meeting.getMeetingDate().toInstant()));
+
+    Assert.assertTrue(meetingIndex.isReady());
+    Assert.assertEquals(
+        expected,
+        meetingIndex.findBetween(
+            instant(TestObjectFactory.Dates.DATE_PARIS),
+            instant(TestObjectFactory.Dates.DATE_LOS_ANGELES)));
+  }
+
+  @Test
+  public void findBetween_boundsExclusive() {
+    meetingIndex.load();
+    Instant berlin = meetings().get(2).getMeetingDate().toInstant();
+
+    Assert.assertTrue(meetingIndex.findBetween(berlin, berlin.plusSeconds(1)).isEmpty());
+    Assert.assertTrue(meetingIndex.findBetween(berlin.minusSeconds(1), berlin).isEmpty());
+    Assert.assertEquals(
+        1, meetingIndex.findBetween(berlin.minusSeconds(1), berlin.plusSeconds(1)).size());
+  }
+
+  @Test
+  public void put_movesMeetingAndRemoveDeletesIt() {
+    meetingIndex.load();
+    int size = meetingIndex.size();
+    Meeting moved = meetings().get(2);
+    Instant oldDate = moved.getMeetingDate().toInstant();
+    moved.setMeetingDate(moved.getMeetingDate().plusYears(10));
+
+    meetingIndex.put(moved);
+
+    Assert.assertEquals(size, meetingIndex.size());
+    Assert.assertTrue(
+        meetingIndex.findBetween(oldDate.minusSeconds(1), oldDate.plusSeconds(1)).isEmpty());
+
+    meetingIndex.remove(moved.getId());
+
+    Assert.assertEquals(size - 1, meetingIndex.size());
+  }
+
+  @Test
+  public void put_updateWithoutVersionFollowsReplacedVersion() {
+    meetingIndex.load();
+    Meeting meeting = meetings().get(2);
+    meeting.setVersion(4L);
+    meetingIndex.put(meeting);
+    Instant date = meeting.getMeetingDate().toInstant();
+
+    meetingIndex.put(meeting.toBuilder().version(null).build());
+
+    List<Meeting> found = meetingIndex.findBetween(date.minusSeconds(1), date.plusSeconds(1));
+    Assert.assertEquals(Long.valueOf(5L), found.get(0).getVersion());
+  }
+
+  @Test
+  public void findBetween_consistentUnderConcurrentWrites() throws Exception {
+    meetingIndex.load();
+    Instant start = instant("2000-01-01T00:00:00");
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    Future<?> writer =
+        executor.submit(
+            () -> {
+              for (long i = 0; i < 20_000; i++) {
+                meetingIndex.put(
+                    TestObjectFactory.Meetings.getMeetingParis()
+                        .toBuilder()
+                        .id(100 + i % 500)
+                        .meetingDate(start.plusSeconds(i).atZone(ZoneOffset.UTC))
+                        .build());
+              }
+            });
+    List<Future<?>> readers = new ArrayList<>();
+    for (int r = 0; r < 3; r++) {
+      readers.add(
+          executor.submit(
+              () -> {
+                while (!writer.isDone()) {
+                  List<Meeting> result =
+                      meetingIndex.findBetween(start.minusSeconds(1), start.plusSeconds(20_000));
+                  for (int i = 1; i < result.size(); i++) {
+                    Assert.assertFalse(
+                        result
+                            .get(i)
+                            .getMeetingDate()
+                            .isBefore(result.get(i - 1).getMeetingDate()));
+                  }
+                }
+              }));
+    }
+
+    writer.get(30, TimeUnit.SECONDS);
+    for (Future<?> reader : readers) {
+      reader.get(30, TimeUnit.SECONDS);
+    }
+    executor.shutdown();
+
+    Assert.assertEquals(
+        500, meetingIndex.findBetween(start.minusSeconds(1), start.plusSeconds(20_000)).size());
+  }
+
+  private static Meeting meeting(Long id, Instant start, long minutes) {
+    return TestObjectFactory.Meetings.getMeetingParis()
+        .toBuilder()
+        .id(id)
+        .meetingDate(start.atZone(ZoneOffset.UTC))
+        .meetingEndDate(start.plusSeconds(60 * minutes).atZone(ZoneOffset.UTC))
+        .build();
+  }
+
+  @Test
+  public void findOverlapping_includesMeetingRunningIntoSpan() {
+    Instant start = instant("2030-01-01T10:00:00");
+    meetingIndex.put(meeting(1L, start.minusSeconds(60 * 30), 60));
+    meetingIndex.put(meeting(2L, start.minusSeconds(60 * 120), 60));
+    meetingIndex.put(meeting(3L, start.plusSeconds(60 * 60), 60));
+    meetingIndex.put(meeting(4L, start.plusSeconds(60 * 120), 60));
+
+    List<Meeting> overlapping =
+        new ArrayList<>(meetingIndex.findOverlapping(start, start.plusSeconds(60 * 120)));
+
+    Assert.assertEquals(2, overlapping.size());
+    Assert.assertEquals(Long.valueOf(1L), overlapping.get(0).getId());
+    Assert.assertEquals(Long.valueOf(3L), overlapping.get(1).getId());
+    Assert.assertTrue(
+        meetingIndex.findOverlapping(start.minusSeconds(60 * 200), start.minusSeconds(60 * 180))
+            .isEmpty());
+  }
+
+  @Test
+  public void reserve_overlappingMeetingRejected() {
+    meetingIndex.load();
+    Meeting berlin = meetings().get(2);
+    Instant start = berlin.getMeetingDate().toInstant();
+
+    try {
+      meetingIndex.reserve(meeting(null, start.plusSeconds(60 * 30), 60));
+      Assert.fail();
+    } catch (MeetingConflictException e) {
+      Assert.assertEquals("Meeting overlaps meeting with id: " + berlin.getId(), e.getMessage());
+    }
+
+    // Touching meetings do not overlap, a meeting does not overlap itself
+    meetingIndex.reserve(meeting(null, start.plusSeconds(60 * 60), 60));
+    meetingIndex.reserve(meeting(null, start.minusSeconds(60 * 60), 60));
+    meetingIndex.reserve(meeting(berlin.getId(), start.plusSeconds(60 * 30), 60));
+  }
+
+  private static MeetingSeries daily(Long id, Instant first, long minutes) {
+    MeetingSeries series =
+        MeetingSeries.builder()
+            .id(id)
+            .meetingType(MeetingType.STAND_UP)
+            .priorityType(PriorityType.HIGH)
+            .firstDate(LocalDateTime.ofInstant(first, ZoneOffset.UTC))
+            .timeZone(ZoneOffset.UTC)
+            .durationMinutes(minutes)
+            .frequency(Frequency.DAILY)
+            .repeatInterval(1)
+            .build();
+    series.setSeriesStart(MeetingOccurrences.seriesStart(series));
+    return series;
+  }
+
+  @Test
+  public void reserve_overlappingOccurrenceOfSeriesRejected() {
+    meetingIndex.load();
+    Instant first = instant("2030-01-01T09:00:00");
+    Mockito.when(meetingIndex.meetingSeriesRepository.findOverlapping(any(), any()))
+        .thenReturn(Collections.singletonList(daily(9L, first, 15)));
+
+    try {
+      meetingIndex.reserve(meeting(null, first.plus(Duration.ofDays(3)).plusSeconds(60 * 10), 60));
+      Assert.fail();
+    } catch (MeetingConflictException e) {
+      Assert.assertEquals("Meeting overlaps a meeting of series with id: 9", e.getMessage());
+    }
+
+    meetingIndex.reserve(meeting(null, first.plus(Duration.ofDays(3)).plusSeconds(60 * 15), 60));
+  }
+
+  @Test
+  public void reserveSeries_overlappingMeetingRejectedAndNothingHeld() {
+    meetingIndex.load();
+    Instant first = instant("2030-01-01T09:00:00");
+    Instant fourthDay = first.plus(Duration.ofDays(3));
+    // Simulates a transaction holding the reservations
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      meetingIndex.reserve(meeting(null, first.plus(Duration.ofDays(2)), 30));
+      try {
+        meetingIndex.reserve(daily(null, first, 15), first.plus(Duration.ofDays(7)));
+        Assert.fail();
+      } catch (MeetingConflictException e) {
+        // Third occurrence overlaps the reserved meeting
+      }
+
+      // Occurrences reserved before the conflict were released
+      meetingIndex.reserve(meeting(null, first, 60));
+
+      // Only occurrences in the checked span are held
+      meetingIndex.reserve(daily(null, fourthDay, 15), fourthDay.plus(Duration.ofDays(1)));
+      meetingIndex.reserve(meeting(null, fourthDay.plus(Duration.ofDays(1)), 60));
+      try {
+        meetingIndex.reserve(meeting(null, fourthDay, 60));
+        Assert.fail();
+      } catch (MeetingConflictException e) {
+        // Overlaps the held occurrence
+      }
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  public void reserve_noOverlapsUnderConcurrentWrites() throws Exception {
+    meetingIndex.load();
+    Instant start = instant("2000-01-01T00:00:00");
+    AtomicLong ids = new AtomicLong(1000);
+    AtomicInteger conflicts = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    List<Future<?>> writers = new ArrayList<>();
+
+    for (int w = 0; w < 8; w++) {
+      int seed = w;
+      writers.add(
+          executor.submit(
+              () -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 2_000; i++) {
+                  Meeting meeting =
+                      meeting(
+                          ids.incrementAndGet(),
+                          start.plusSeconds(60 * random.nextInt(10_000)),
+                          1 + random.nextInt(120));
+                  // Simulates a transaction which commits right after the reservation
+                  TransactionSynchronizationManager.initSynchronization();
+                  try {
+                    meetingIndex.reserve(meeting);
+                    meetingIndex.put(meeting);
+                    List<TransactionSynchronization> synchronizations =
+                        TransactionSynchronizationManager.getSynchronizations();
+                    synchronizations.forEach(TransactionSynchronization::afterCommit);
+                    synchronizations.forEach(
+                        s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+                  } catch (MeetingConflictException e) {
+                    conflicts.incrementAndGet();
+                  } finally {
+                    TransactionSynchronizationManager.clearSynchronization();
+                  }
+                }
+              }));
+    }
+    for (Future<?> writer : writers) {
+      writer.get(60, TimeUnit.SECONDS);
+    }
+    executor.shutdown();
+
+    List<Meeting> result =
+        meetingIndex.findBetween(start.minusSeconds(1), start.plusSeconds(60 * 10_000));
+    for (int i = 1; i < result.size(); i++) {
+      Assert.assertFalse(
+          result.get(i).getMeetingDate().isBefore(result.get(i - 1).getMeetingEndDate()));
+    }
+    Assert.assertTrue(conflicts.get() > 0);
+    Assert.assertEquals(8 * 2_000 - conflicts.get(), result.size());
+  }
+}
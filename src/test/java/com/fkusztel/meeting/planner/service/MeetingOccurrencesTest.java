@@ -0,0 +1,160 @@
+package com.fkusztel.meeting.planner.service;
+
+import com.fkusztel.meeting.planner.config.ZoneIdConverter;
+import com.fkusztel.meeting.planner.entity.Frequency;
+import com.fkusztel.meeting.planner.entity.MeetingSeries;
+import com.fkusztel.meeting.planner.entity.MeetingType;
+import com.fkusztel.meeting.planner.entity.MeetingView;
+import com.fkusztel.meeting.planner.entity.PriorityType;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Test;
+
+/** @author Filip.Kusztelak */
+public class MeetingOccurrencesTest {
+
+  private static final ZoneId BERLIN = ZoneIdConverter.toZoneId("Europe/Berlin");
+
+  private static MeetingSeries.MeetingSeriesBuilder daily(String firstDate) {
+    return MeetingSeries.builder()
+        .id(7L)
+        .meetingType(MeetingType.STAND_UP)
+        .priorityType(PriorityType.LOW)
+        .firstDate(LocalDateTime.parse(firstDate))
+        .timeZone(BERLIN)
+        .durationMinutes(15)
+        .frequency(Frequency.DAILY)
+        .repeatInterval(1);
+  }
+
+  /** UTC starts of occurrences of given series overlapping given UTC time span. */
+  private static List<String> starts(MeetingSeries series, String start, String end) {
+    List<MeetingView> occurrences =
+        Lists.newArrayList(
+            MeetingOccurrences.overlapping(
+                series,
+                LocalDateTime.parse(start).toInstant(ZoneOffset.UTC),
+                LocalDateTime.parse(end).toInstant(ZoneOffset.UTC)));
+    return occurrences
+        .stream()
+        .map(view -> view.getMeetingDate().withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime())
+        .map(LocalDateTime::toString)
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void daily_keepsWallClockTimeAcrossDaylightSaving() {
+    MeetingSeries series = daily("2018-03-23T09:00:00").build();
+
+    Assert.assertEquals(
+        Arrays.asList(
+            "2018-03-23T08:00", "2018-03-24T08:00", "2018-03-25T07:00", "2018-03-26T07:00"),
+        starts(series, "2018-03-23T00:00:00", "2018-03-27T00:00:00"));
+    Assert.assertEquals(
+        Arrays.asList("2018-10-27T07:00", "2018-10-28T08:00"),
+        starts(series, "2018-10-27T00:00:00", "2018-10-29T00:00:00"));
+  }
+
+  @Test
+  public void daily_timeInGapMovedForward() {
+    MeetingSeries series = daily("2018-03-24T02:30:00").build();
+
+    Assert.assertEquals(
+        Arrays.asList("2018-03-24T01:30", "2018-03-25T01:30", "2018-03-26T00:30"),
+        starts(series, "2018-03-24T00:00:00", "2018-03-27T00:00:00"));
+  }
+
+  @Test
+  public void daily_intervalExceptionsAndLastDate() {
+    MeetingSeries series =
+        daily("2018-01-01T09:00:00")
+            .repeatInterval(2)
+            .exceptions(Sets.newHashSet(LocalDate.parse("2018-01-05")))
+            .lastDate(LocalDate.parse("2018-01-09"))
+            .build();
+
+    Assert.assertEquals(
+        Arrays.asList("2018-01-03T08:00", "2018-01-07T08:00", "2018-01-09T08:00"),
+        starts(series, "2018-01-02T00:00:00", "2018-02-01T00:00:00"));
+  }
+
+  @Test
+  public void weekly_daysOfWeekEverySecondWeek() {
+    MeetingSeries series =
+        daily("2018-01-03T09:00:00")
+            .frequency(Frequency.WEEKLY)
+            .repeatInterval(2)
+            .daysOfWeek(EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.FRIDAY))
+            .build();
+
+    // Monday of the first week precedes the first date, the next week is skipped
+    Assert.assertEquals(
+        Arrays.asList(
+            "2018-01-03T08:00", "2018-01-05T08:00", "2018-01-15T08:00", "2018-01-17T08:00"),
+        starts(series, "2018-01-01T00:00:00", "2018-01-18T00:00:00"));
+    Assert.assertEquals(
+        Arrays.asList("2018-01-17T08:00", "2018-01-19T08:00", "2018-01-29T08:00"),
+        starts(series, "2018-01-16T12:00:00", "2018-01-30T00:00:00"));
+  }
+
+  @Test
+  public void weekly_dayOfFirstDateByDefault() {
+    MeetingSeries series = daily("2018-01-03T09:00:00").frequency(Frequency.WEEKLY).build();
+
+    Assert.assertEquals(
+        Arrays.asList("2018-01-10T08:00", "2018-01-17T08:00"),
+        starts(series, "2018-01-04T00:00:00", "2018-01-18T00:00:00"));
+  }
+
+  @Test
+  public void overlapping_includesOccurrenceStartedBeforeSpan() {
+    MeetingSeries series = daily("2018-01-01T09:00:00").durationMinutes(60).build();
+
+    Assert.assertEquals(
+        Arrays.asList("2018-01-02T08:00", "2018-01-03T08:00"),
+        starts(series, "2018-01-02T08:30:00", "2018-01-03T08:30:00"));
+  }
+
+  @Test
+  public void overlapping_expandsOnlyTheSpanOfALongSeries() {
+    MeetingSeries series =
+        daily("2018-01-01T09:00:00").lastDate(LocalDate.parse("2027-12-31")).build();
+
+    List<MeetingView> occurrences =
+        Lists.newArrayList(
+            MeetingOccurrences.overlapping(
+                series,
+                Instant.parse("2027-06-01T00:00:00Z"),
+                Instant.parse("2027-06-03T00:00:00Z")));
+
+    Assert.assertEquals(2, occurrences.size());
+    Assert.assertNull(occurrences.get(0).getId());
+    Assert.assertEquals(Long.valueOf(7L), occurrences.get(0).getSeriesId());
+    Assert.assertEquals(
+        Instant.parse("2027-06-01T07:00:00Z"), occurrences.get(0).getMeetingDate().toInstant());
+  }
+
+  @Test
+  public void seriesEnd_endOfLastOccurrence() {
+    MeetingSeries series =
+        daily("2018-01-01T09:00:00").lastDate(LocalDate.parse("2018-07-01")).build();
+
+    Assert.assertEquals(
+        Instant.parse("2018-01-01T08:00:00Z"),
+        MeetingOccurrences.seriesStart(series).toInstant());
+    Assert.assertEquals(
+        Instant.parse("2018-07-01T07:15:00Z"), MeetingOccurrences.seriesEnd(series).toInstant());
+    Assert.assertNull(MeetingOccurrences.seriesEnd(daily("2018-01-01T09:00:00").build()));
+  }
+}
@@ -3,40 +3,125 @@ package com.fkusztel.meeting.planner.service;
 import static com.fkusztel.meeting.planner.config.TestObjectFactory.Dates.DATE_BERLIN;
 import static com.fkusztel.meeting.planner.config.TestObjectFactory.TimeZones.TIME_ZONE_BERLIN;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.notNull;
 
 import com.fkusztel.meeting.planner.config.TestObjectFactory;
 import com.fkusztel.meeting.planner.config.TestObjectFactory.Dates;
+import com.fkusztel.meeting.planner.entity.Frequency;
 import com.fkusztel.meeting.planner.entity.Meeting;
 import com.fkusztel.meeting.planner.entity.MeetingRepository;
+import com.fkusztel.meeting.planner.entity.MeetingSeries;
+import com.fkusztel.meeting.planner.entity.MeetingSeriesRepository;
 import com.fkusztel.meeting.planner.entity.MeetingType;
+import com.fkusztel.meeting.planner.entity.MeetingView;
 import com.fkusztel.meeting.planner.entity.PriorityType;
+import com.fkusztel.meeting.planner.exception.CursorException;
+import com.fkusztel.meeting.planner.exception.MeetingConflictException;
 import com.fkusztel.meeting.planner.exception.MeetingNotFoundException;
+import com.fkusztel.meeting.planner.exception.MeetingVersionException;
+import com.fkusztel.meeting.planner.exception.OccurrenceNotFoundException;
+import com.fkusztel.meeting.planner.service.MeetingBulkResult.Status;
+import com.fkusztel.meeting.planner.service.MeetingChange.Action;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Arrays;
-import java.util.Comparator;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Sort.Order;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /** @author Filip.Kusztelak */
 @RunWith(SpringRunner.class)
-@SpringBootTest(classes = {MeetingServiceImplTest.class, MeetingServiceImpl.class})
+@SpringBootTest(
+    classes = {
+      MeetingServiceImplTest.class,
+      MeetingServiceImpl.class,
+      MeetingCache.class,
+      MeetingIndex.class,
+      MeetingAuditor.class,
+      MeetingVersion.class,
+      MeetingChangeFeed.class,
+      MeetingLocks.class
+    },
+    properties = "meeting.index.enabled=false")
 public class MeetingServiceImplTest {
 
+  private static final Duration ONE_HOUR = Duration.ofHours(1);
+
+  private static List<MeetingView> berlinView() {
+    return Lists.newArrayList(MeetingView.of(TestObjectFactory.Meetings.getMeetingBerlin()));
+  }
+
+  private static MeetingTime berlinTime() {
+    return MeetingTime.of(DATE_BERLIN, TIME_ZONE_BERLIN, ONE_HOUR);
+  }
+
+  /** Berlin meeting as written by the service, with dates in UTC. */
+  private static Meeting berlinMeeting(Long meetingId) {
+    Meeting meeting = TestObjectFactory.Meetings.getMeetingBerlin();
+    return meeting
+        .toBuilder()
+        .id(meetingId)
+        .meetingDate(meeting.getMeetingDate().withZoneSameInstant(ZoneOffset.UTC))
+        .meetingEndDate(meeting.getMeetingEndDate().withZoneSameInstant(ZoneOffset.UTC))
+        .build();
+  }
+
   @Autowired private MeetingServiceImpl meetingService;
 
   @MockBean private MeetingRepository meetingRepository;
 
+  @MockBean private MeetingSeriesRepository meetingSeriesRepository;
+
+  @MockBean private TransactionTemplate transactionTemplate;
+
+  @Autowired private MeetingCache meetingCache;
+
+  @Autowired private MeetingVersion meetingVersion;
+
+  @Autowired private MeetingChangeFeed meetingChangeFeed;
+
+  @Before
+  public void setUp() {
+    meetingCache.invalidateAll();
+    Mockito.when(transactionTemplate.execute(any()))
+        .thenAnswer(
+            invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+  }
+
   @Test
   public void missionCreate_ProperMeetingAndPriorityType() {
 
@@ -44,42 +129,68 @@ public class MeetingServiceImplTest {
         .thenReturn(TestObjectFactory.Meetings.getMeetingBerlin());
 
     Meeting result =
-        meetingService.meetingCreate(
-            MeetingType.GROOMING, PriorityType.MEDIUM, DATE_BERLIN, TIME_ZONE_BERLIN);
+        meetingService.meetingCreate(MeetingType.GROOMING, PriorityType.MEDIUM, berlinTime());
 
     Assert.assertEquals(TestObjectFactory.Meetings.getMeetingBerlin(), result);
+    Mockito.verify(meetingRepository, Mockito.times(1)).save(any(Meeting.class));
+  }
+
+  @Test
+  public void meetingCreate_versionBumped() {
+    Mockito.when(meetingRepository.save(any(Meeting.class)))
+        .thenReturn(TestObjectFactory.Meetings.getMeetingBerlin());
+    String before = meetingVersion.get();
+
+    meetingService.meetingCreate(MeetingType.GROOMING, PriorityType.MEDIUM, berlinTime());
+
+    Assert.assertNotEquals(before, meetingVersion.get());
   }
 
   @Test(expected = IllegalArgumentException.class)
   public void meetingCreate_WrongMeetingType() {
-    meetingService.meetingCreate(
-        MeetingType.valueOf("WRONG"), PriorityType.MEDIUM, DATE_BERLIN, TIME_ZONE_BERLIN);
+    meetingService.meetingCreate(MeetingType.valueOf("WRONG"), PriorityType.MEDIUM, berlinTime());
   }
 
   @Test(expected = IllegalArgumentException.class)
   public void meetingCreate_WrongPriorityType() {
+    meetingService.meetingCreate(MeetingType.GROOMING, PriorityType.valueOf("WRONG"), berlinTime());
+  }
+
+  @Test(expected = MeetingConflictException.class)
+  public void meetingCreate_overlappingMeeting() {
+    Mockito.when(meetingRepository.findEndingAfter(any(), eq(-1L), any()))
+        .thenReturn(Lists.newArrayList(TestObjectFactory.Meetings.getMeetingBerlin()));
+
+    meetingService.meetingCreate(MeetingType.GROOMING, PriorityType.MEDIUM, berlinTime());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void meetingCreate_WrongDuration() {
     meetingService.meetingCreate(
-        MeetingType.GROOMING, PriorityType.valueOf("WRONG"), DATE_BERLIN, TIME_ZONE_BERLIN);
+        MeetingType.GROOMING,
+        PriorityType.MEDIUM,
+        MeetingTime.of(DATE_BERLIN, TIME_ZONE_BERLIN, Duration.ZERO));
   }
 
   @Test
   public void findAllMeetings_success() {
-    List<Meeting> missionListExcepted = TestObjectFactory.Meetings.getMeetingList();
+    List<MeetingView> missionListExcepted =
+        TestObjectFactory.Meetings.views(TestObjectFactory.Meetings.getMeetingList());
 
-    Mockito.when(meetingRepository.findAll()).thenReturn(missionListExcepted);
+    Mockito.when(meetingRepository.findAllViews()).thenReturn(missionListExcepted);
 
-    List<Meeting> missionListResult = (List<Meeting>) meetingService.findAll();
+    List<MeetingView> missionListResult = meetingService.findAll();
 
     Assert.assertEquals(missionListExcepted, missionListResult);
   }
 
   @Test
   public void findAllMissions_emptyList() {
-    List<Meeting> missionListExcepted = Lists.newArrayList();
+    List<MeetingView> missionListExcepted = Lists.newArrayList();
 
-    Mockito.when(meetingRepository.findAll()).thenReturn(missionListExcepted);
+    Mockito.when(meetingRepository.findAllViews()).thenReturn(missionListExcepted);
 
-    List<Meeting> missionListResult = (List<Meeting>) meetingService.findAll();
+    List<MeetingView> missionListResult = meetingService.findAll();
 
     Assert.assertEquals(missionListExcepted, missionListResult);
   }
@@ -101,6 +212,47 @@ public class MeetingServiceImplTest {
     meetingService.findMeetingById(1L);
   }
 
+  @Test
+  public void findMissionById_cached() throws MeetingNotFoundException {
+    Mockito.when(meetingRepository.findById(2L))
+        .thenReturn(Optional.of(TestObjectFactory.Meetings.getMeetingParis()));
+
+    meetingService.findMeetingById(2L);
+    Meeting result = meetingService.findMeetingById(2L);
+
+    Assert.assertEquals(TestObjectFactory.Meetings.getMeetingParis(), result);
+    Mockito.verify(meetingRepository, Mockito.times(1)).findById(2L);
+  }
+
+  @Test
+  public void findMissionById_absentCached() {
+    Mockito.when(meetingRepository.findById(1L)).thenReturn(Optional.empty());
+
+    for (int i = 0; i < 2; i++) {
+      try {
+        meetingService.findMeetingById(1L);
+        Assert.fail();
+      } catch (MeetingNotFoundException e) {
+        // expected
+      }
+    }
+    Mockito.verify(meetingRepository, Mockito.times(1)).findById(1L);
+  }
+
+  @Test
+  public void missionUpdate_invalidatesCache() throws MeetingNotFoundException {
+    Mockito.when(meetingRepository.findById(2L))
+        .thenReturn(Optional.of(TestObjectFactory.Meetings.getMeetingParis()));
+    Mockito.when(meetingRepository.update(any(Meeting.class))).thenReturn(1);
+
+    meetingService.findMeetingById(2L);
+    meetingService.updateMeeting(
+        2L, MeetingType.GROOMING, PriorityType.MEDIUM, berlinTime(), null);
+    meetingService.findMeetingById(2L);
+
+    Mockito.verify(meetingRepository, Mockito.times(2)).findById(2L);
+  }
+
   @Test
   public void getMeetingTypes() {
     List<MeetingType> result = (List<MeetingType>) meetingService.getType();
@@ -117,96 +269,543 @@ public class MeetingServiceImplTest {
 
   @Test
   public void missionUpdate_Success() {
-    Mockito.when(meetingRepository.findById(2L))
-        .thenReturn(Optional.of(TestObjectFactory.Meetings.getMeetingParis()));
-
-    Meeting exceptedResult = TestObjectFactory.Meetings.getMeetingBerlin();
-    exceptedResult.setId(2L);
+    Meeting exceptedResult = berlinMeeting(2L);
 
-    Mockito.when(meetingRepository.save(any(Meeting.class)))
-        .thenReturn(TestObjectFactory.Meetings.getMeetingParis());
+    Mockito.when(meetingRepository.update(berlinMeeting(2L))).thenReturn(1);
 
     Meeting result =
         meetingService.updateMeeting(
-            2L, MeetingType.GROOMING, PriorityType.MEDIUM, DATE_BERLIN, TIME_ZONE_BERLIN);
+            2L, MeetingType.GROOMING, PriorityType.MEDIUM, berlinTime(), null);
 
     Assert.assertEquals(exceptedResult, result);
+    Assert.assertNull(result.getVersion());
+    Mockito.verify(meetingRepository, Mockito.never()).findById(any());
+    Mockito.verify(meetingRepository, Mockito.never()).save(any(Meeting.class));
   }
 
   @Test
   public void missionUpdateFailed_createNewMission() {
-    Mockito.when(meetingRepository.findById(2L)).thenReturn(Optional.empty());
+    Mockito.when(meetingRepository.update(any(Meeting.class))).thenReturn(0);
 
-    Meeting exceptedResult = TestObjectFactory.Meetings.getMeetingBerlin();
-    exceptedResult.setId(2L);
+    Meeting exceptedResult = berlinMeeting(5L);
 
     Mockito.when(meetingRepository.save(any(Meeting.class)))
-        .thenReturn(TestObjectFactory.Meetings.getMeetingParis());
+        .thenAnswer(
+            invocation -> {
+              Meeting saved = invocation.getArgument(0);
+              Assert.assertNull(saved.getId());
+              saved.setId(5L);
+              return saved;
+            });
 
     Meeting result =
         meetingService.updateMeeting(
-            2L, MeetingType.GROOMING, PriorityType.MEDIUM, DATE_BERLIN, TIME_ZONE_BERLIN);
+            2L, MeetingType.GROOMING, PriorityType.MEDIUM, berlinTime(), null);
 
     Assert.assertEquals(exceptedResult, result);
+    Mockito.verify(meetingRepository, Mockito.never()).findById(any());
   }
 
   @Test
-  public void missionSortBy_DateAsc() {
-    List<Meeting> exceptedResult = TestObjectFactory.Meetings.getMeetingList();
-    exceptedResult.sort(Comparator.comparing(Meeting::getMeetingDate));
+  public void updateMeeting_versionIncremented() {
+    Mockito.when(meetingRepository.update(berlinMeeting(2L).toBuilder().version(3L).build()))
+        .thenReturn(1);
 
-    Mockito.when(meetingRepository.findAll(any(Sort.class)))
-        .thenReturn(TestObjectFactory.Meetings.getMeetingList());
+    Meeting result =
+        meetingService.updateMeeting(
+            2L, MeetingType.GROOMING, PriorityType.MEDIUM, berlinTime(), 3L);
 
-    List<Meeting> result = (List<Meeting>) meetingService.getSorted("meetingDate", Direction.ASC);
-    result.sort(Comparator.comparing(Meeting::getMeetingDate));
+    Assert.assertEquals(Long.valueOf(4L), result.getVersion());
+  }
 
-    Assert.assertEquals(exceptedResult, result);
+  @Test(expected = MeetingVersionException.class)
+  public void updateMeeting_staleVersionNeitherUpdatedNorCreated() {
+    Mockito.when(meetingRepository.update(any(Meeting.class))).thenReturn(0);
+
+    try {
+      meetingService.updateMeeting(2L, MeetingType.GROOMING, PriorityType.MEDIUM, berlinTime(), 3L);
+    } finally {
+      Mockito.verify(meetingRepository, Mockito.never()).save(any(Meeting.class));
+    }
   }
 
   @Test
-  public void missionSortBy_DateDesc() {
-    List<Meeting> exceptedResult = TestObjectFactory.Meetings.getMeetingList();
-    exceptedResult.sort(Comparator.comparing(Meeting::getMeetingDate).reversed());
+  public void updateMeeting_retriedOnConcurrentWrite() {
+    Mockito.when(meetingRepository.update(any(Meeting.class)))
+        .thenThrow(new CannotAcquireLockException("Lock wait timeout exceeded"))
+        .thenReturn(1);
 
-    Mockito.when(meetingRepository.findAll(any(Sort.class)))
-        .thenReturn(TestObjectFactory.Meetings.getMeetingList());
+    Meeting result =
+        meetingService.updateMeeting(
+            2L, MeetingType.GROOMING, PriorityType.MEDIUM, berlinTime(), 3L);
 
-    List<Meeting> result = (List<Meeting>) meetingService.getSorted("meetingDate", Direction.ASC);
-    result.sort(Comparator.comparing(Meeting::getMeetingDate).reversed());
+    Assert.assertEquals(Long.valueOf(4L), result.getVersion());
+    Mockito.verify(meetingRepository, Mockito.times(2)).update(any(Meeting.class));
+  }
 
-    Assert.assertEquals(exceptedResult, result);
+  @Test
+  public void updateMeeting_retriesBounded() {
+    Mockito.when(meetingRepository.update(any(Meeting.class)))
+        .thenThrow(new CannotAcquireLockException("Lock wait timeout exceeded"));
+
+    try {
+      meetingService.updateMeeting(
+          2L, MeetingType.GROOMING, PriorityType.MEDIUM, berlinTime(), null);
+      Assert.fail();
+    } catch (CannotAcquireLockException expected) {
+      Mockito.verify(meetingRepository, Mockito.times(3)).update(any(Meeting.class));
+    }
+  }
+
+  @Test
+  public void updateMeetingAll_staleVersionFailsItem() {
+    Mockito.when(meetingRepository.findAllById(any()))
+        .thenReturn(
+            Lists.newArrayList(
+                TestObjectFactory.Meetings.getMeetingParis().toBuilder().version(4L).build()));
+
+    MeetingSpec spec = TestObjectFactory.Specs.getSpecBerlin().toBuilder().version(3L).build();
+
+    List<MeetingBulkResult> result =
+        meetingService.updateMeetingAll(
+            Arrays.asList(
+                spec.toBuilder().meetingId(2L).build(),
+                spec.toBuilder().meetingId(7L).date(TestObjectFactory.Dates.DATE_PARIS).build()));
+
+    Assert.assertEquals(
+        Arrays.asList(
+            new MeetingBulkResult(
+                0, 2L, Status.FAILED, "Meeting with id: 2 is no longer at version: 3"),
+            new MeetingBulkResult(
+                1, 7L, Status.FAILED, "Meeting with id: 7 is no longer at version: 3")),
+        result);
+    Mockito.verify(meetingRepository, Mockito.never()).save(any(Meeting.class));
+  }
+
+  @Test
+  public void missionSortBy_priorityDescThenDate() {
+    Mockito.when(meetingRepository.findSlice(isNull(), any(Sort.class), eq(3)))
+        .thenReturn(TestObjectFactory.Meetings.views(TestObjectFactory.Meetings.getMeetingList()));
+
+    meetingService.getSorted(MeetingSort.parse("priorityType:desc,meetingDate:asc"), null, 2);
+
+    Mockito.verify(meetingRepository)
+        .findSlice(
+            isNull(),
+            eq(Sort.by(Order.desc("priorityType"), Order.asc("meetingDate"))),
+            eq(3));
+  }
+
+  @Test
+  public void missionSortByPage_nextCursor() {
+    Mockito.when(meetingRepository.findSlice(isNull(), any(Sort.class), eq(3)))
+        .thenReturn(TestObjectFactory.Meetings.views(TestObjectFactory.Meetings.getMeetingList()));
+
+    MeetingPage result = meetingService.getSorted(MeetingSort.BY_DATE, null, 2);
+
+    Assert.assertEquals(
+        TestObjectFactory.Meetings.views(TestObjectFactory.Meetings.getMeetingList()).subList(0, 2),
+        result.getMeetings());
+    Assert.assertNotNull(result.getNextCursor());
+
+    Mockito.when(meetingRepository.findSlice(notNull(), any(Sort.class), eq(3)))
+        .thenReturn(berlinView());
+
+    MeetingPage next =
+        meetingService.getSorted(MeetingSort.BY_DATE, result.getNextCursor(), 2);
+
+    Assert.assertEquals(berlinView(), next.getMeetings());
+    Assert.assertNull(next.getNextCursor());
+  }
+
+  @Test
+  public void findMeetings_filterPassedToRepository() {
+    Mockito.when(meetingRepository.findSlice(notNull(), any(Sort.class), eq(3)))
+        .thenReturn(berlinView());
+
+    MeetingPage result =
+        meetingService.findMeetings(
+            MeetingFilter.builder().priorityTypes(EnumSet.of(PriorityType.MEDIUM)).build(),
+            MeetingSort.BY_DATE,
+            null,
+            2);
+
+    Assert.assertEquals(berlinView(), result.getMeetings());
+    Assert.assertNull(result.getNextCursor());
+  }
+
+  @Test(expected = CursorException.class)
+  public void missionSortByPage_malformedCursor() {
+    meetingService.getSorted(MeetingSort.BY_DATE, "not a cursor", 2);
+  }
+
+  @Test(expected = CursorException.class)
+  public void missionSortByPage_cursorOfAnotherSort() {
+    Mockito.when(meetingRepository.findSlice(isNull(), any(Sort.class), eq(3)))
+        .thenReturn(TestObjectFactory.Meetings.views(TestObjectFactory.Meetings.getMeetingList()));
+
+    String cursor = meetingService.getSorted(MeetingSort.BY_DATE, null, 2).getNextCursor();
+
+    meetingService.getSorted(MeetingSort.of("priorityType", Direction.ASC), cursor, 2);
+  }
+
+  @Test
+  public void meetingCreateAll_failedItemDoesNotStopOthers() {
+    List<MeetingSpec> specs =
+        Arrays.asList(
+            TestObjectFactory.Specs.getSpecBerlin(),
+            TestObjectFactory.Specs.getSpecBerlin().toBuilder().date("wrong").build());
+    Mockito.when(meetingRepository.saveAll(any()))
+        .thenAnswer(
+            invocation -> {
+              invocation.<Iterable<Meeting>>getArgument(0).forEach(meeting -> meeting.setId(9L));
+              return null;
+            });
+
+    List<MeetingBulkResult> result = meetingService.meetingCreateAll(specs);
+
+    Assert.assertEquals(new MeetingBulkResult(0, 9L, Status.CREATED, null), result.get(0));
+    Assert.assertEquals(Status.FAILED, result.get(1).getStatus());
+    Assert.assertEquals(1, result.get(1).getIndex());
+    Mockito.verify(meetingRepository)
+        .saveAll(Mockito.<Iterable<Meeting>>argThat(meetings -> Iterables.size(meetings) == 1));
+  }
+
+  @Test
+  public void updateMeetingAll_updatesExistingAndCreatesAbsent() {
+    Mockito.when(meetingRepository.findAllById(any()))
+        .thenReturn(Lists.newArrayList(TestObjectFactory.Meetings.getMeetingParis()));
+    Mockito.when(meetingRepository.save(any(Meeting.class)))
+        .thenReturn(TestObjectFactory.Meetings.getMeetingBerlin());
+
+    List<MeetingBulkResult> result =
+        meetingService.updateMeetingAll(
+            Arrays.asList(
+                TestObjectFactory.Specs.getSpecBerlin().toBuilder().meetingId(2L).build(),
+                TestObjectFactory.Specs.getSpecBerlin()
+                    .toBuilder()
+                    .meetingId(7L)
+                    .date(TestObjectFactory.Dates.DATE_PARIS)
+                    .build(),
+                TestObjectFactory.Specs.getSpecBerlin()));
+
+    Assert.assertEquals(
+        Arrays.asList(
+            new MeetingBulkResult(0, 2L, Status.UPDATED, null),
+            new MeetingBulkResult(1, 1L, Status.CREATED, null),
+            new MeetingBulkResult(2, null, Status.FAILED, "meetingId is required")),
+        result);
+  }
+
+  @Test
+  public void deleteMeeting_absentCountedAsNotFound() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    Metrics.addRegistry(registry);
+    Mockito.doThrow(new EmptyResultDataAccessException(1)).when(meetingRepository).deleteById(7L);
+    String version = meetingVersion.get();
+
+    try {
+      meetingService.deleteMeeting(7L);
+      Assert.fail();
+    } catch (MeetingNotFoundException expected) {
+      Assert.assertEquals(
+          1, registry.get("meeting.not.found").tag("operation", "delete").counter().count(), 0);
+      // Nothing was written, listings tagged with the version stay valid
+      Assert.assertEquals(version, meetingVersion.get());
+    } finally {
+      Metrics.removeRegistry(registry);
+    }
+  }
+
+  @Test
+  public void deleteMeeting_waitsForUpdateOfSameMeeting() throws Exception {
+    CountDownLatch updating = new CountDownLatch(1);
+    CountDownLatch released = new CountDownLatch(1);
+    Mockito.when(meetingRepository.update(any(Meeting.class)))
+        .thenAnswer(
+            invocation -> {
+              updating.countDown();
+              released.await();
+              return 1;
+            });
+    long last = meetingChangeFeed.getLast();
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    try {
+      Future<Meeting> update =
+          executor.submit(
+              () ->
+                  meetingService.updateMeeting(
+                      2L, MeetingType.GROOMING, PriorityType.MEDIUM, berlinTime(), null));
+      Assert.assertTrue(updating.await(5, TimeUnit.SECONDS));
+      Future<?> delete =
+          executor.submit(
+              () -> {
+                meetingService.deleteMeeting(2L);
+                return null;
+              });
+
+      // The update holds the lock of the meeting until it committed
+      Thread.sleep(200);
+      Mockito.verify(meetingRepository, Mockito.never()).deleteById(2L);
+      released.countDown();
+      update.get(5, TimeUnit.SECONDS);
+      delete.get(5, TimeUnit.SECONDS);
+    } finally {
+      released.countDown();
+      executor.shutdownNow();
+    }
+
+    Assert.assertEquals(
+        Arrays.asList(Action.UPDATED, Action.DELETED),
+        meetingChangeFeed
+            .since(last)
+            .stream()
+            .map(MeetingChange::getAction)
+            .collect(Collectors.toList()));
+  }
+
+  @Test
+  public void deleteMeetingAll_reportsAbsent() {
+    Mockito.when(meetingRepository.findAllById(Arrays.asList(2L, 7L)))
+        .thenReturn(Lists.newArrayList(TestObjectFactory.Meetings.getMeetingParis()));
+
+    List<MeetingBulkResult> result = meetingService.deleteMeetingAll(Arrays.asList(2L, 7L));
+
+    Assert.assertEquals(
+        Arrays.asList(
+            new MeetingBulkResult(0, 2L, Status.DELETED, null),
+            new MeetingBulkResult(1, 7L, Status.NOT_FOUND, null)),
+        result);
   }
 
   @Test
   public void findProductByDateBetween_success() {
-    Mockito.when(meetingRepository.findAll()).thenReturn(TestObjectFactory.Meetings.getDatesAll());
+    Mockito.when(
+            meetingRepository.findByMeetingDateBetween(
+                LocalDateTime.parse(Dates.DATE_PARIS).atZone(ZoneOffset.UTC),
+                LocalDateTime.parse(Dates.DATE_LOS_ANGELES).atZone(ZoneOffset.UTC)))
+        .thenReturn(TestObjectFactory.Meetings.views(TestObjectFactory.Meetings.getDatesBetween()));
 
-    List<Meeting> result =
-        Lists.newArrayList(
-            meetingService.findMeetingByDateBetween(
-                LocalDateTime.parse(Dates.DATE_PARIS),
-                LocalDateTime.parse(Dates.DATE_LOS_ANGELES)));
+    List<MeetingView> result =
+        meetingService.findMeetingByDateBetween(
+            LocalDateTime.parse(Dates.DATE_PARIS), LocalDateTime.parse(Dates.DATE_LOS_ANGELES));
 
-    List<Meeting> exceptedResult = TestObjectFactory.Meetings.getDatesBetween();
+    List<MeetingView> exceptedResult =
+        TestObjectFactory.Meetings.views(TestObjectFactory.Meetings.getDatesBetween());
 
     Assert.assertEquals(exceptedResult, result);
   }
 
   @Test
   public void findProductByDateBetween_emptyList() {
-    List<Meeting> mockResult = Lists.newArrayList();
+    List<MeetingView> mockResult = Lists.newArrayList();
 
-    Mockito.when(meetingRepository.findAll()).thenReturn(mockResult);
+    Mockito.when(meetingRepository.findByMeetingDateBetween(any(), any())).thenReturn(mockResult);
 
-    List<Meeting> result =
-        Lists.newArrayList(
-            meetingService.findMeetingByDateBetween(
-                LocalDateTime.parse(Dates.DATE_LOS_ANGELES),
-                LocalDateTime.parse(Dates.DATE_PARIS)));
+    List<MeetingView> result =
+        meetingService.findMeetingByDateBetween(
+            LocalDateTime.parse(Dates.DATE_LOS_ANGELES), LocalDateTime.parse(Dates.DATE_PARIS));
 
-    List<Meeting> exceptedResult = Lists.newArrayList();
+    List<MeetingView> exceptedResult = Lists.newArrayList();
 
     Assert.assertEquals(exceptedResult, result);
   }
+
+  private static MeetingSeries dailyStandUp(String firstDate) {
+    return MeetingSeries.builder()
+        .id(9L)
+        .meetingType(MeetingType.STAND_UP)
+        .priorityType(PriorityType.HIGH)
+        .firstDate(LocalDateTime.parse(firstDate))
+        .timeZone(TIME_ZONE_BERLIN)
+        .durationMinutes(15)
+        .frequency(Frequency.DAILY)
+        .repeatInterval(1)
+        .build();
+  }
+
+  @Test
+  public void findMeetingByDateBetween_mergesOccurrencesOfSeries() {
+    Meeting meeting = meetingAt("2018-01-02T12:00:00", 60, PriorityType.LOW);
+    Mockito.when(meetingRepository.findByMeetingDateBetween(any(), any()))
+        .thenReturn(Lists.newArrayList(MeetingView.of(meeting)));
+    Mockito.when(meetingSeriesRepository.findOverlapping(any(), any()))
+        .thenReturn(Arrays.asList(dailyStandUp("2018-01-01T09:00:00")));
+
+    List<MeetingView> result =
+        meetingService.findMeetingByDateBetween(
+            LocalDateTime.parse("2018-01-02T08:00:00"), LocalDateTime.parse("2018-01-03T12:00:00"));
+
+    // The occurrence starting at the exclusive lower bound is left out
+    Assert.assertEquals(
+        Arrays.asList(meeting.getId(), null),
+        Lists.transform(result, MeetingView::getId));
+    Assert.assertEquals(Long.valueOf(9L), result.get(1).getSeriesId());
+    Assert.assertEquals(
+        LocalDateTime.parse("2018-01-03T08:00:00").atZone(ZoneOffset.UTC),
+        result.get(1).getMeetingDate());
+  }
+
+  @Test
+  public void findFreeSlots_occurrencesOfSeriesBlockSlots() {
+    Mockito.when(meetingRepository.streamStartingBetween(any(), any()))
+        .thenAnswer(
+            invocation -> Stream.of(meetingAt("2018-01-01T10:00:00", 60, PriorityType.LOW)));
+    Mockito.when(meetingSeriesRepository.findOverlapping(any(), any()))
+        .thenReturn(Arrays.asList(dailyStandUp("2018-01-01T09:00:00")));
+
+    List<FreeSlot> result =
+        meetingService.findFreeSlots(
+            LocalDateTime.parse("2018-01-01T07:00:00"),
+            LocalDateTime.parse("2018-01-01T12:00:00"),
+            Duration.ofMinutes(30),
+            null,
+            10);
+
+    Assert.assertEquals(
+        Arrays.asList(
+            slot("2018-01-01T07:00:00", "2018-01-01T08:00:00"),
+            slot("2018-01-01T08:15:00", "2018-01-01T10:00:00"),
+            slot("2018-01-01T11:00:00", "2018-01-01T12:00:00")),
+        result);
+  }
+
+  @Test
+  public void seriesCreate_boundsStoredInUtc() {
+    Mockito.when(meetingSeriesRepository.save(any(MeetingSeries.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+    MeetingSeries series = dailyStandUp("2018-03-20T09:00:00");
+    series.setLastDate(LocalDate.parse("2018-03-30"));
+
+    MeetingSeries result = meetingService.seriesCreate(series);
+
+    Assert.assertNull(result.getId());
+    Assert.assertEquals(
+        LocalDateTime.parse("2018-03-20T08:00:00").atZone(ZoneOffset.UTC), result.getSeriesStart());
+    Assert.assertEquals(
+        LocalDateTime.parse("2018-03-30T07:15:00").atZone(ZoneOffset.UTC), result.getSeriesEnd());
+  }
+
+  @Test
+  public void seriesCreate_occurrenceOverlappingMeetingRejected() {
+    // Third occurrence starts at 08:00 UTC, before this meeting ends
+    Mockito.when(meetingRepository.findEndingAfter(any(), any(), any()))
+        .thenReturn(
+            Collections.singletonList(meetingAt("2018-03-22T07:30:00", 60, PriorityType.LOW)));
+
+    try {
+      meetingService.seriesCreate(dailyStandUp("2018-03-20T09:00:00"));
+      Assert.fail();
+    } catch (MeetingConflictException e) {
+      Mockito.verify(meetingSeriesRepository, Mockito.never()).save(any());
+    }
+  }
+
+  @Test
+  public void seriesCreate_occurrenceOverlappingSeriesRejected() {
+    MeetingSeries other = dailyStandUp("2018-03-26T09:10:00");
+    other.setSeriesStart(MeetingOccurrences.seriesStart(other));
+    Mockito.when(meetingSeriesRepository.findOverlapping(any(), any()))
+        .thenReturn(Collections.singletonList(other));
+
+    try {
+      meetingService.seriesCreate(dailyStandUp("2018-03-20T09:00:00"));
+      Assert.fail();
+    } catch (MeetingConflictException e) {
+      Assert.assertEquals("Meeting overlaps a meeting of series with id: 9", e.getMessage());
+    }
+  }
+
+  @Test
+  public void cancelOccurrence_onlyDatesOfOccurrences() throws Exception {
+    MeetingSeries series = dailyStandUp("2018-03-19T09:00:00");
+    series.setFrequency(Frequency.WEEKLY);
+    series.setDaysOfWeek(EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.THURSDAY));
+    series.setLastDate(LocalDate.parse("2018-04-30"));
+    Mockito.when(meetingSeriesRepository.findById(9L)).thenReturn(Optional.of(series));
+
+    meetingService.cancelOccurrence(9L, LocalDate.parse("2018-03-22"));
+    for (String date : Arrays.asList("2018-03-20", "2018-03-15", "2018-05-03")) {
+      try {
+        meetingService.cancelOccurrence(9L, LocalDate.parse(date));
+        Assert.fail(date);
+      } catch (OccurrenceNotFoundException e) {
+        // Not a date of the series
+      }
+    }
+
+    Assert.assertEquals(
+        Collections.singleton(LocalDate.parse("2018-03-22")), series.getExceptions());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void seriesCreate_lastDateBeforeFirstDate() {
+    MeetingSeries series = dailyStandUp("2018-03-20T09:00:00");
+    series.setLastDate(LocalDate.parse("2018-03-19"));
+
+    meetingService.seriesCreate(series);
+  }
+
+  private static Meeting meetingAt(String start, long minutes, PriorityType priorityType) {
+    return TestObjectFactory.Meetings.getMeetingParis()
+        .toBuilder()
+        .priorityType(priorityType)
+        .meetingDate(LocalDateTime.parse(start).atZone(ZoneOffset.UTC))
+        .meetingEndDate(LocalDateTime.parse(start).plusMinutes(minutes).atZone(ZoneOffset.UTC))
+        .build();
+  }
+
+  private static FreeSlot slot(String start, String end) {
+    return new FreeSlot(
+        LocalDateTime.parse(start).atZone(ZoneOffset.UTC),
+        LocalDateTime.parse(end).atZone(ZoneOffset.UTC));
+  }
+
+  @Test
+  public void findFreeSlots_gapsBetweenMeetings() {
+    Mockito.when(meetingRepository.streamStartingBetween(any(), any()))
+        .thenAnswer(
+            invocation ->
+                Stream.of(
+                    meetingAt("2018-01-01T08:30:00", 60, PriorityType.HIGH),
+                    meetingAt("2018-01-01T10:00:00", 30, PriorityType.LOW),
+                    meetingAt("2018-01-01T11:00:00", 60, PriorityType.MEDIUM)));
+
+    List<FreeSlot> result =
+        meetingService.findFreeSlots(
+            LocalDateTime.parse("2018-01-01T09:00:00"),
+            LocalDateTime.parse("2018-01-01T14:00:00"),
+            Duration.ofMinutes(30),
+            null,
+            10);
+
+    Assert.assertEquals(
+        Arrays.asList(
+            slot("2018-01-01T09:30:00", "2018-01-01T10:00:00"),
+            slot("2018-01-01T10:30:00", "2018-01-01T11:00:00"),
+            slot("2018-01-01T12:00:00", "2018-01-01T14:00:00")),
+        result);
+
+    result =
+        meetingService.findFreeSlots(
+            LocalDateTime.parse("2018-01-01T09:00:00"),
+            LocalDateTime.parse("2018-01-01T14:00:00"),
+            Duration.ofMinutes(45),
+            PriorityType.MEDIUM,
+            1);
+
+    Assert.assertEquals(
+        Arrays.asList(slot("2018-01-01T09:30:00", "2018-01-01T11:00:00")), result);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void findFreeSlots_wrongDuration() {
+    meetingService.findFreeSlots(
+        LocalDateTime.parse(Dates.DATE_PARIS),
+        LocalDateTime.parse(Dates.DATE_LOS_ANGELES),
+        Duration.ZERO,
+        null,
+        10);
+  }
 }
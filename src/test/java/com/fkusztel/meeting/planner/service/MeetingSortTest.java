@@ -0,0 +1,69 @@
+package com.fkusztel.meeting.planner.service;
+
+import com.fkusztel.meeting.planner.exception.DirectionException;
+import com.fkusztel.meeting.planner.exception.SortException;
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Sort.Order;
+
+/** @author Filip.Kusztelak */
+public class MeetingSortTest {
+
+  @Test
+  public void parse_completedWithDateInDirectionOfFirstKey() {
+    Assert.assertEquals(
+        Arrays.asList(Order.desc("priorityType"), Order.desc("meetingDate")),
+        MeetingSort.parse("priorityType:desc").getOrders());
+    Assert.assertEquals(
+        MeetingSort.of("meetingType", Direction.ASC), MeetingSort.parse("meetingType"));
+  }
+
+  @Test
+  public void parse_mixedDirectionsServedByIndex() {
+    Assert.assertEquals(
+        Arrays.asList(Order.desc("priorityType"), Order.asc("meetingDate")),
+        MeetingSort.parse("priorityType:desc, meetingDate:asc").getOrders());
+    Assert.assertEquals(
+        Arrays.asList(Order.asc("priorityType"), Order.desc("meetingDate")),
+        MeetingSort.parse("priorityType:asc,meetingDate:desc").getOrders());
+  }
+
+  @Test
+  public void parse_keysAfterUniqueKeyDropped() {
+    Assert.assertEquals(MeetingSort.BY_DATE, MeetingSort.parse("meetingDate,priorityType"));
+  }
+
+  @Test
+  public void format_parsedBack() {
+    MeetingSort sort = MeetingSort.parse("priorityType:desc,meetingDate");
+
+    Assert.assertEquals(sort, MeetingSort.parse(sort.format()));
+  }
+
+  @Test(expected = SortException.class)
+  public void parse_attributeNotOnWhitelist() {
+    MeetingSort.parse("meetingEndDate");
+  }
+
+  @Test(expected = SortException.class)
+  public void parse_notServedByIndex() {
+    MeetingSort.parse("meetingType:desc,meetingDate:asc");
+  }
+
+  @Test(expected = SortException.class)
+  public void parse_repeatedAttribute() {
+    MeetingSort.parse("priorityType:asc,priorityType:desc");
+  }
+
+  @Test(expected = DirectionException.class)
+  public void parse_wrongDirection() {
+    MeetingSort.parse("meetingDate:up");
+  }
+
+  @Test(expected = SortException.class)
+  public void of_missingAttribute() {
+    MeetingSort.of(null, Direction.ASC);
+  }
+}
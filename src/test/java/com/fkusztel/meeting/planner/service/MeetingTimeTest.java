@@ -0,0 +1,80 @@
+package com.fkusztel.meeting.planner.service;
+
+import com.fkusztel.meeting.planner.config.ZoneIdConverter;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import org.junit.Assert;
+import org.junit.Test;
+
+/** @author Filip.Kusztelak */
+public class MeetingTimeTest {
+
+  private static final ZoneId BERLIN = ZoneIdConverter.toZoneId("Europe/Berlin");
+
+  private static final ZoneId LONDON = ZoneIdConverter.toZoneId("Europe/London");
+
+  @Test
+  public void parseLocal_sameAsLocalDateTimeParse() {
+    for (String date :
+        new String[] {
+          "2018-02-03T12:30:30", "2018-12-31T23:59:59", "2018-02-03T12:30", "2018-02-03T12:30:30.5"
+        }) {
+      Assert.assertEquals(LocalDateTime.parse(date), MeetingTime.parseLocal(date));
+    }
+  }
+
+  @Test(expected = DateTimeException.class)
+  public void parseLocal_invalidDate() {
+    MeetingTime.parseLocal("2018-02-30T12:30:30");
+  }
+
+  @Test(expected = DateTimeException.class)
+  public void parseLocal_invalidCharacters() {
+    MeetingTime.parseLocal("2018-0x-03T12:30:30");
+  }
+
+  @Test
+  public void toInstant_sameAsZonedDateTime() {
+    // Plain time, gap and overlap in both zones
+    for (String date :
+        new String[] {
+          "2018-02-03T12:30:30",
+          "2018-03-25T02:30:00",
+          "2018-03-25T01:30:00",
+          "2018-10-28T02:30:00",
+          "2018-10-28T01:30:00"
+        }) {
+      for (ZoneId zone : new ZoneId[] {BERLIN, LONDON, ZoneOffset.UTC}) {
+        LocalDateTime local = LocalDateTime.parse(date);
+        Assert.assertEquals(
+            ZonedDateTime.ofLocal(local, zone, ZoneOffset.UTC).toInstant(),
+            MeetingTime.toInstant(local, zone));
+      }
+    }
+  }
+
+  @Test
+  public void of_utcStartAndEnd() {
+    MeetingTime meetingTime = MeetingTime.of("2018-02-03T12:30:30", BERLIN, Duration.ofHours(1));
+
+    Assert.assertEquals(ZonedDateTime.parse("2018-02-03T11:30:30Z"), meetingTime.getStartDate());
+    Assert.assertEquals(ZonedDateTime.parse("2018-02-03T12:30:30Z"), meetingTime.getEndDate());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void of_negativeDuration() {
+    MeetingTime.of("2018-02-03T12:30:30", BERLIN, Duration.ofMinutes(-1));
+  }
+
+  @Test
+  public void toZoneId_cachedAndFallback() {
+    ZoneId tokyo = ZoneIdConverter.toZoneId("Asia/Tokyo");
+
+    Assert.assertSame(tokyo, ZoneIdConverter.toZoneId("Asia/Tokyo"));
+    Assert.assertEquals(ZoneOffset.ofHours(2), ZoneIdConverter.toZoneId("+02:00"));
+  }
+}
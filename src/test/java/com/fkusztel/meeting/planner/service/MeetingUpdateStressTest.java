@@ -0,0 +1,155 @@
+package com.fkusztel.meeting.planner.service;
+
+import com.fkusztel.meeting.planner.entity.Meeting;
+import com.fkusztel.meeting.planner.entity.MeetingType;
+import com.fkusztel.meeting.planner.entity.PriorityType;
+import com.fkusztel.meeting.planner.exception.MeetingNotFoundException;
+import com.fkusztel.meeting.planner.exception.MeetingVersionException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Concurrent read-modify-write updates of a few hot meetings. Each update extends its meeting by a
+ * minute from the duration it read, so a lost update would leave the meeting shorter than the
+ * number of successful updates.
+ *
+ * @author Filip.Kusztelak
+ */
+@Slf4j
+@RunWith(SpringRunner.class)
+@DataJpaTest(showSql = false)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({
+  MeetingServiceImpl.class,
+  MeetingCache.class,
+  MeetingIndex.class,
+  MeetingAuditor.class,
+  MeetingVersion.class,
+  MeetingChangeFeed.class,
+  MeetingLocks.class
+})
+public class MeetingUpdateStressTest {
+
+  private static final int THREADS = 8;
+
+  private static final int UPDATES_PER_THREAD = 100;
+
+  private static final int HOT_MEETINGS = 2;
+
+  private static final LocalDateTime START = LocalDateTime.parse("2030-01-01T09:00:00");
+
+  private static final Duration DURATION = Duration.ofMinutes(30);
+
+  @Autowired private MeetingService meetingService;
+
+  private final List<Long> meetingIds = new ArrayList<>();
+
+  @Before
+  public void setUp() {
+    for (int i = 0; i < HOT_MEETINGS; i++) {
+      String date = START.plusDays(i).toString();
+      meetingIds.add(
+          meetingService
+              .meetingCreate(
+                  MeetingType.GROOMING,
+                  PriorityType.LOW,
+                  MeetingTime.of(date, ZoneOffset.UTC, DURATION))
+              .getId());
+    }
+  }
+
+  @After
+  public void tearDown() {
+    meetingService.deleteMeetingAll(meetingIds);
+  }
+
+  @Test
+  public void updateMeeting_noUpdateLostUnderContention() throws Exception {
+    AtomicIntegerArray updates = new AtomicIntegerArray(HOT_MEETINGS);
+    AtomicInteger conflicts = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+    List<Future<?>> threads = new ArrayList<>();
+    for (int thread = 0; thread < THREADS; thread++) {
+      threads.add(
+          executor.submit(
+              () -> {
+                start.await();
+                for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                  int hot = i % HOT_MEETINGS;
+                  while (!extend(meetingIds.get(hot))) {
+                    conflicts.incrementAndGet();
+                  }
+                  updates.incrementAndGet(hot);
+                }
+                return null;
+              }));
+    }
+    long started = System.nanoTime();
+    start.countDown();
+    for (Future<?> thread : threads) {
+      thread.get(2, TimeUnit.MINUTES);
+    }
+    long elapsedMillis = Math.max(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), 1);
+    executor.shutdown();
+
+    for (int hot = 0; hot < HOT_MEETINGS; hot++) {
+      Meeting meeting = meetingService.findMeetingById(meetingIds.get(hot));
+      Assert.assertEquals(
+          DURATION.plusMinutes(updates.get(hot)),
+          Duration.between(meeting.getMeetingDate(), meeting.getMeetingEndDate()));
+      Assert.assertEquals(Long.valueOf(updates.get(hot)), meeting.getVersion());
+    }
+    int total = THREADS * UPDATES_PER_THREAD;
+    log.info(
+        "{} updates of {} meetings by {} threads in {} ms, {} updates/s, {} version conflicts",
+        total,
+        HOT_MEETINGS,
+        THREADS,
+        elapsedMillis,
+        total * 1000L / elapsedMillis,
+        conflicts.get());
+  }
+
+  /** Extend given meeting by a minute, false when it was updated since it was read. */
+  private boolean extend(Long meetingId) throws MeetingNotFoundException {
+    Meeting meeting = meetingService.findMeetingById(meetingId);
+    Duration duration = Duration.between(meeting.getMeetingDate(), meeting.getMeetingEndDate());
+    String date =
+        meeting.getMeetingDate().withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime().toString();
+    try {
+      meetingService.updateMeeting(
+          meetingId,
+          meeting.getMeetingType(),
+          meeting.getPriorityType(),
+          MeetingTime.of(date, ZoneOffset.UTC, duration.plusMinutes(1)),
+          meeting.getVersion());
+      return true;
+    } catch (MeetingVersionException e) {
+      return false;
+    }
+  }
+}